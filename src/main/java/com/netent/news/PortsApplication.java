@@ -3,11 +3,18 @@ package com.netent.news;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+@SpringBootApplication(proxyBeanMethods = false)
 public class PortsApplication {
 
+	/**
+	 * With {@code spring.context.exit=onRefresh}, the property Spring Boot 3.2 later adopted for the same purpose, the
+	 * application exits once started. Used for the training run that records the CDS archive ({@code -P cds}).
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(PortsApplication.class, args);
+		var context = SpringApplication.run(PortsApplication.class, args);
+		if ("onRefresh".equals(context.getEnvironment().getProperty("spring.context.exit"))) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
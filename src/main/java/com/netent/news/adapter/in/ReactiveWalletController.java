@@ -0,0 +1,67 @@
+package com.netent.news.adapter.in;
+
+import com.netent.news.domain.WalletId;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.in.TransactionRequest;
+import com.netent.news.application.port.in.TransactionResponse;
+import com.netent.news.application.port.in.ReactiveWalletService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Replaces {@link WalletController} when running with {@code spring.main.web-application-type=reactive}, so that a
+ * request never holds a thread while the operator answers.
+ */
+@RestController
+@RequestMapping("/wallets")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWalletController {
+
+    private final ReactiveWalletService walletService;
+
+    public ReactiveWalletController(ReactiveWalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    @GetMapping(path = "/{wallet}/balance", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    Mono<GetBalanceResponse> getBalance(@PathVariable WalletId wallet) {
+        return walletService.getBalance(wallet);
+    }
+
+    /**
+     * Balances of the wallets in the request body, a JSON array of ids, streamed as the operators answer: as
+     * server-sent events, or as NDJSON to callers that accept {@code application/x-ndjson}.
+     */
+    @PostMapping(path = "/balances", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    Flux<GetBalanceResponse> getBalances(@RequestBody List<WalletId> wallets) {
+        return walletService.getBalances(wallets);
+    }
+
+    /**
+     * Server-sent events carrying the balance of {@code wallet}, then every change to it, for clients that would
+     * otherwise poll {@link #getBalance}.
+     */
+    @GetMapping(path = "/{wallet}/balance/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<GetBalanceResponse> balanceUpdates(@PathVariable WalletId wallet) {
+        return walletService.balanceUpdates(wallet);
+    }
+
+    /**
+     * Applies a bet, win or withdrawal to {@code wallet}. Safe to retry with the same transaction id: a retry is
+     * answered as the transaction was, 409 if the id was used for a different transaction.
+     */
+    @PostMapping(path = "/{wallet}/transactions", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    Mono<TransactionResponse> transact(@PathVariable WalletId wallet, @RequestBody TransactionRequest transaction) {
+        return walletService.transact(transaction.toTransaction(wallet));
+    }
+}
@@ -0,0 +1,18 @@
+package com.netent.news.adapter.in;
+
+import com.netent.news.domain.WalletId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds {@code @PathVariable WalletId}. Registered with the MVC and WebFlux conversion services, it takes precedence
+ * over the generic fallback, which finds a factory method by reflection and invokes it reflectively on every request.
+ */
+@Component
+public class StringToWalletIdConverter implements Converter<String, WalletId> {
+
+    @Override
+    public WalletId convert(String source) {
+        return WalletId.of(source);
+    }
+}
@@ -0,0 +1,68 @@
+package com.netent.news.adapter.in;
+
+import com.netent.news.application.port.in.InvalidTransactionException;
+import com.netent.news.application.port.in.TooManyWalletsException;
+import com.netent.news.application.port.in.TransactionConflictException;
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers the failures of the wallet endpoints, on either web stack, with a status the caller can act on rather
+ * than a 500. No body is sent: the endpoints produce balances, not error documents.
+ */
+@RestControllerAdvice
+public class WalletExceptionHandler {
+
+    /**
+     * A bulk balance request asked for more wallets than one request may; split, it would succeed.
+     */
+    @ExceptionHandler(TooManyWalletsException.class)
+    ResponseEntity<Void> tooManyWallets() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * A transaction request lacks a field or has a malformed one.
+     */
+    @ExceptionHandler(InvalidTransactionException.class)
+    ResponseEntity<Void> invalidTransaction() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * The transaction id was already used for a different transaction.
+     */
+    @ExceptionHandler(TransactionConflictException.class)
+    ResponseEntity<Void> transactionConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * The operator refused the transaction; sent again, it would be refused again.
+     */
+    @ExceptionHandler(OperatorRejectedException.class)
+    ResponseEntity<Void> operatorRejected() {
+        return ResponseEntity.unprocessableEntity().build();
+    }
+
+    /**
+     * The operator was not called; the caller may retry once it has recovered.
+     */
+    @ExceptionHandler(OperatorUnavailableException.class)
+    ResponseEntity<Void> operatorUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    /**
+     * The operator did not answer within the deadline of the request.
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    ResponseEntity<Void> deadlineExceeded() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.netent.news.adapter.out;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease (AIMD) on observed latency: every call
+ * answered within the latency threshold raises the limit by {@code 1 / limit}, i.e. by about one per round of
+ * calls, a slower or failed one multiplies it by the backoff ratio. It backs off at most once per limit's worth of
+ * answers: the calls in flight when it backed off were all slowed down by the same overload, and backing off again
+ * for every one of them would take it to the minimum at once. The limit stays within {@code [min, max]}; {@code max}
+ * is the hard bulkhead no amount of good latency lifts.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final int min;
+    private final int max;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    // guarded by this; answers needed before backing off again: the limit as it was when it last backed off
+    private int answersSinceBackoff;
+    private int backoffAnswers;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max, Duration latencyThreshold, double backoffRatio) {
+        if (min < 1 || max < min || initial < min || initial > max || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("expected 1 <= min <= initial <= max and a backoff ratio in (0, 1)");
+        }
+        this.min = min;
+        this.max = max;
+        this.thresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initial;
+    }
+
+    /**
+     * @return whether a call may go ahead; every permitted call must be followed by {@link #onResult} or
+     * {@link #onCancel}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            var current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onResult(long nanos, boolean error) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            answersSinceBackoff = Math.min(answersSinceBackoff + 1, backoffAnswers);
+            if (!error && nanos <= thresholdNanos) {
+                limit = Math.min(max, limit + 1 / limit);
+            } else if (answersSinceBackoff >= backoffAnswers) {
+                backoffAnswers = (int) limit;
+                answersSinceBackoff = 0;
+                limit = Math.max(min, limit * backoffRatio);
+            }
+        }
+    }
+
+    public void onCancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
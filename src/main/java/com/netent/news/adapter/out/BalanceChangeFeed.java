@@ -0,0 +1,26 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.BalanceChanges;
+import com.netent.news.domain.WalletId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Multicasts invalidated wallets to the current subscribers. A subscriber without demand misses changes rather than
+ * holding up the invalidating thread.
+ */
+public class BalanceChangeFeed implements BalanceChanges {
+    private final Sinks.Many<WalletId> changes = Sinks.many().multicast().directBestEffort();
+
+    public void changed(WalletId wallet) {
+        // no subscriber or no demand is fine, only concurrent emits are retried
+        while (changes.tryEmitNext(wallet) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public Flux<WalletId> changes() {
+        return changes.asFlux();
+    }
+}
@@ -0,0 +1,136 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.Deadline;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects single-wallet lookups made concurrently and sends them upstream as one bulk lookup, once
+ * {@code maxBatchSize} lookups are waiting or the oldest has waited {@code window}, whichever comes first. Lookups of
+ * the same wallet within a batch are coalesced. If the bulk lookup fails, every lookup in the batch fails with it; a
+ * wallet missing from its answer fails with {@link OperatorRejectedException}.
+ * <p>
+ * A bulk lookup is made on behalf of every lookup in it, but can carry only one subscriber context: it gets that of
+ * the lookup with the earliest {@link Deadline}, so it runs under that deadline and in that lookup's trace. Lookups
+ * whose deadline has passed by the time their batch is sent fail with {@link DeadlineExceededException} and are left
+ * out of it. At most {@code maxConcurrentBatches} bulk lookups are in flight at once, later batches wait their turn.
+ */
+public class BatchingOperatorWalletFacade implements ReactiveOperatorWalletFacade, Disposable {
+    private final ReactiveOperatorWalletFacade delegate;
+    private final FluxSink<Pending> pending;
+    private final Disposable batching;
+
+    public BatchingOperatorWalletFacade(ReactiveOperatorWalletFacade delegate, int maxBatchSize, Duration window,
+                                        int maxConcurrentBatches) {
+        if (maxConcurrentBatches < 1) {
+            throw new IllegalArgumentException("At least one batch must be allowed in flight, was " + maxConcurrentBatches);
+        }
+        this.delegate = requireNonNull(delegate);
+        var sink = new AtomicReference<FluxSink<Pending>>();
+        // a FluxSink, unlike a Sinks.Many, takes lookups from any number of threads at once, queueing those it
+        // cannot pass on right away, so a lookup never fails for having been made concurrently with another
+        this.batching = Flux.<Pending>create(sink::set)
+                .bufferTimeout(maxBatchSize, window)
+                // bufferTimeout emits on its timer whether requested or not: batches beyond those in flight queue
+                // here rather than make it overflow
+                .onBackpressureBuffer()
+                .flatMap(this::send, maxConcurrentBatches)
+                .subscribe();
+        this.pending = sink.get();
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+        return Mono.deferContextual(context -> {
+            if (pending.isCancelled()) {
+                return Mono.error(new IllegalStateException("Batching of balance lookups is disposed"));
+            }
+            var result = Sinks.<OperatorGetBalance>one();
+            pending.next(new Pending(wallet, result, context));
+            return result.asMono();
+        });
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        return delegate.getBalances(wallets);
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return delegate.transact(transaction);
+    }
+
+    @Override
+    public void dispose() {
+        pending.complete();
+        batching.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return batching.isDisposed();
+    }
+
+    private Mono<Void> send(List<Pending> pending) {
+        var batch = pending.stream().filter(Pending::inTime).toList();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        var wallets = batch.stream().map(Pending::wallet).distinct().toList();
+        var context = batch.stream().min(Comparator.comparing(Pending::remaining)).orElseThrow().context();
+        return delegate.getBalances(wallets)
+                .contextWrite(Context.of(context))
+                .doOnNext(balances -> batch.forEach(request -> request.complete(balances.get(request.wallet()))))
+                .doOnError(failure -> batch.forEach(request -> request.result().tryEmitError(failure)))
+                .onErrorResume(failure -> Mono.empty())
+                .then();
+    }
+
+    private record Pending(WalletId wallet, Sinks.One<OperatorGetBalance> result, ContextView context) {
+        private static final Duration NO_DEADLINE = Duration.ofSeconds(Long.MAX_VALUE);
+
+        Duration remaining() {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            return deadline == null ? NO_DEADLINE : deadline.remaining();
+        }
+
+        boolean inTime() {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            if (deadline != null && deadline.expired()) {
+                result.tryEmitError(new DeadlineExceededException("(batch)"));
+                return false;
+            }
+            return true;
+        }
+
+        void complete(OperatorGetBalance balance) {
+            if (balance == null) {
+                // as a single lookup of the wallet would have been refused, rather than answered with nothing
+                result.tryEmitError(new OperatorRejectedException("No balance for wallet " + wallet));
+            } else {
+                result.tryEmitValue(balance);
+            }
+        }
+    }
+}
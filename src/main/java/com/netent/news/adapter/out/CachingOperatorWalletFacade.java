@@ -0,0 +1,201 @@
+package com.netent.news.adapter.out;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.netent.news.application.port.out.SharedBalanceCache;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import com.netent.news.application.port.out.BalanceInvalidator;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves balances from a short-lived cache in front of the operator. Concurrent misses for the same wallet share one
+ * upstream call: the first caller installs the pending lookup, the others subscribe to it.
+ * <p>
+ * The lookup runs in the context of the caller that started it, deadline included.
+ * <p>
+ * Expiry, size bound and eviction policy are those of the given cache. Invalidating a wallet also drops a lookup
+ * that is still in flight, so a balance read before a bet was acknowledged is never cached after it, and signals the
+ * wallet to the given {@link BalanceChangeFeed}.
+ * <p>
+ * With a {@link SharedBalanceCache}, the given cache is this replica's near cache: its misses are looked up in the
+ * shared cache first, and only the wallets missing there are looked up from the operator and written back. The shared
+ * cache is given {@code sharedTimeout} per call, after which the operator is asked instead. Invalidations are passed
+ * on to the shared cache, and those of other replicas, once {@link #start() started}, are applied here as if they had
+ * been made locally.
+ */
+public class CachingOperatorWalletFacade implements ReactiveOperatorWalletFacade, BalanceInvalidator, Disposable {
+    private static final Logger LOG = LoggerFactory.getLogger(CachingOperatorWalletFacade.class);
+
+    private final ReactiveOperatorWalletFacade delegate;
+    private final AsyncCache<WalletId, OperatorGetBalance> cache;
+    private final BalanceChangeFeed changes;
+    private final SharedBalanceCache shared;
+    private final Duration sharedTimeout;
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private volatile Disposable invalidations;
+
+    public CachingOperatorWalletFacade(ReactiveOperatorWalletFacade delegate, AsyncCache<WalletId, OperatorGetBalance> cache) {
+        this(delegate, cache, new BalanceChangeFeed());
+    }
+
+    public CachingOperatorWalletFacade(ReactiveOperatorWalletFacade delegate, AsyncCache<WalletId, OperatorGetBalance> cache,
+                                       BalanceChangeFeed changes) {
+        this(delegate, cache, changes, SharedBalanceCache.NONE, Duration.ofMillis(50));
+    }
+
+    public CachingOperatorWalletFacade(ReactiveOperatorWalletFacade delegate, AsyncCache<WalletId, OperatorGetBalance> cache,
+                                       BalanceChangeFeed changes, SharedBalanceCache shared, Duration sharedTimeout) {
+        this.delegate = requireNonNull(delegate);
+        this.cache = requireNonNull(cache);
+        this.changes = requireNonNull(changes);
+        this.shared = requireNonNull(shared);
+        this.sharedTimeout = requireNonNull(sharedTimeout);
+    }
+
+    /**
+     * Starts applying the invalidations of other replicas.
+     */
+    public void start() {
+        if (shared != SharedBalanceCache.NONE) {
+            invalidations = shared.invalidations()
+                    .subscribe(this::invalidateLocally, e -> LOG.warn("Stopped receiving invalidations of other replicas", e));
+        }
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+        // copy(): a caller cancelling must not cancel the lookup shared with the other callers
+        return Mono.deferContextual(context -> Mono.fromFuture(cache.get(wallet, (key, executor) ->
+                load(key).contextWrite(context).toFuture()).copy()));
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        // only the wallets missing from the cache are passed on, in one bulk lookup
+        return Mono.deferContextual(context -> Mono.fromFuture(cache.getAll(wallets, (missing, executor) ->
+                load(toList(missing), delegate::getBalances).contextWrite(context).toFuture()).copy()));
+    }
+
+    /**
+     * Not cached; the caller invalidates the wallet once the transaction is applied.
+     */
+    @Override
+    public Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return delegate.transact(transaction);
+    }
+
+    @Override
+    public void invalidate(WalletId wallet) {
+        invalidateLocally(wallet);
+        // other replicas drop the wallet within a round trip of the shared cache
+        shared.invalidate(wallet)
+                .timeout(sharedTimeout)
+                .subscribe(null, e -> LOG.warn("Wallet {} not invalidated in the shared cache: {}", wallet, e.toString()));
+    }
+
+    /**
+     * Only this replica's cache.
+     */
+    @Override
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public long sharedHits() {
+        return sharedHits.sum();
+    }
+
+    public long sharedMisses() {
+        return sharedMisses.sum();
+    }
+
+    @Override
+    public void dispose() {
+        var invalidations = this.invalidations;
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        var invalidations = this.invalidations;
+        return invalidations != null && invalidations.isDisposed();
+    }
+
+    private void invalidateLocally(WalletId wallet) {
+        cache.synchronous().invalidate(wallet);
+        changes.changed(wallet);
+    }
+
+    private Mono<OperatorGetBalance> load(WalletId wallet) {
+        if (shared == SharedBalanceCache.NONE) {
+            return delegate.getBalance(wallet);
+        }
+        return load(List.of(wallet), missing -> delegate.getBalance(wallet).map(balance -> Map.of(wallet, balance)))
+                .mapNotNull(balances -> balances.get(wallet));
+    }
+
+    /**
+     * Looks up {@code wallets} in the shared cache, and the missing ones with {@code lookup}.
+     */
+    private Mono<Map<WalletId, OperatorGetBalance>> load(List<WalletId> wallets,
+                                                         Function<List<WalletId>, Mono<Map<WalletId, OperatorGetBalance>>> lookup) {
+        if (shared == SharedBalanceCache.NONE) {
+            return lookup.apply(wallets);
+        }
+        return shared.getAll(wallets)
+                .timeout(sharedTimeout)
+                .onErrorResume(e -> Mono.just(Map.of()))
+                .flatMap(hits -> {
+                    sharedHits.add(hits.size());
+                    if (hits.size() == wallets.size()) {
+                        return Mono.just(hits);
+                    }
+                    var missing = new ArrayList<WalletId>(wallets.size() - hits.size());
+                    wallets.forEach(wallet -> {
+                        if (!hits.containsKey(wallet)) {
+                            missing.add(wallet);
+                        }
+                    });
+                    sharedMisses.add(missing.size());
+                    var lookedUpAt = Instant.now();
+                    return lookup.apply(missing).map(found -> {
+                        // the caller need not wait for the write
+                        shared.putAll(found, lookedUpAt)
+                                .timeout(sharedTimeout)
+                                .subscribe(null, e -> LOG.debug("Balances not written to the shared cache: {}", e.toString()));
+                        if (hits.isEmpty()) {
+                            return found;
+                        }
+                        var balances = new HashMap<>(hits);
+                        balances.putAll(found);
+                        return balances;
+                    });
+                });
+    }
+
+    private static List<WalletId> toList(Iterable<? extends WalletId> wallets) {
+        var list = new ArrayList<WalletId>();
+        wallets.forEach(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,137 @@
+package com.netent.news.adapter.out;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. Closed, it records the outcome of the last {@code windowSize} calls and opens once
+ * at least {@code minimumCalls} were recorded and the share of failed or slow ones reaches the threshold. Open, it
+ * rejects every call until {@code openDuration} has passed, then lets {@code halfOpenCalls} trial calls through:
+ * all of them succeeding closes it again, any of them failing reopens it.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRatePercent;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    public CircuitBreaker(int failureRatePercent, Duration slowCall, int windowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this(failureRatePercent, slowCall, windowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureRatePercent, Duration slowCall, int windowSize, int minimumCalls,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        if (failureRatePercent < 1 || failureRatePercent > 100 || windowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("failure rate must be in [1, 100], window and trial calls at least 1");
+        }
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallNanos = slowCall.toNanos();
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * @return whether a call may go ahead; every permitted call must be followed by {@link #onResult} or
+     * {@link #onCancel}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialPermits = halfOpenCalls;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits == 0) {
+                return false;
+            }
+            trialPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onResult(long nanos, boolean error) {
+        var failed = error || nanos >= slowCallNanos;
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed) {
+                    open();
+                } else if (++trialSuccesses == halfOpenCalls) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                record(failed);
+                if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /**
+     * A permitted call was abandoned before its outcome was known; a trial call is handed back.
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN && trialPermits + trialSuccesses < halfOpenCalls) {
+            trialPermits++;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.Deadline;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cuts the latency tail of balance lookups, which are idempotent: when the operator has not answered within its
+ * recent hedge percentile, the same lookup is sent once more and whichever answer comes first is used. Failed
+ * lookups are retried with backoff. Hedges and retries of an operator draw on one {@link RetryBudget}, so they add
+ * at most a fixed share to its load and stop once that is spent, e.g. during an outage.
+ * <p>
+ * Nothing is attempted beyond the {@link Deadline} found in the subscriber context: the lookup then fails with
+ * {@link DeadlineExceededException}, and no hedge or retry is started that could not finish in time. A hedge that
+ * fails is ignored; a primary lookup that fails fails the attempt. Rejections by an open circuit are not retried.
+ * <p>
+ * Transactions are neither hedged nor retried here, only held to the deadline: whether one is sent again is up to the
+ * caller journaling it.
+ */
+public class HedgingOperatorWalletFacade implements ReactiveOperatorWalletFacade {
+    private final ReactiveOperatorWalletFacade delegate;
+    private final Function<WalletId, String> operatorOf;
+    private final Map<String, OperatorHedging> operators;
+    private final boolean hedge;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    /**
+     * @param operatorOf the operator serving a wallet, one of the keys of {@code operators}
+     * @param hedge      whether to hedge, or only to retry and enforce deadlines
+     */
+    public HedgingOperatorWalletFacade(ReactiveOperatorWalletFacade delegate,
+                                       Function<WalletId, String> operatorOf,
+                                       Map<String, OperatorHedging> operators,
+                                       boolean hedge,
+                                       int maxRetries,
+                                       Duration retryBackoff) {
+        this.delegate = requireNonNull(delegate);
+        this.operatorOf = requireNonNull(operatorOf);
+        this.operators = Map.copyOf(operators);
+        this.hedge = hedge;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = requireNonNull(retryBackoff);
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+        var operator = operatorOf.apply(wallet);
+        var hedging = operators.get(operator);
+        if (hedging == null) {
+            return Mono.error(new IllegalStateException("No operator wallet configured for " + operator));
+        }
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            hedging.budget().deposit();
+            var attempt = hedge ? hedged(wallet, hedging, deadline) : primary(wallet, hedging);
+            return withDeadline(withRetries(attempt, hedging, deadline), operator, deadline);
+        });
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        // bulk lookups are not hedged: their latency says nothing about any one operator's
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            return withDeadline(delegate.getBalances(wallets), "(bulk)", deadline);
+        });
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, null);
+            return withDeadline(delegate.transact(transaction), operatorOf.apply(transaction.wallet()), deadline);
+        });
+    }
+
+    public Map<String, OperatorHedging> operators() {
+        return operators;
+    }
+
+    private Mono<OperatorGetBalance> hedged(WalletId wallet, OperatorHedging hedging, @Nullable Deadline deadline) {
+        return Mono.defer(() -> {
+            var primary = primary(wallet, hedging);
+            var delay = hedging.hedgeDelayNanos();
+            if (delay < 0 || deadline != null && deadline.remaining().toNanos() <= delay) {
+                return primary;
+            }
+            var hedge = Mono.delay(Duration.ofNanos(delay))
+                    .filter(tick -> hedging.budget().tryWithdraw())
+                    .flatMap(tick -> {
+                        hedging.hedgeFired();
+                        return delegate.getBalance(wallet);
+                    })
+                    .doOnNext(balance -> hedging.hedgeWon())
+                    .onErrorResume(e -> Mono.empty());
+            return Flux.merge(primary, hedge).next();
+        });
+    }
+
+    /**
+     * Records how long the operator took, or at least has taken when a hedge answered first. Once: taking the first
+     * answer also cancels the primary that gave it.
+     */
+    private Mono<OperatorGetBalance> primary(WalletId wallet, OperatorHedging hedging) {
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            return delegate.getBalance(wallet)
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_ERROR) {
+                            hedging.latency().record(System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private <T> Mono<T> withRetries(Mono<T> attempt, OperatorHedging hedging, @Nullable Deadline deadline) {
+        if (maxRetries == 0) {
+            return attempt;
+        }
+        return attempt.retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                .filter(e -> retryable(e) && (deadline == null || !deadline.expired()) && hedging.budget().tryWithdraw())
+                .doBeforeRetry(signal -> hedging.retried())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private static <T> Mono<T> withDeadline(Mono<T> call, String operator, @Nullable Deadline deadline) {
+        if (deadline == null) {
+            return call;
+        }
+        var remaining = deadline.remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            return Mono.error(new DeadlineExceededException(operator));
+        }
+        return call.timeout(remaining, Mono.error(() -> new DeadlineExceededException(operator)));
+    }
+
+    private static boolean retryable(Throwable failure) {
+        return !(failure instanceof OperatorUnavailableException) && ResilientOperatorWalletFacade.operatorFault(failure);
+    }
+}
@@ -0,0 +1,65 @@
+package com.netent.news.adapter.out;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentile of the most recent latencies. Recording writes into a ring of samples; the percentile is recomputed
+ * from the ring at most once per refresh interval, so reading it is as cheap as recording.
+ */
+public class LatencyPercentile {
+    private final double percentile;
+    private final int minSamples;
+    private final long refreshNanos;
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+
+    private volatile long value = -1;
+    private volatile long computedAt;
+
+    /**
+     * @param percentile in (0, 100]
+     * @param window     number of most recent latencies considered
+     * @param minSamples latencies needed before there is a value
+     */
+    public LatencyPercentile(double percentile, int window, int minSamples, long refreshNanos) {
+        if (percentile <= 0 || percentile > 100 || window < 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 100] and window at least 1");
+        }
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, window);
+        this.refreshNanos = refreshNanos;
+        this.samples = new AtomicLongArray(window);
+        this.computedAt = System.nanoTime() - refreshNanos;
+    }
+
+    public void record(long nanos) {
+        samples.lazySet((int) (recorded.getAndIncrement() % samples.length()), nanos);
+    }
+
+    /**
+     * @return the percentile in nanoseconds, or -1 before enough latencies were recorded
+     */
+    public long nanos() {
+        var now = System.nanoTime();
+        if (now - computedAt >= refreshNanos) {
+            computedAt = now;
+            value = compute();
+        }
+        return value;
+    }
+
+    private long compute() {
+        var count = (int) Math.min(recorded.get(), samples.length());
+        if (count < minSamples) {
+            return -1;
+        }
+        var sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) Math.ceil(percentile / 100 * count) - 1)];
+    }
+}
@@ -0,0 +1,384 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.JournaledTransaction;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.TransactionJournal;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link TransactionJournal} in memory-mapped segment files of {@code segmentSize} bytes in {@code directory}.
+ * Appending copies the entry into the mapped segment, without a system call: it is in the page cache once
+ * {@link #append} returns, and survives the process crashing. It is forced to disk on every append when
+ * {@code syncInterval} is zero, otherwise every {@code syncInterval}, which bounds what a power loss may cost.
+ * <p>
+ * Entries are records of {@code [length][CRC-32][body]}. Opening the journal replays its segments up to the first
+ * record whose checksum does not match, the torn tail of an interrupted write, which the next append overwrites. The
+ * latest entry of every transaction is kept in memory.
+ * <p>
+ * Once there are more than {@code maxSegments} segments, the oldest is deleted, after its pending entries were
+ * appended again; the journal must be large enough to hold them. One journal at a time may open a directory.
+ */
+public class MappedFileTransactionJournal implements TransactionJournal, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileTransactionJournal.class);
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    // length and checksum
+    private static final int HEADER = 8;
+    // zero length marking the end of the records
+    private static final int END = 4;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final FileChannel lockFile;
+    private final FileLock lock;
+    private final ScheduledExecutorService syncer;
+    private final ConcurrentMap<String, Indexed> index = new ConcurrentHashMap<>();
+    private final ReentrantLock appending = new ReentrantLock();
+    // guarded by appending
+    private final Deque<Long> segments = new ArrayDeque<>();
+    private long segment;
+    private long order;
+    private boolean closed;
+    // read unguarded by the syncer
+    private volatile MappedByteBuffer current;
+    private volatile boolean dirty;
+
+    public MappedFileTransactionJournal(Path directory, int segmentSize, int maxSegments, Duration syncInterval) throws IOException {
+        if (segmentSize < 1024 || maxSegments < 2 || syncInterval.isNegative()) {
+            throw new IllegalArgumentException("segmentSize must be at least 1KB, maxSegments at least 2 and syncInterval not negative");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        lockFile = FileChannel.open(directory.resolve("lock"), CREATE, WRITE);
+        lock = tryLock(lockFile);
+        if (lock == null) {
+            lockFile.close();
+            throw new IllegalStateException("Journal " + directory + " is open elsewhere");
+        }
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            lockFile.close();
+            throw e;
+        }
+        if (syncInterval.isZero()) {
+            syncer = null;
+        } else {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncInterval.toNanos(), syncInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<JournaledTransaction> find(String transactionId) {
+        var indexed = index.get(transactionId);
+        return indexed == null ? Optional.empty() : Optional.of(indexed.entry());
+    }
+
+    @Override
+    public void append(JournaledTransaction entry) {
+        var body = encode(entry);
+        if (HEADER + body.length + END > segmentSize) {
+            throw new IllegalArgumentException("Entry of " + body.length + " bytes does not fit a segment");
+        }
+        appending.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal " + directory + " is closed");
+            }
+            write(body);
+            index(entry, segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appending.unlock();
+        }
+    }
+
+    @Override
+    public List<JournaledTransaction> pending() {
+        return index.values().stream()
+                .filter(indexed -> indexed.entry().status() == JournaledTransaction.Status.PENDING)
+                .sorted(Comparator.comparingLong(Indexed::order))
+                .map(Indexed::entry)
+                .toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appending.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (syncer != null) {
+                syncer.shutdownNow();
+            }
+            current.force();
+        } finally {
+            appending.unlock();
+            lockFile.close();
+        }
+    }
+
+    private void sync() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            // concurrent appends are fine: what they wrote is either forced now or marked dirty again
+            current.force();
+        } catch (RuntimeException e) {
+            dirty = true;
+            LOG.warn("Journal {} not forced to disk: {}", directory, e.toString());
+        }
+    }
+
+    private void open() throws IOException {
+        List<Long> numbers;
+        try (var files = Files.list(directory)) {
+            numbers = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        if (numbers.isEmpty()) {
+            roll();
+            return;
+        }
+        for (var number : numbers) {
+            var buffer = map(number);
+            var end = replay(buffer, number);
+            segments.addLast(number);
+            segment = number;
+            buffer.position(end);
+            current = buffer;
+        }
+        if (current.remaining() >= END) {
+            current.putInt(current.position(), 0);
+        }
+    }
+
+    /**
+     * @return where the records of the segment end
+     */
+    private int replay(ByteBuffer buffer, long number) {
+        var crc = new CRC32();
+        while (buffer.remaining() >= HEADER) {
+            var start = buffer.position();
+            var length = buffer.getInt();
+            if (length == 0) {
+                return start;
+            }
+            var checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                LOG.warn("Journal {} segment {} ends in a torn record at {}", directory, number, start);
+                return start;
+            }
+            var body = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                LOG.warn("Journal {} segment {} ends in a torn record at {}", directory, number, start);
+                return start;
+            }
+            index(decode(body), number);
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    private void write(byte[] body) throws IOException {
+        if (current.remaining() < HEADER + body.length + END) {
+            roll();
+        }
+        var crc = new CRC32();
+        crc.update(body);
+        var buffer = current;
+        buffer.putInt(body.length).putInt((int) crc.getValue()).put(body);
+        buffer.putInt(buffer.position(), 0);
+        if (syncer == null) {
+            buffer.force();
+        } else {
+            dirty = true;
+        }
+    }
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.force();
+        }
+        var number = segments.isEmpty() ? 0 : segments.peekLast() + 1;
+        current = map(number);
+        segments.addLast(number);
+        segment = number;
+        while (segments.size() > maxSegments) {
+            evict(segments.pollFirst());
+        }
+    }
+
+    /**
+     * Appends the pending entries of the segment again, forgets its other entries and deletes it.
+     */
+    private void evict(long number) throws IOException {
+        for (var indexed : List.copyOf(index.values())) {
+            if (indexed.segment() != number) {
+                continue;
+            }
+            if (indexed.entry().status() == JournaledTransaction.Status.PENDING) {
+                write(encode(indexed.entry()));
+                index(indexed.entry(), segment);
+            } else {
+                index.remove(indexed.entry().transaction().id(), indexed);
+            }
+        }
+        Files.deleteIfExists(path(number));
+    }
+
+    private void index(JournaledTransaction entry, long number) {
+        index.compute(entry.transaction().id(), (id, existing) ->
+                new Indexed(entry, number, existing != null ? existing.order() : order++));
+    }
+
+    private MappedByteBuffer map(long number) throws IOException {
+        try (var channel = FileChannel.open(path(number), CREATE, READ, WRITE)) {
+            // the mapping outlives the channel
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, number, SUFFIX));
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // held by this process
+            return null;
+        }
+    }
+
+    private static byte[] encode(JournaledTransaction entry) {
+        var bytes = new ByteArrayOutputStream(128);
+        var out = new DataOutputStream(bytes);
+        var transaction = entry.transaction();
+        try {
+            out.writeByte(entry.status().ordinal());
+            writeString(out, transaction.id());
+            writeString(out, transaction.wallet().value());
+            out.writeByte(transaction.type().ordinal());
+            writeString(out, transaction.amount().toString());
+            writeString(out, transaction.currency());
+            writeString(out, transaction.sessionId());
+            writeString(out, transaction.gameId());
+            switch (entry.status()) {
+                case COMPLETED -> {
+                    writeString(out, entry.balance().amount() == null ? null : entry.balance().amount().toString());
+                    writeString(out, entry.balance().currency());
+                }
+                case REJECTED -> writeString(out, entry.rejection());
+                case PENDING -> {
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JournaledTransaction decode(ByteBuffer body) {
+        var status = JournaledTransaction.Status.values()[body.get()];
+        var id = readString(body);
+        var wallet = WalletId.of(readString(body));
+        var type = TransactionType.values()[body.get()];
+        var amount = new BigDecimal(readString(body));
+        var transaction = new WalletTransaction(id, wallet, type, amount, readString(body), readString(body), readString(body));
+        return switch (status) {
+            case PENDING -> JournaledTransaction.pending(transaction);
+            case COMPLETED -> {
+                var balance = readString(body);
+                yield JournaledTransaction.completed(transaction,
+                        new OperatorGetBalance(wallet, balance == null ? null : new BigDecimal(balance), readString(body)));
+            }
+            case REJECTED -> JournaledTransaction.rejected(transaction, readString(body));
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes cannot be journaled");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer body) {
+        var length = body.getShort();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param segment where the entry was last written
+     * @param order   when its transaction was first journaled
+     */
+    private record Indexed(JournaledTransaction entry, long segment, long order) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.netent.news.adapter.out;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Admission to one operator: its circuit breaker and its adaptive concurrency limit, plus a count of the calls
+ * turned away by either.
+ */
+public class OperatorGuard {
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimit limit;
+    private final LongAdder rejected = new LongAdder();
+
+    public OperatorGuard(CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimit limit) {
+        this.circuitBreaker = requireNonNull(circuitBreaker);
+        this.limit = requireNonNull(limit);
+    }
+
+    boolean tryAcquire() {
+        if (circuitBreaker.tryAcquire()) {
+            if (limit.tryAcquire()) {
+                return true;
+            }
+            circuitBreaker.onCancel();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    void onResult(long nanos, boolean error) {
+        limit.onResult(nanos, error);
+        circuitBreaker.onResult(nanos, error);
+    }
+
+    void onCancel() {
+        limit.onCancel();
+        circuitBreaker.onCancel();
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.state();
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return limit.inFlight();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
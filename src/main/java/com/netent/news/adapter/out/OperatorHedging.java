@@ -0,0 +1,73 @@
+package com.netent.news.adapter.out;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hedging and retry state of one operator: the latency percentile after which a hedge is sent, the budget shared by
+ * hedges and retries, and counts of hedges fired, hedges that answered first and retries.
+ */
+public class OperatorHedging {
+    private final LatencyPercentile latency;
+    private final RetryBudget budget;
+    private final long minDelayNanos;
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * @param minDelay shortest hedge delay, however fast the operator usually answers
+     */
+    public OperatorHedging(LatencyPercentile latency, RetryBudget budget, Duration minDelay) {
+        this.latency = requireNonNull(latency);
+        this.budget = requireNonNull(budget);
+        this.minDelayNanos = minDelay.toNanos();
+    }
+
+    LatencyPercentile latency() {
+        return latency;
+    }
+
+    RetryBudget budget() {
+        return budget;
+    }
+
+    /**
+     * @return nanoseconds to wait before hedging, -1 while too few latencies are known
+     */
+    long hedgeDelayNanos() {
+        var percentile = latency.nanos();
+        return percentile < 0 ? -1 : Math.max(minDelayNanos, percentile);
+    }
+
+    void hedgeFired() {
+        hedgesFired.increment();
+    }
+
+    void hedgeWon() {
+        hedgesWon.increment();
+    }
+
+    void retried() {
+        retries.increment();
+    }
+
+    public double hedgeDelaySeconds() {
+        var nanos = hedgeDelayNanos();
+        return nanos < 0 ? Double.NaN : nanos / 1e9;
+    }
+
+    public long hedgesFired() {
+        return hedgesFired.sum();
+    }
+
+    public long hedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+}
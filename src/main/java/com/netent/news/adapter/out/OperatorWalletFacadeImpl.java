@@ -1,14 +1,56 @@
 package com.netent.news.adapter.out;
 
+import com.netent.news.domain.Deadline;
 import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
 import com.netent.news.application.port.out.OperatorGetBalance;
 import com.netent.news.application.port.out.OperatorWalletFacade;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.RequestScope;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Blocking bridge over {@link ReactiveOperatorWalletFacade} for callers that run on a servlet thread. Timeouts are
+ * enforced by the underlying operator connection, so the calling thread is never parked longer than the configured
+ * read timeout. The {@link Deadline} and the {@link RequestScope} bound to the calling thread are handed on in the
+ * subscriber context.
+ */
 @Component
 public class OperatorWalletFacadeImpl implements OperatorWalletFacade {
+    private final ReactiveOperatorWalletFacade reactiveOperatorWalletFacade;
+    private final RequestScope requestScope;
+
+    public OperatorWalletFacadeImpl(ReactiveOperatorWalletFacade reactiveOperatorWalletFacade, RequestScope requestScope) {
+        this.reactiveOperatorWalletFacade = reactiveOperatorWalletFacade;
+        this.requestScope = requestScope;
+    }
+
     @Override
     public OperatorGetBalance getBalance(WalletId wallet) {
-        return new OperatorGetBalance();
+        return withRequestContext(reactiveOperatorWalletFacade.getBalance(wallet)).block();
+    }
+
+    @Override
+    public Map<WalletId, OperatorGetBalance> getBalances(Collection<WalletId> wallets) {
+        return withRequestContext(reactiveOperatorWalletFacade.getBalances(wallets)).block();
+    }
+
+    @Override
+    public OperatorGetBalance transact(WalletTransaction transaction) {
+        return withRequestContext(reactiveOperatorWalletFacade.transact(transaction)).block();
+    }
+
+    private <T> Mono<T> withRequestContext(Mono<T> call) {
+        var context = requestScope.capture().addTo(Context.empty());
+        var deadline = Deadline.current();
+        if (deadline != null) {
+            context = context.put(Deadline.class, deadline);
+        }
+        return context.isEmpty() ? call : call.contextWrite(context);
     }
 }
@@ -0,0 +1,141 @@
+package com.netent.news.adapter.out;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Isolates the operators from one another: every call passes the {@link OperatorGuard} of the operator serving the
+ * wallet, which fails it fast with {@link OperatorUnavailableException} while that operator's circuit is open or its
+ * concurrency limit is reached. A slow operator then costs its callers a rejection instead of a thread each, and the
+ * threads stay available for the healthy operators.
+ * <p>
+ * Client errors (4xx) and refused transactions count as successful calls. With a stale cache, the last balance read
+ * for a wallet is served instead of a rejection or an operator error; never for a transaction, which is applied or
+ * fails.
+ */
+public class ResilientOperatorWalletFacade implements ReactiveOperatorWalletFacade {
+    private final ReactiveOperatorWalletFacade delegate;
+    private final Function<WalletId, String> operatorOf;
+    private final Map<String, OperatorGuard> guards;
+    private final Cache<WalletId, OperatorGetBalance> stale;
+
+    /**
+     * @param operatorOf the operator serving a wallet, one of the keys of {@code guards}
+     * @param stale      last balance read per wallet, {@code null} to fail instead
+     */
+    public ResilientOperatorWalletFacade(ReactiveOperatorWalletFacade delegate,
+                                         Function<WalletId, String> operatorOf,
+                                         Map<String, OperatorGuard> guards,
+                                         @Nullable Cache<WalletId, OperatorGetBalance> stale) {
+        this.delegate = requireNonNull(delegate);
+        this.operatorOf = requireNonNull(operatorOf);
+        this.guards = Collections.unmodifiableMap(new LinkedHashMap<>(guards));
+        this.stale = stale;
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+        return guarded(operatorOf.apply(wallet), () -> delegate.getBalance(wallet))
+                .doOnNext(balance -> remember(wallet, balance))
+                .onErrorResume(e -> stale(wallet, e));
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        return Flux.fromIterable(wallets)
+                .distinct()
+                .groupBy(operatorOf)
+                .flatMap(operator -> operator.collectList().flatMap(batch ->
+                        guarded(operator.key(), () -> delegate.getBalances(batch))
+                                .doOnNext(balances -> balances.forEach(this::remember))
+                                .onErrorResume(e -> stale(batch, e))))
+                .<Map<WalletId, OperatorGetBalance>>collect(HashMap::new, Map::putAll);
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return guarded(operatorOf.apply(transaction.wallet()), () -> delegate.transact(transaction));
+    }
+
+    public Map<String, OperatorGuard> guards() {
+        return guards;
+    }
+
+    private <T> Mono<T> guarded(String operator, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            var guard = guards.get(operator);
+            if (guard == null) {
+                return Mono.error(new IllegalStateException("No operator wallet configured for " + operator));
+            }
+            if (!guard.tryAcquire()) {
+                return Mono.error(new OperatorUnavailableException(operator));
+            }
+            var start = System.nanoTime();
+            // released once: a caller taking the first of several answers, as hedging does, cancels after the value
+            var released = new AtomicBoolean();
+            return call.get()
+                    .doOnSuccess(value -> {
+                        if (released.compareAndSet(false, true)) {
+                            guard.onResult(System.nanoTime() - start, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            guard.onResult(System.nanoTime() - start, operatorFault(e));
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            guard.onCancel();
+                        }
+                    });
+        });
+    }
+
+    private void remember(WalletId wallet, OperatorGetBalance balance) {
+        if (stale != null) {
+            stale.put(wallet, balance);
+        }
+    }
+
+    /**
+     * A rejected request is the caller's fault, not a sign of a degraded operator.
+     */
+    static boolean operatorFault(Throwable failure) {
+        return !(failure instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()
+                || failure instanceof OperatorRejectedException);
+    }
+
+    private Mono<OperatorGetBalance> stale(WalletId wallet, Throwable failure) {
+        var balance = stale == null || !operatorFault(failure) ? null : stale.getIfPresent(wallet);
+        return balance == null ? Mono.error(failure) : Mono.just(balance);
+    }
+
+    private Mono<Map<WalletId, OperatorGetBalance>> stale(Collection<WalletId> wallets, Throwable failure) {
+        if (stale == null || !operatorFault(failure)) {
+            return Mono.error(failure);
+        }
+        var balances = stale.getAllPresent(wallets);
+        return balances.isEmpty() ? Mono.error(failure) : Mono.just(balances);
+    }
+}
@@ -0,0 +1,41 @@
+package com.netent.news.adapter.out;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps extra calls, retries and hedges alike, at a share of the original calls: every original call deposits
+ * {@code ratio} of a token, every extra call withdraws a whole one. The balance never exceeds {@code maxTokens}, so
+ * a quiet period does not save up for a burst of retries when the operator fails.
+ */
+public class RetryBudget {
+    private static final long TOKEN = 1_000;
+
+    private final long deposit;
+    private final long max;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("ratio and max tokens must not be negative");
+        }
+        this.deposit = (long) (ratio * TOKEN);
+        this.max = maxTokens * TOKEN;
+        this.balance = new AtomicLong(max);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(max, current + amount));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            var current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
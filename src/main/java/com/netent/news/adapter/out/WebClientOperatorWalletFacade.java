@@ -0,0 +1,150 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Talks to the operator wallets over HTTP. Every operator has its own {@link WebClient}, and with it its own
+ * connection pool, so one operator exhausting its connections does not starve the others.
+ * <p>
+ * A wallet is routed to the operator named by its prefix, e.g. {@code acme:1234} goes to operator {@code acme}.
+ * Wallets without a known prefix go to the default operator.
+ * <p>
+ * Bulk lookups are split per operator and sent as {@code POST /wallets/balances} with a JSON array of wallet ids,
+ * answered with an object mapping each known wallet id to its balance.
+ * <p>
+ * Transactions are sent as {@code POST /wallets/{wallet}/transactions}, answered with the balance once applied. A
+ * client error (4xx) is the operator refusing the transaction, and fails it with {@link OperatorRejectedException}.
+ */
+public class WebClientOperatorWalletFacade implements ReactiveOperatorWalletFacade {
+    static final char OPERATOR_SEPARATOR = ':';
+    static final String BALANCE_PATH = "/wallets/{wallet}/balance";
+    static final String BALANCES_PATH = "/wallets/balances";
+    static final String TRANSACTIONS_PATH = "/wallets/{wallet}/transactions";
+    // of the operator's answer, in the reason of a rejection
+    private static final int MAX_REJECTION_LENGTH = 256;
+
+    private static final ParameterizedTypeReference<Map<String, OperatorGetBalance>> BALANCES =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final Map<String, WebClient> operators;
+    private final String defaultOperator;
+
+    public WebClientOperatorWalletFacade(Map<String, WebClient> operators, String defaultOperator) {
+        this.operators = Map.copyOf(operators);
+        this.defaultOperator = requireNonNull(defaultOperator);
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+        return Mono.defer(() -> client(wallet)
+                .get()
+                .uri(BALANCE_PATH, wallet.value())
+                .retrieve()
+                .bodyToMono(OperatorGetBalance.class));
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        return Flux.fromIterable(wallets)
+                .distinct()
+                .groupBy(this::operatorOf)
+                .flatMap(operator -> operator.collectMap(WalletId::value).flatMap(byId -> getBalances(operator.key(), byId)))
+                .collect(HashMap::new, Map::putAll);
+    }
+
+    private Mono<Map<WalletId, OperatorGetBalance>> getBalances(String operator, Map<String, WalletId> wallets) {
+        return Mono.defer(() -> client(operator)
+                .post()
+                .uri(BALANCES_PATH)
+                .bodyValue(wallets.keySet())
+                .retrieve()
+                .bodyToMono(BALANCES)
+                .map(balances -> {
+                    var result = new HashMap<WalletId, OperatorGetBalance>(balances.size());
+                    balances.forEach((id, balance) -> {
+                        var wallet = wallets.get(id);
+                        if (wallet != null) {
+                            result.put(wallet, balance);
+                        }
+                    });
+                    return result;
+                }));
+    }
+
+    @Override
+    public Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return Mono.defer(() -> client(transaction.wallet())
+                .post()
+                .uri(TRANSACTIONS_PATH, transaction.wallet().value())
+                .bodyValue(OperatorTransaction.of(transaction))
+                .retrieve()
+                .onStatus(HttpStatus::is4xxClientError, response -> response.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .map(body -> new OperatorRejectedException(rejection(response.rawStatusCode(), body))))
+                .bodyToMono(OperatorGetBalance.class));
+    }
+
+    /**
+     * @return the configured operator serving {@code wallet}
+     */
+    public String operatorOf(WalletId wallet) {
+        if (wallet.isNumeric()) {
+            return defaultOperator;
+        }
+        var value = wallet.value();
+        var separator = value.indexOf(OPERATOR_SEPARATOR);
+        if (separator > 0) {
+            var operator = value.substring(0, separator);
+            if (operators.containsKey(operator)) {
+                return operator;
+            }
+        }
+        return defaultOperator;
+    }
+
+    private WebClient client(WalletId wallet) {
+        return client(operatorOf(wallet));
+    }
+
+    private WebClient client(String operator) {
+        var client = operators.get(operator);
+        if (client == null) {
+            throw new IllegalStateException("No operator wallet configured for " + operator);
+        }
+        return client;
+    }
+
+    private static String rejection(int status, String body) {
+        var reason = body.length() > MAX_REJECTION_LENGTH ? body.substring(0, MAX_REJECTION_LENGTH) : body;
+        return "Refused by the operator (" + status + ")" + (reason.isBlank() ? "" : ": " + reason);
+    }
+
+    /**
+     * Body of a transaction sent to the operator, whose wallet is in the path.
+     */
+    record OperatorTransaction(String transactionId, TransactionType type, BigDecimal amount, String currency,
+                               String sessionId, String gameId) {
+        static OperatorTransaction of(WalletTransaction transaction) {
+            return new OperatorTransaction(transaction.id(), transaction.type(), transaction.amount(),
+                    transaction.currency(), transaction.sessionId(), transaction.gameId());
+        }
+    }
+}
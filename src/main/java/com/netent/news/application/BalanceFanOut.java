@@ -0,0 +1,60 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.TooManyWalletsException;
+import com.netent.news.domain.WalletId;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Splits a bulk balance request into chunks of at most {@code chunkSize} wallets, each looked up with one bulk
+ * operator call, and runs at most {@code concurrency} of them at a time. Results are emitted as each chunk is
+ * answered, so a slow operator holds back only its own wallets.
+ */
+public class BalanceFanOut {
+    private final int maxWallets;
+    private final int chunkSize;
+    private final int concurrency;
+
+    public BalanceFanOut(int maxWallets, int chunkSize, int concurrency) {
+        if (maxWallets < 1 || chunkSize < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("maxWallets, chunkSize and concurrency must be positive");
+        }
+        this.maxWallets = maxWallets;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @throws TooManyWalletsException right away, rather than in the returned flux, if more than {@code maxWallets}
+     *                                 distinct wallets are asked for
+     */
+    public <T> Flux<T> fanOut(Collection<WalletId> wallets, Function<List<WalletId>, Publisher<T>> lookup) {
+        return Flux.fromIterable(chunks(wallets)).flatMap(lookup, concurrency);
+    }
+
+    List<List<WalletId>> chunks(Collection<WalletId> wallets) {
+        var distinct = new LinkedHashSet<>(wallets);
+        if (distinct.size() > maxWallets) {
+            throw new TooManyWalletsException(distinct.size(), maxWallets);
+        }
+        var chunks = new ArrayList<List<WalletId>>((distinct.size() + chunkSize - 1) / chunkSize);
+        var chunk = new ArrayList<WalletId>(Math.min(chunkSize, distinct.size()));
+        for (var wallet : distinct) {
+            chunk.add(wallet);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,151 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.BalanceChanges;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.WalletId;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pushes the balance of a wallet to its subscribers whenever it changes, so that clients need not poll for it. All
+ * subscribers of a wallet share one topic, whose balance is looked up when it is first subscribed to, again whenever
+ * {@link BalanceChanges} signals the wallet, and every {@code refreshInterval} for all subscribed wallets, in bulk
+ * lookups of {@code chunkSize} wallets, {@code concurrency} at a time. The operator thus sees at most one periodic
+ * lookup per subscribed wallet, however many clients watch it.
+ * <p>
+ * A balance equal to the last one published is not published again. Subscribers are conflated: one that reads slower
+ * than the balance changes gets the latest balance, never a backlog. Besides its subscriber, an idle subscription
+ * holds nothing but its share of the topic: the wallet's last balance.
+ */
+public class BalanceSubscriptions implements Disposable {
+    private final ReactiveOperatorWalletFacade operatorWalletFacade;
+    private final BalanceChanges balanceChanges;
+    private final Duration refreshInterval;
+    private final int chunkSize;
+    private final int concurrency;
+    private final ConcurrentMap<WalletId, Topic> topics = new ConcurrentHashMap<>();
+    private volatile Disposable refreshing;
+
+    public BalanceSubscriptions(ReactiveOperatorWalletFacade operatorWalletFacade, BalanceChanges balanceChanges,
+                                Duration refreshInterval, int chunkSize, int concurrency) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero() || chunkSize < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("refreshInterval, chunkSize and concurrency must be positive");
+        }
+        this.operatorWalletFacade = requireNonNull(operatorWalletFacade);
+        this.balanceChanges = requireNonNull(balanceChanges);
+        this.refreshInterval = refreshInterval;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Starts following balance changes and refreshing subscribed wallets periodically.
+     */
+    public void start() {
+        refreshing = Flux.merge(
+                        // a refresh still running when the next one is due skips it
+                        Flux.interval(refreshInterval).onBackpressureDrop().concatMap(tick -> refreshAll(), 1),
+                        // changes dropped under load are picked up by the next periodic refresh
+                        balanceChanges.changes().filter(topics::containsKey).onBackpressureDrop().flatMap(this::refresh, concurrency))
+                .subscribe();
+    }
+
+    /**
+     * The current balance of {@code wallet}, then every balance that differs from the one before it, until cancelled.
+     */
+    public Flux<GetBalanceResponse> subscribe(WalletId wallet) {
+        return Flux.defer(() -> {
+            var topic = topics.compute(wallet, (key, existing) -> {
+                var subscribed = existing != null ? existing : new Topic();
+                subscribed.subscribers++;
+                return subscribed;
+            });
+            var balances = topic.balances.asFlux();
+            if (!topic.hasBalance()) {
+                balances = balances.mergeWith(refresh(wallet).then(Mono.<GetBalanceResponse>empty()));
+            }
+            return balances
+                    .onBackpressureLatest()
+                    .doFinally(signal -> topics.computeIfPresent(wallet, (key, subscribed) -> --subscribed.subscribers == 0 ? null : subscribed));
+        });
+    }
+
+    int subscribedWallets() {
+        return topics.size();
+    }
+
+    @Override
+    public void dispose() {
+        var refreshing = this.refreshing;
+        if (refreshing != null) {
+            refreshing.dispose();
+        }
+        topics.values().forEach(topic -> topic.balances.tryEmitComplete());
+    }
+
+    @Override
+    public boolean isDisposed() {
+        var refreshing = this.refreshing;
+        return refreshing != null && refreshing.isDisposed();
+    }
+
+    private Mono<Void> refreshAll() {
+        return Flux.fromIterable(topics.keySet())
+                .buffer(chunkSize)
+                .flatMap(chunk -> Mono.defer(() -> operatorWalletFacade.getBalances(chunk)).onErrorResume(e -> Mono.empty()), concurrency)
+                .doOnNext(balances -> balances.forEach(this::publish))
+                .then();
+    }
+
+    private Mono<Void> refresh(WalletId wallet) {
+        return Mono.defer(() -> operatorWalletFacade.getBalance(wallet))
+                .doOnNext(balance -> publish(wallet, balance))
+                // subscribers keep the last balance until a later lookup succeeds
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private void publish(WalletId wallet, OperatorGetBalance balance) {
+        var topic = topics.get(wallet);
+        if (topic != null) {
+            topic.publish(new GetBalanceResponse(wallet, balance.amount(), balance.currency()));
+        }
+    }
+
+    private static final class Topic {
+        // replays the last balance to later subscribers
+        private final Sinks.Many<GetBalanceResponse> balances = Sinks.many().replay().latest();
+        private GetBalanceResponse last;
+        // only changed inside topics.compute
+        private int subscribers;
+
+        synchronized boolean hasBalance() {
+            return last != null;
+        }
+
+        synchronized void publish(GetBalanceResponse balance) {
+            if (last != null && sameBalance(last, balance)) {
+                return;
+            }
+            last = balance;
+            balances.tryEmitNext(balance);
+        }
+
+        // 10.0 and 10.00 EUR are the same balance
+        private static boolean sameBalance(GetBalanceResponse a, GetBalanceResponse b) {
+            return Objects.equals(a.currency(), b.currency())
+                    && (a.amount() == null ? b.amount() == null : b.amount() != null && a.amount().compareTo(b.amount()) == 0);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.netent.news.application;
+
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.in.ReactiveWalletService;
+import com.netent.news.application.port.in.TransactionResponse;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+@Component
+public class ReactiveWalletServiceImpl implements ReactiveWalletService {
+    private final ReactiveOperatorWalletFacade operatorWalletFacade;
+    private final BalanceFanOut fanOut;
+    private final BalanceSubscriptions subscriptions;
+    private final WalletTransactions transactions;
+
+    public ReactiveWalletServiceImpl(ReactiveOperatorWalletFacade operatorWalletFacade, BalanceFanOut fanOut,
+                                     BalanceSubscriptions subscriptions, WalletTransactions transactions) {
+        this.operatorWalletFacade = operatorWalletFacade;
+        this.fanOut = fanOut;
+        this.subscriptions = subscriptions;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public Mono<GetBalanceResponse> getBalance(WalletId wallet) {
+        return operatorWalletFacade.getBalance(wallet)
+                .map(balance -> new GetBalanceResponse(wallet, balance.amount(), balance.currency()));
+    }
+
+    @Override
+    public Flux<GetBalanceResponse> getBalances(Collection<WalletId> wallets) {
+        return fanOut.fanOut(wallets, chunk -> operatorWalletFacade.getBalances(chunk)
+                .flatMapIterable(Map::entrySet)
+                .map(balance -> new GetBalanceResponse(balance.getKey(), balance.getValue().amount(), balance.getValue().currency()))
+                // a failed chunk is left out, the others are still streamed
+                .onErrorResume(e -> Flux.empty()));
+    }
+
+    @Override
+    public Flux<GetBalanceResponse> balanceUpdates(WalletId wallet) {
+        return subscriptions.subscribe(wallet);
+    }
+
+    @Override
+    public Mono<TransactionResponse> transact(WalletTransaction transaction) {
+        return transactions.transact(transaction, operatorWalletFacade::transact);
+    }
+}
@@ -1,24 +1,90 @@
 package com.netent.news.application;
 
+import com.netent.news.domain.Deadline;
 import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
 import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.in.TransactionResponse;
 import com.netent.news.application.port.in.WalletService;
 import com.netent.news.application.port.out.OperatorGetBalance;
 import com.netent.news.application.port.out.OperatorWalletFacade;
+import com.netent.news.application.port.out.RequestScope;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Component
 public class
 WalletServiceImpl implements WalletService {
     private final OperatorWalletFacade operatorWalletFacade;
+    private final BalanceFanOut fanOut;
+    private final WalletTransactions transactions;
+    private final RequestScope requestScope;
+    private final Scheduler blockingScheduler;
 
-    public WalletServiceImpl(OperatorWalletFacade operatorWalletFacade) {
+    /**
+     * @param blockingScheduler runs the operator calls that block on behalf of a fan-out or a queued transaction
+     */
+    public WalletServiceImpl(OperatorWalletFacade operatorWalletFacade,
+                             BalanceFanOut fanOut,
+                             WalletTransactions transactions,
+                             RequestScope requestScope,
+                             Scheduler blockingScheduler) {
         this.operatorWalletFacade = operatorWalletFacade;
+        this.fanOut = fanOut;
+        this.transactions = transactions;
+        this.requestScope = requestScope;
+        this.blockingScheduler = blockingScheduler;
     }
 
     @Override
     public GetBalanceResponse getBalance(WalletId wallet) {
         OperatorGetBalance balance = operatorWalletFacade.getBalance(wallet);
-        return new GetBalanceResponse();
+        return new GetBalanceResponse(wallet, balance.amount(), balance.currency());
+    }
+
+    /**
+     * Every chunk blocks a thread of the blocking scheduler for its operator call, with the caller's {@link Deadline} and
+     * {@link RequestScope} bound to it; the fan-out concurrency bounds how many.
+     */
+    @Override
+    public Flux<GetBalanceResponse> getBalances(Collection<WalletId> wallets) {
+        var deadline = Deadline.current();
+        var scope = requestScope.capture();
+        return fanOut.fanOut(wallets, chunk -> Mono.fromCallable(() ->
+                        inRequestContext(deadline, scope, () -> operatorWalletFacade.getBalances(chunk)))
+                .subscribeOn(blockingScheduler)
+                .flatMapIterable(Map::entrySet)
+                .map(balance -> new GetBalanceResponse(balance.getKey(), balance.getValue().amount(), balance.getValue().currency()))
+                // a failed chunk is left out, the others are still streamed
+                .onErrorResume(e -> Flux.empty()));
+    }
+
+    /**
+     * Blocks the calling thread until the transaction is answered. The operator call itself runs on the blocking
+     * scheduler: a transaction queued behind an earlier one of its wallet is sent from the thread that completed that
+     * one, which must not block.
+     */
+    @Override
+    public TransactionResponse transact(WalletTransaction transaction) {
+        var deadline = Deadline.current();
+        var scope = requestScope.capture();
+        return transactions.transact(transaction, queued -> Mono.fromCallable(() ->
+                        inRequestContext(deadline, scope, () -> operatorWalletFacade.transact(queued)))
+                .subscribeOn(blockingScheduler))
+                .block();
+    }
+
+    private static <T> T inRequestContext(Deadline deadline, RequestScope.Captured scope, Supplier<T> call) {
+        // null resources are not closed
+        try (var boundDeadline = deadline != null ? deadline.bind() : null;
+             var boundScope = scope.bind()) {
+            return call.get();
+        }
     }
 }
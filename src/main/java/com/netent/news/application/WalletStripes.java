@@ -0,0 +1,217 @@
+package com.netent.news.application;
+
+import com.netent.news.domain.WalletId;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs the operations on a wallet one at a time, in the order they were submitted, and operations on different wallets
+ * in parallel, without a lock. Every operator has a fixed number of stripes of its own, and each of its wallets is
+ * hashed to one of them. A stripe is a lock-free queue with a single consumer at a time: the submitter that found the
+ * stripe idle, then whichever thread completes the operation running on it. Operations are asynchronous and must not
+ * block, as the next one of the stripe is started on the thread that completed the previous one.
+ * <p>
+ * Wallets sharing a stripe also wait for one another, so there should be many more stripes than operations usually
+ * in flight; as no stripe is shared across operators, a slow operator holds up only its own wallets. The queue depths
+ * and the time operations waited in their queues are kept per stripe, and added up per operator.
+ */
+public class WalletStripes {
+    private final Map<String, Stripe[]> stripes = new LinkedHashMap<>();
+    private final Function<WalletId, String> operatorOf;
+    private final int mask;
+
+    /**
+     * @param stripes    per operator, a power of two
+     * @param operators  the operators wallets are served by
+     * @param operatorOf the operator serving a wallet, one of {@code operators}
+     */
+    public WalletStripes(int stripes, Collection<String> operators, Function<WalletId, String> operatorOf) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        for (var operator : operators) {
+            var operatorStripes = new Stripe[stripes];
+            for (int i = 0; i < stripes; i++) {
+                operatorStripes[i] = new Stripe();
+            }
+            this.stripes.put(operator, operatorStripes);
+        }
+        this.operatorOf = requireNonNull(operatorOf);
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Queues {@code operation} behind those submitted before it for wallets of the same stripe.
+     *
+     * @return completed as the operation's stage once it has run; exceptionally if it threw
+     * @throws IllegalStateException if the operator of {@code wallet} has no stripes
+     */
+    public <T> CompletableFuture<T> submit(WalletId wallet, Supplier<? extends CompletionStage<T>> operation) {
+        var operator = operatorOf.apply(wallet);
+        var operatorStripes = stripes.get(operator);
+        if (operatorStripes == null) {
+            throw new IllegalStateException("No wallet stripes for operator " + operator);
+        }
+        var task = new Task<>(operation);
+        operatorStripes[stripeOf(wallet)].submit(task);
+        return task.result;
+    }
+
+    public Collection<String> operators() {
+        return stripes.keySet();
+    }
+
+    /**
+     * @return stripes of each operator
+     */
+    public int stripes() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the stripe of {@code wallet} among those of its operator
+     */
+    public int stripeOf(WalletId wallet) {
+        var hash = wallet.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * @return operations queued or running on the stripes of {@code operator}
+     */
+    public int depth(String operator) {
+        var depth = 0;
+        for (var stripe : stripes.get(operator)) {
+            depth += stripe.depth.get();
+        }
+        return depth;
+    }
+
+    /**
+     * @return operations queued or running on the busiest stripe of {@code operator}
+     */
+    public int maxDepth(String operator) {
+        var depth = 0;
+        for (var stripe : stripes.get(operator)) {
+            depth = Math.max(depth, stripe.depth.get());
+        }
+        return depth;
+    }
+
+    /**
+     * @return operations started on the stripes of {@code operator} so far
+     */
+    public long started(String operator) {
+        var started = 0L;
+        for (var stripe : stripes.get(operator)) {
+            started += stripe.started.sum();
+        }
+        return started;
+    }
+
+    /**
+     * @return nanoseconds the operations started on the stripes of {@code operator} spent in their queues, in total
+     */
+    public long waitedNanos(String operator) {
+        var waited = 0L;
+        for (var stripe : stripes.get(operator)) {
+            waited += stripe.waitedNanos.sum();
+        }
+        return waited;
+    }
+
+    /**
+     * @return operations queued or running on stripe {@code stripe} of {@code operator}
+     */
+    public int depth(String operator, int stripe) {
+        return stripes.get(operator)[stripe].depth.get();
+    }
+
+    /**
+     * @return operations started on stripe {@code stripe} of {@code operator} so far
+     */
+    public long started(String operator, int stripe) {
+        return stripes.get(operator)[stripe].started.sum();
+    }
+
+    /**
+     * @return nanoseconds the operations started on stripe {@code stripe} of {@code operator} spent in its queue, in
+     * total
+     */
+    public long waitedNanos(String operator, int stripe) {
+        return stripes.get(operator)[stripe].waitedNanos.sum();
+    }
+
+    private static final class Stripe {
+        private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        // queued and running; whoever raises it from zero becomes the consumer
+        private final AtomicInteger depth = new AtomicInteger();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder waitedNanos = new LongAdder();
+
+        void submit(Task<?> task) {
+            // offered before counted: a consumer that sees the count finds the task
+            queue.offer(task);
+            if (depth.getAndIncrement() == 0) {
+                drain();
+            }
+        }
+
+        /**
+         * Starts queued operations until one has yet to complete, or the queue is empty.
+         */
+        private void drain() {
+            do {
+                var task = queue.poll();
+                started.increment();
+                waitedNanos.add(System.nanoTime() - task.queuedAt);
+                var running = task.run();
+                if (!running.isDone()) {
+                    running.whenComplete((result, failure) -> {
+                        if (depth.decrementAndGet() > 0) {
+                            drain();
+                        }
+                    });
+                    return;
+                }
+            } while (depth.decrementAndGet() > 0);
+        }
+    }
+
+    private static final class Task<T> {
+        private final Supplier<? extends CompletionStage<T>> operation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+
+        Task(Supplier<? extends CompletionStage<T>> operation) {
+            this.operation = operation;
+        }
+
+        CompletableFuture<T> run() {
+            try {
+                operation.get().whenComplete((value, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.TransactionConflictException;
+import com.netent.news.application.port.in.TransactionResponse;
+import com.netent.news.application.port.out.BalanceInvalidator;
+import com.netent.news.application.port.out.JournaledTransaction;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.TransactionJournal;
+import com.netent.news.domain.WalletTransaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sends each wallet transaction to the operator once per transaction id, keeping a {@link TransactionJournal} of
+ * what was sent and how the operator answered:
+ * <ul>
+ * <li>a transaction is journaled as pending before it is sent, and as completed or rejected once answered, so that a
+ * retry is answered from the journal without asking the operator again;</li>
+ * <li>a retry of a transaction still in flight waits for its answer;</li>
+ * <li>a transaction whose outcome is unknown, because the operator failed or did not answer in time, stays pending:
+ * a retry, or {@link #recover} at startup, sends it again with the same id, which the operator dedupes on.</li>
+ * </ul>
+ * Transactions of one wallet are sent one after the other, in the order they arrived, through its
+ * {@link WalletStripes stripe}; those of wallets on other stripes in parallel. A transaction once sent runs to its
+ * outcome even if its caller goes away.
+ */
+public class WalletTransactions {
+    private final TransactionJournal journal;
+    private final BalanceInvalidator balanceInvalidator;
+    private final WalletStripes stripes;
+    private final ConcurrentMap<String, CompletableFuture<OperatorGetBalance>> inFlight = new ConcurrentHashMap<>();
+
+    public WalletTransactions(TransactionJournal journal, BalanceInvalidator balanceInvalidator, WalletStripes stripes) {
+        this.journal = requireNonNull(journal);
+        this.balanceInvalidator = requireNonNull(balanceInvalidator);
+        this.stripes = requireNonNull(stripes);
+    }
+
+    /**
+     * @param operator sends a transaction to the operator, in the subscriber context of the caller that sent it first
+     * @throws TransactionConflictException in the returned mono, if the id was already used for a different transaction
+     * @throws OperatorRejectedException    in the returned mono, if the operator refused the transaction, now or before
+     */
+    public Mono<TransactionResponse> transact(WalletTransaction transaction,
+                                              Function<WalletTransaction, Mono<OperatorGetBalance>> operator) {
+        return Mono.deferContextual(context -> {
+            var journaled = journal.find(transaction.id());
+            if (journaled.isPresent() && !journaled.get().transaction().sameAs(transaction)) {
+                return Mono.error(new TransactionConflictException(transaction.id()));
+            }
+            if (journaled.isPresent() && journaled.get().status() != JournaledTransaction.Status.PENDING) {
+                return answered(transaction, journaled.get()).map(balance -> response(transaction, balance));
+            }
+            var placeholder = new CompletableFuture<OperatorGetBalance>();
+            var result = inFlight.putIfAbsent(transaction.id(), placeholder);
+            if (result == null) {
+                // journaled and sent once claimed, outside the map: a stripe may run the operator call, and whatever
+                // completes on it, on this thread
+                result = placeholder;
+                placeholder.whenComplete((balance, failure) -> inFlight.remove(transaction.id(), placeholder));
+                start(transaction, operator, context).whenComplete((balance, failure) -> {
+                    if (failure != null) {
+                        placeholder.completeExceptionally(failure);
+                    } else {
+                        placeholder.complete(balance);
+                    }
+                });
+            }
+            return Mono.fromFuture(result.copy())
+                    .onErrorMap(CompletionException.class, e -> e.getCause() != null ? e.getCause() : e)
+                    .map(balance -> response(transaction, balance));
+        });
+    }
+
+    /**
+     * Sends the transactions left pending when the application last stopped again.
+     *
+     * @return how many of them the operator has now answered, applied or rejected
+     */
+    public Mono<Long> recover(Function<WalletTransaction, Mono<OperatorGetBalance>> operator) {
+        return Flux.fromIterable(journal.pending())
+                .flatMap(entry -> transact(entry.transaction(), operator)
+                        .map(response -> true)
+                        .onErrorResume(OperatorRejectedException.class, e -> Mono.just(true))
+                        .onErrorResume(e -> Mono.just(false)))
+                .filter(answered -> answered)
+                .count();
+    }
+
+    private CompletableFuture<OperatorGetBalance> start(WalletTransaction transaction,
+                                                        Function<WalletTransaction, Mono<OperatorGetBalance>> operator,
+                                                        ContextView context) {
+        try {
+            var journaled = journal.find(transaction.id());
+            if (journaled.isPresent() && journaled.get().status() != JournaledTransaction.Status.PENDING) {
+                // answered since it was looked up
+                return answered(transaction, journaled.get()).toFuture();
+            }
+            if (journaled.isPresent() && !journaled.get().transaction().sameAs(transaction)) {
+                return CompletableFuture.failedFuture(new TransactionConflictException(transaction.id()));
+            }
+            if (journaled.isEmpty()) {
+                journal.append(JournaledTransaction.pending(transaction));
+            }
+            return stripes.submit(transaction.wallet(), () -> send(transaction, operator, context));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<OperatorGetBalance> send(WalletTransaction transaction,
+                                                       Function<WalletTransaction, Mono<OperatorGetBalance>> operator,
+                                                       ContextView context) {
+        return Mono.defer(() -> operator.apply(transaction))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No balance for transaction " + transaction.id())))
+                .doOnNext(balance -> {
+                    journal.append(JournaledTransaction.completed(transaction, balance));
+                    balanceInvalidator.invalidate(transaction.wallet());
+                })
+                .doOnError(OperatorRejectedException.class, e ->
+                        journal.append(JournaledTransaction.rejected(transaction, String.valueOf(e.getMessage()))))
+                .contextWrite(context)
+                .toFuture();
+    }
+
+    private Mono<OperatorGetBalance> answered(WalletTransaction transaction, JournaledTransaction journaled) {
+        if (!journaled.transaction().sameAs(transaction)) {
+            return Mono.error(new TransactionConflictException(transaction.id()));
+        }
+        return journaled.status() == JournaledTransaction.Status.COMPLETED
+                ? Mono.just(journaled.balance())
+                : Mono.error(new OperatorRejectedException(journaled.rejection()));
+    }
+
+    private static TransactionResponse response(WalletTransaction transaction, OperatorGetBalance balance) {
+        return new TransactionResponse(transaction.id(), transaction.wallet(), balance.amount(), balance.currency());
+    }
+}
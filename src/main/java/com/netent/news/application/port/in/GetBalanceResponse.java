@@ -1,4 +1,11 @@
 package com.netent.news.application.port.in;
 
-public class GetBalanceResponse {
+import com.netent.news.domain.WalletId;
+
+import java.math.BigDecimal;
+
+/**
+ * @param currency ISO 4217 code
+ */
+public record GetBalanceResponse(WalletId wallet, BigDecimal amount, String currency) {
 }
@@ -0,0 +1,11 @@
+package com.netent.news.application.port.in;
+
+/**
+ * A transaction request lacks a field or has a malformed one.
+ */
+public class InvalidTransactionException extends RuntimeException {
+
+    public InvalidTransactionException(String message) {
+        super(message);
+    }
+}
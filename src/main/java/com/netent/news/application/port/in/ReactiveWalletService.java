@@ -0,0 +1,33 @@
+package com.netent.news.application.port.in;
+
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking variant of {@link WalletService}, used when the application runs on the reactive web stack.
+ */
+@Service
+public interface ReactiveWalletService {
+    Mono<GetBalanceResponse> getBalance(WalletId wallet);
+
+    /**
+     * See {@link WalletService#getBalances(Collection)}.
+     */
+    Flux<GetBalanceResponse> getBalances(Collection<WalletId> wallets);
+
+    /**
+     * The current balance of {@code wallet}, then every change to it, until cancelled. A subscriber that reads slowly
+     * skips to the latest balance.
+     */
+    Flux<GetBalanceResponse> balanceUpdates(WalletId wallet);
+
+    /**
+     * See {@link WalletService#transact(WalletTransaction)}.
+     */
+    Mono<TransactionResponse> transact(WalletTransaction transaction);
+}
@@ -0,0 +1,11 @@
+package com.netent.news.application.port.in;
+
+/**
+ * A bulk balance request asked for more wallets than one request may.
+ */
+public class TooManyWalletsException extends RuntimeException {
+
+    public TooManyWalletsException(int wallets, int maxWallets) {
+        super(wallets + " wallets requested, at most " + maxWallets + " are allowed per request");
+    }
+}
@@ -0,0 +1,11 @@
+package com.netent.news.application.port.in;
+
+/**
+ * A transaction id was reused for a transaction that differs from the one first sent with it.
+ */
+public class TransactionConflictException extends RuntimeException {
+
+    public TransactionConflictException(String transactionId) {
+        super("Transaction " + transactionId + " was already sent with different content");
+    }
+}
@@ -0,0 +1,25 @@
+package com.netent.news.application.port.in;
+
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of {@code POST /wallets/{wallet}/transactions}.
+ *
+ * @param transactionId the game provider's id of the transaction, the same on every retry of it
+ * @param currency      ISO 4217 code
+ */
+public record TransactionRequest(String transactionId, TransactionType type, BigDecimal amount, String currency,
+                                 String sessionId, String gameId) {
+
+    public WalletTransaction toTransaction(WalletId wallet) {
+        try {
+            return new WalletTransaction(transactionId, wallet, type, amount, currency, sessionId, gameId);
+        } catch (NullPointerException | IllegalArgumentException e) {
+            throw new InvalidTransactionException(e.getMessage());
+        }
+    }
+}
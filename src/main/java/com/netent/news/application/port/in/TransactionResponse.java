@@ -0,0 +1,13 @@
+package com.netent.news.application.port.in;
+
+import com.netent.news.domain.WalletId;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of the wallet once the transaction was applied; a retried transaction is answered with the same balance.
+ *
+ * @param currency ISO 4217 code
+ */
+public record TransactionResponse(String transactionId, WalletId wallet, BigDecimal balance, String currency) {
+}
@@ -1,9 +1,29 @@
 package com.netent.news.application.port.in;
 
 import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
 
 @Service
 public interface WalletService {
     GetBalanceResponse getBalance(WalletId wallet);
+
+    /**
+     * Balances of {@code wallets}, emitted as the operators answer rather than in request order. Wallets the
+     * operators do not know, or that could not be looked up in time, are left out; callers may retry them one by one.
+     *
+     * @throws TooManyWalletsException if more wallets are asked for than one request may
+     */
+    Flux<GetBalanceResponse> getBalances(Collection<WalletId> wallets);
+
+    /**
+     * Applies {@code transaction} once, however often it is sent: a retry is answered as the transaction was, without
+     * asking the operator again. Transactions of one wallet reach the operator in the order they were sent.
+     *
+     * @throws TransactionConflictException if the transaction id was already used for a different transaction
+     */
+    TransactionResponse transact(WalletTransaction transaction);
 }
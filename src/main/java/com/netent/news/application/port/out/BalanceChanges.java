@@ -0,0 +1,15 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.WalletId;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Wallets whose balance may have changed, as they are invalidated through {@link BalanceInvalidator}. The stream is
+ * hot and best effort: subscribers only see changes signalled while subscribed, and {@link BalanceInvalidator#invalidateAll()}
+ * is not signalled at all.
+ */
+@Service
+public interface BalanceChanges {
+    Flux<WalletId> changes();
+}
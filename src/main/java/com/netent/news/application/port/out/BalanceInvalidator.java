@@ -0,0 +1,26 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.WalletId;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops balances that operator wallet adapters may have cached. Flows that change a balance (bet, win, withdraw)
+ * must call {@link #invalidate(WalletId)} once the operator has acknowledged the change.
+ */
+@Service
+public interface BalanceInvalidator {
+    /** Nothing cached, nothing to drop. */
+    BalanceInvalidator NONE = new BalanceInvalidator() {
+        @Override
+        public void invalidate(WalletId wallet) {
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+    };
+
+    void invalidate(WalletId wallet);
+
+    void invalidateAll();
+}
@@ -0,0 +1,13 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.Deadline;
+
+/**
+ * The operator did not answer within the {@link Deadline} of the request.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String operator) {
+        super("Operator " + operator + " did not answer within the request deadline", null, false, false);
+    }
+}
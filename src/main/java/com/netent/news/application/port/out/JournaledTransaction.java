@@ -0,0 +1,46 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.WalletTransaction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * What a {@link TransactionJournal} knows of a transaction.
+ *
+ * @param balance   once {@link Status#COMPLETED completed}, {@code null} otherwise
+ * @param rejection the operator's reason once {@link Status#REJECTED rejected}, {@code null} otherwise
+ */
+public record JournaledTransaction(WalletTransaction transaction, Status status, OperatorGetBalance balance, String rejection) {
+
+    public JournaledTransaction {
+        requireNonNull(transaction);
+        requireNonNull(status);
+        if (status == Status.COMPLETED) {
+            requireNonNull(balance, "balance");
+        }
+        if (status == Status.REJECTED) {
+            requireNonNull(rejection, "rejection");
+        }
+    }
+
+    public static JournaledTransaction pending(WalletTransaction transaction) {
+        return new JournaledTransaction(transaction, Status.PENDING, null, null);
+    }
+
+    public static JournaledTransaction completed(WalletTransaction transaction, OperatorGetBalance balance) {
+        return new JournaledTransaction(transaction, Status.COMPLETED, balance, null);
+    }
+
+    public static JournaledTransaction rejected(WalletTransaction transaction, String rejection) {
+        return new JournaledTransaction(transaction, Status.REJECTED, null, rejection);
+    }
+
+    public enum Status {
+        /** Sent, or about to be sent, to the operator, which has not answered yet. */
+        PENDING,
+        /** Applied by the operator. */
+        COMPLETED,
+        /** Refused by the operator. */
+        REJECTED
+    }
+}
@@ -1,4 +1,13 @@
 package com.netent.news.application.port.out;
 
-public class OperatorGetBalance {
+import com.netent.news.domain.WalletId;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of a wallet as reported by its operator.
+ *
+ * @param currency ISO 4217 code
+ */
+public record OperatorGetBalance(WalletId wallet, BigDecimal amount, String currency) {
 }
@@ -0,0 +1,12 @@
+package com.netent.news.application.port.out;
+
+/**
+ * The operator refused a transaction, e.g. for lack of funds. Final: sending the transaction again gets the same
+ * answer.
+ */
+public class OperatorRejectedException extends RuntimeException {
+
+    public OperatorRejectedException(String reason) {
+        super(reason, null, false, false);
+    }
+}
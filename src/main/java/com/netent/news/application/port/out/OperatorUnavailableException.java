@@ -0,0 +1,12 @@
+package com.netent.news.application.port.out;
+
+/**
+ * The operator was not called: its circuit is open or it has as many calls in flight as it is allowed.
+ */
+public class OperatorUnavailableException extends RuntimeException {
+
+    public OperatorUnavailableException(String operator) {
+        // no stack trace: rejecting is the cheap path while an operator is degraded
+        super("Operator " + operator + " is unavailable", null, false, false);
+    }
+}
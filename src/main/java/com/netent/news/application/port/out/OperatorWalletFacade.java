@@ -1,9 +1,27 @@
 package com.netent.news.application.port.out;
 
 import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Service
 public interface OperatorWalletFacade {
     OperatorGetBalance getBalance(WalletId wallet);
+
+    /**
+     * Looks up several wallets in as few operator round trips as possible. Wallets the operator does not know are
+     * absent from the result.
+     */
+    Map<WalletId, OperatorGetBalance> getBalances(Collection<WalletId> wallets);
+
+    /**
+     * Sends {@code transaction} to the operator of its wallet, which applies it at most once per transaction id.
+     *
+     * @return the balance once the transaction was applied
+     * @throws OperatorRejectedException if the operator refused the transaction
+     */
+    OperatorGetBalance transact(WalletTransaction transaction);
 }
@@ -0,0 +1,38 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link OperatorWalletFacade}. Nothing may block inside the returned publishers, they are
+ * completed on the I/O threads of the operator connection.
+ */
+@Service
+public interface ReactiveOperatorWalletFacade {
+    Mono<OperatorGetBalance> getBalance(WalletId wallet);
+
+    /**
+     * See {@link OperatorWalletFacade#getBalances(Collection)}. By default one lookup per wallet, adapters talking to
+     * operators with a bulk endpoint override this.
+     */
+    default Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+        return Flux.fromIterable(wallets)
+                .distinct()
+                .flatMap(wallet -> getBalance(wallet).map(balance -> Map.entry(wallet, balance)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * See {@link OperatorWalletFacade#transact(WalletTransaction)}. Unsupported by default, as not every adapter can
+     * move money.
+     */
+    default Mono<OperatorGetBalance> transact(WalletTransaction transaction) {
+        return Mono.error(new UnsupportedOperationException(getClass().getSimpleName() + " does not send transactions"));
+    }
+}
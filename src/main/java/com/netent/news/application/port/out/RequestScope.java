@@ -0,0 +1,48 @@
+package com.netent.news.application.port.out;
+
+import reactor.util.context.Context;
+
+/**
+ * What the infrastructure keeps of the request being served on the current thread, such as its trace, handed on to
+ * the calls made on the request's behalf: to the threads they run on, and into the subscriber context of reactive
+ * calls. The application only carries it; what it holds is up to the implementation.
+ */
+public interface RequestScope {
+    RequestScope NONE = () -> Captured.NONE;
+
+    /**
+     * @return what is bound to the calling thread, to be handed on
+     */
+    Captured capture();
+
+    interface Captured {
+        Captured NONE = new Captured() {
+            @Override
+            public Binding bind() {
+                return () -> {
+                };
+            }
+
+            @Override
+            public Context addTo(Context context) {
+                return context;
+            }
+        };
+
+        /**
+         * Binds the captured state to the current thread until the returned binding is closed.
+         */
+        Binding bind();
+
+        /**
+         * @return {@code context} with the captured state added
+         */
+        Context addTo(Context context);
+    }
+
+    @FunctionalInterface
+    interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
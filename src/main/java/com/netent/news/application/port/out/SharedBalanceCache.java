@@ -0,0 +1,67 @@
+package com.netent.news.application.port.out;
+
+import com.netent.news.domain.WalletId;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Balances cached once for all replicas of the application, behind the cache each replica keeps for itself: a balance
+ * one replica looked up is served to the others without asking the operator again. Invalidating a wallet drops its
+ * balance here and is broadcast to the other replicas, which drop their own copies.
+ * <p>
+ * Best effort: callers fall back to the operator when the shared cache fails or is slow, so implementations should
+ * fail fast rather than retry.
+ */
+@Service
+public interface SharedBalanceCache {
+    /** No shared cache: every replica asks the operator itself. */
+    SharedBalanceCache NONE = new SharedBalanceCache() {
+        @Override
+        public Mono<Map<WalletId, OperatorGetBalance>> getAll(Collection<WalletId> wallets) {
+            return Mono.just(Map.of());
+        }
+
+        @Override
+        public Mono<Void> putAll(Map<WalletId, OperatorGetBalance> balances, Instant lookedUpAt) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> invalidate(WalletId wallet) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<WalletId> invalidations() {
+            return Flux.never();
+        }
+    };
+
+    /**
+     * @return the cached balances among {@code wallets}
+     */
+    Mono<Map<WalletId, OperatorGetBalance>> getAll(Collection<WalletId> wallets);
+
+    /**
+     * Caches balances looked up from the operator. A wallet invalidated after {@code lookedUpAt} is not written, as its
+     * balance may have changed while the lookup was in flight.
+     *
+     * @param lookedUpAt when the lookup was sent to the operator
+     */
+    Mono<Void> putAll(Map<WalletId, OperatorGetBalance> balances, Instant lookedUpAt);
+
+    /**
+     * Drops the balance of {@code wallet} and tells the other replicas to drop theirs.
+     */
+    Mono<Void> invalidate(WalletId wallet);
+
+    /**
+     * Wallets invalidated by other replicas. Hot and best effort, like {@link BalanceChanges}.
+     */
+    Flux<WalletId> invalidations();
+}
@@ -0,0 +1,33 @@
+package com.netent.news.application.port.out;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local, append-only record of the transactions sent to the operators and of their outcome, written before a
+ * transaction is sent and once it is answered. It answers retries without asking the operator again, and tells
+ * which transactions were sent without an answer when the application stopped.
+ * <p>
+ * Bounded: the oldest outcomes are forgotten once the journal is full, pending transactions never are.
+ */
+@Service
+public interface TransactionJournal {
+    /**
+     * @return the latest entry for {@code transactionId}
+     */
+    Optional<JournaledTransaction> find(String transactionId);
+
+    /**
+     * Records {@code entry}, superseding earlier entries of its transaction. Durable once this returns, to the
+     * extent the implementation promises.
+     */
+    void append(JournaledTransaction entry);
+
+    /**
+     * @return the transactions still {@link JournaledTransaction.Status#PENDING pending}, in the order they were first
+     * journaled
+     */
+    List<JournaledTransaction> pending();
+}
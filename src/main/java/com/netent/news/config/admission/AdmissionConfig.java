@@ -0,0 +1,88 @@
+package com.netent.news.config.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.netent.news.config.deadline.DeadlineConfig.WALLETS;
+import static com.netent.news.config.logging.server.FilterConfig.GAMEPROVIDERAPI;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(name = "http.server.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+    // ahead of tracing and logging: a request turned away costs neither a span nor a log event
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+    private static final List<String> ADMITTED = List.of(GAMEPROVIDERAPI, WALLETS);
+
+    /**
+     * {@code http.server.admission{priority, result}}, {@code http.server.admission.in.flight} and
+     * {@code http.server.admission.queue.time}, the estimate requests are shed on.
+     */
+    @Bean
+    public AdmissionControl admissionControl(AdmissionProperties properties, ObjectProvider<ServerProperties> serverProperties,
+                                             ApplicationContext context, MeterRegistry meterRegistry) {
+        var platformThreads = context instanceof WebApplicationContext
+                && !context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        var control = new AdmissionControl(properties, capacity(properties, platformThreads ? serverProperties.getIfAvailable() : null));
+        for (var priority : Priority.values()) {
+            for (var result : AdmissionControl.Result.values()) {
+                FunctionCounter.builder("http.server.admission", control, c -> c.count(priority, result))
+                        .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                        .tag("result", result.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("http.server.admission.in.flight", control, AdmissionControl::inFlight).register(meterRegistry);
+        TimeGauge.builder("http.server.admission.queue.time", control, TimeUnit.NANOSECONDS, AdmissionControl::queueTimeNanos)
+                .register(meterRegistry);
+        return control;
+    }
+
+    /**
+     * A servlet request served on a platform thread holds a Tomcat worker for as long as it is in flight: the requests
+     * beyond {@code server.tomcat.threads.max} wait in Tomcat's accept queue, before admission sees them, so a higher
+     * capacity would never be exceeded and nothing would ever be shed. Virtual threads, and the reactive stack, have no
+     * such bound.
+     *
+     * @param server the server properties when serving on platform threads, otherwise {@code null}
+     */
+    static int capacity(AdmissionProperties properties, @Nullable ServerProperties server) {
+        return server != null
+                ? Math.min(properties.getCapacity(), server.getTomcat().getThreads().getMax())
+                : properties.getCapacity();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<AdmissionFilter> admissionFilterRegistration(AdmissionControl admissionControl) {
+        var registration = new FilterRegistrationBean<AdmissionFilter>();
+        registration.setFilter(new AdmissionFilter(admissionControl));
+        ADMITTED.forEach(path -> registration.addUrlPatterns(path + "/*"));
+        registration.setOrder(ORDER);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public AdmissionWebFilter admissionWebFilter(AdmissionControl admissionControl) {
+        return new AdmissionWebFilter(admissionControl, ADMITTED);
+    }
+}
@@ -0,0 +1,194 @@
+package com.netent.news.config.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides, before any other work is done for it, whether a request is served:
+ * <ul>
+ * <li>a caller, a casino and provider, that sends more than its rate is {@link Result#LIMITED limited}, answered
+ * 429 at once, through its {@link TokenBuckets token bucket};</li>
+ * <li>while the server has more requests in flight than its capacity, a request is {@link Result#SHED shed}, answered
+ * 503 at once, if it would queue for longer than the maximum of its {@link Priority}. The queue time is estimated
+ * from the requests in flight beyond capacity and the average time a request is served in, so that balance reads
+ * are turned away while transactions still queue.</li>
+ * </ul>
+ * Everything is kept in atomics and adders: admitting a request takes a compare-and-set on its bucket and an increment
+ * of the requests in flight.
+ */
+public class AdmissionControl {
+    // shed requests are asked to come back once the queue had time to drain
+    private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+    @Nullable
+    private final TokenBuckets buckets;
+    private final int capacity;
+    private final long[] maxQueueNanos = new long[Priority.values().length];
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong serviceNanos = new AtomicLong();
+    private final LongAdder[] counts = new LongAdder[Priority.values().length * Result.values().length];
+    private final Admission[] shed = new Admission[Priority.values().length];
+    private final Admission[] unheld = new Admission[Priority.values().length];
+
+    public AdmissionControl(AdmissionProperties properties) {
+        this(properties, properties.getCapacity());
+    }
+
+    /**
+     * @param capacity requests served at a time, in place of the configured one
+     */
+    public AdmissionControl(AdmissionProperties properties, int capacity) {
+        this(properties, capacity, System::nanoTime);
+    }
+
+    AdmissionControl(AdmissionProperties properties, LongSupplier clock) {
+        this(properties, properties.getCapacity(), clock);
+    }
+
+    AdmissionControl(AdmissionProperties properties, int capacity, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.buckets = properties.getRate() > 0
+                ? new TokenBuckets(properties.getRate(), properties.getBurst(), properties.getMaxCallers(), clock.getAsLong())
+                : null;
+        this.capacity = capacity;
+        this.clock = clock;
+        for (var priority : Priority.values()) {
+            var maxQueueTime = properties.getMaxQueueTime().get(priority);
+            maxQueueNanos[priority.ordinal()] = maxQueueTime != null ? maxQueueTime.toNanos() : Long.MAX_VALUE;
+            shed[priority.ordinal()] = new Admission(this, priority, Result.SHED, SHED_RETRY_AFTER_SECONDS, 0);
+            unheld[priority.ordinal()] = new Admission(this, priority, Result.ADMITTED, 0, 0);
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param caller from {@link #caller}
+     * @return to be closed once the request was served, if admitted
+     */
+    public Admission admit(String caller, Priority priority) {
+        var now = clock.getAsLong();
+        if (buckets != null) {
+            var wait = buckets.acquire(caller, now);
+            if (wait > 0) {
+                record(priority, Result.LIMITED);
+                return new Admission(this, priority, Result.LIMITED, Math.max(1, (wait + 999_999_999) / 1_000_000_000), 0);
+            }
+        }
+        if (queueTimeNanos() > maxQueueNanos[priority.ordinal()]) {
+            record(priority, Result.SHED);
+            return shed[priority.ordinal()];
+        }
+        record(priority, Result.ADMITTED);
+        if (priority == Priority.SUBSCRIPTION) {
+            // held open for as long as the caller listens, which says nothing about how busy the server is
+            return unheld[priority.ordinal()];
+        }
+        inFlight.incrementAndGet();
+        return new Admission(this, priority, Result.ADMITTED, 0, now);
+    }
+
+    /**
+     * @return how long a request admitted now would wait for one of those in flight to finish, if the server serves
+     * {@code capacity} requests at a time
+     */
+    public long queueTimeNanos() {
+        var ahead = inFlight.get() - capacity + 1;
+        return ahead > 0 ? ahead * serviceNanos.get() / capacity : 0;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long count(Priority priority, Result result) {
+        return counts[index(priority, result)].sum();
+    }
+
+    static String caller(@Nullable String casinoId, @Nullable String providerName) {
+        return (casinoId != null ? casinoId : "") + '/' + (providerName != null ? providerName : "");
+    }
+
+    private void record(Priority priority, Result result) {
+        counts[index(priority, result)].increment();
+    }
+
+    private static int index(Priority priority, Result result) {
+        return priority.ordinal() * Result.values().length + result.ordinal();
+    }
+
+    private void release(long admittedAt) {
+        inFlight.decrementAndGet();
+        var served = clock.getAsLong() - admittedAt;
+        var average = serviceNanos.get();
+        // not compare-and-set: a sample lost to a concurrent release does not move an average over thousands of requests
+        serviceNanos.set(average == 0 ? served : average + (served - average) / 16);
+    }
+
+    public enum Result {
+        ADMITTED,
+        LIMITED,
+        SHED
+    }
+
+    public static final class Admission implements AutoCloseable {
+        private final AdmissionControl control;
+        private final Priority priority;
+        private final Result result;
+        private final long retryAfterSeconds;
+        private final long admittedAt;
+
+        private Admission(AdmissionControl control, Priority priority, Result result, long retryAfterSeconds, long admittedAt) {
+            this.control = control;
+            this.priority = priority;
+            this.result = result;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.admittedAt = admittedAt;
+        }
+
+        public Priority priority() {
+            return priority;
+        }
+
+        public Result result() {
+            return result;
+        }
+
+        public boolean admitted() {
+            return result == Result.ADMITTED;
+        }
+
+        /**
+         * @return the status of the response to a request that was not admitted
+         */
+        public HttpStatus status() {
+            return result == Result.LIMITED ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        }
+
+        /**
+         * @return the value of the {@code Retry-After} header of a request that was not admitted
+         */
+        public long retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        /**
+         * Ends an admitted request, once served. Not idempotent.
+         */
+        @Override
+        public void close() {
+            if (admitted() && priority != Priority.SUBSCRIPTION) {
+                control.release(admittedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.netent.news.config.admission;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.netent.news.config.logging.LoggingConstants.CASINO_ID;
+import static com.netent.news.config.logging.LoggingConstants.PROVIDER_NAME;
+
+/**
+ * Answers requests that {@link AdmissionControl} does not admit with 429 or 503 and a {@code Retry-After}, without
+ * passing them on. The caller is named by the {@code casinoId} and {@code providerName} headers, or else query
+ * parameters; the body is not read for them. An admitted request is in flight until its response is complete, streamed
+ * ones included.
+ */
+public final class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var caller = AdmissionControl.caller(parameter(request, CASINO_ID), parameter(request, PROVIDER_NAME));
+        var admission = admissionControl.admit(caller, Priority.of(request.getMethod(), request.getRequestURI()));
+        if (!admission.admitted()) {
+            response.setStatus(admission.status().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // still being served, e.g. streamed, after this thread returns; async dispatches are not filtered
+                request.getAsyncContext().addListener(new AsyncRelease(admission));
+            } else {
+                admission.close();
+            }
+        }
+    }
+
+    @Nullable
+    private static String parameter(HttpServletRequest request, String name) {
+        var header = request.getHeader(name);
+        if (header != null) {
+            return header;
+        }
+        // rather than getParameter, which would consume a form body
+        var query = request.getQueryString();
+        if (query == null) {
+            return null;
+        }
+        for (int from = 0; from < query.length(); ) {
+            var end = query.indexOf('&', from);
+            if (end < 0) {
+                end = query.length();
+            }
+            var equals = from + name.length();
+            if (equals < end && query.charAt(equals) == '=' && query.startsWith(name, from)) {
+                return query.substring(equals + 1, end);
+            }
+            from = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Ends the admission of a request served asynchronously once its response is complete. A timeout or error is
+     * followed by completion; whichever comes first releases it.
+     */
+    private static final class AsyncRelease implements AsyncListener {
+        private final AdmissionControl.Admission admission;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        AsyncRelease(AdmissionControl.Admission admission) {
+            this.admission = admission;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async processing is started again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                admission.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.netent.news.config.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rate limits of the callers of {@code /gameproviderapi} and {@code /wallets}, and the load at which their requests
+ * are shed, see {@link AdmissionControl}.
+ */
+@ConfigurationProperties(prefix = "http.server.admission")
+public class AdmissionProperties {
+    /** Off admits every request. */
+    private boolean enabled = true;
+    /** Requests per second of each casino and provider, 0 for no limit. */
+    private int rate = 1000;
+    /** Requests a casino and provider may send at once, beyond its rate. */
+    private int burst = 200;
+    /** Casinos and providers given a bucket of their own; any further ones share one. */
+    private int maxCallers = 10000;
+    /**
+     * Requests served at a time; requests in flight beyond it are counted as queued. Capped to
+     * {@code server.tomcat.threads.max} when servlet requests run on platform threads, see
+     * {@link AdmissionConfig#capacity}.
+     */
+    private int capacity = 512;
+    /** Estimated queue time above which requests of a priority are shed, none for never. */
+    private final Map<Priority, Duration> maxQueueTime = new EnumMap<>(Map.of(
+            Priority.TRANSACTION, Duration.ofSeconds(1),
+            Priority.READ, Duration.ofMillis(100),
+            Priority.SUBSCRIPTION, Duration.ZERO));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxCallers() {
+        return maxCallers;
+    }
+
+    public void setMaxCallers(int maxCallers) {
+        this.maxCallers = maxCallers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Map<Priority, Duration> getMaxQueueTime() {
+        return maxQueueTime;
+    }
+}
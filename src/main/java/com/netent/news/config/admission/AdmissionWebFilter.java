@@ -0,0 +1,61 @@
+package com.netent.news.config.admission;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.netent.news.config.logging.LoggingConstants.CASINO_ID;
+import static com.netent.news.config.logging.LoggingConstants.PROVIDER_NAME;
+
+/**
+ * Reactive counterpart of {@link AdmissionFilter}. A request is in flight until its response completes.
+ */
+public final class AdmissionWebFilter implements WebFilter, Ordered {
+
+    private final AdmissionControl admissionControl;
+    private final List<String> paths;
+
+    /**
+     * @param paths requests to these paths and below are subject to admission
+     */
+    public AdmissionWebFilter(AdmissionControl admissionControl, List<String> paths) {
+        this.admissionControl = admissionControl;
+        this.paths = List.copyOf(paths);
+    }
+
+    @Override
+    public int getOrder() {
+        return AdmissionConfig.ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var requestPath = request.getPath().pathWithinApplication().value();
+        if (paths.stream().noneMatch(path -> requestPath.equals(path) || requestPath.startsWith(path + "/"))) {
+            return chain.filter(exchange);
+        }
+        var caller = AdmissionControl.caller(parameter(request, CASINO_ID), parameter(request, PROVIDER_NAME));
+        var admission = admissionControl.admit(caller, Priority.of(request.getMethodValue(), requestPath));
+        if (!admission.admitted()) {
+            var response = exchange.getResponse();
+            response.setStatusCode(admission.status());
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()));
+            return response.setComplete();
+        }
+        return chain.filter(exchange).doFinally(signal -> admission.close());
+    }
+
+    @Nullable
+    private static String parameter(ServerHttpRequest request, String name) {
+        var header = request.getHeaders().getFirst(name);
+        return header != null ? header : request.getQueryParams().getFirst(name);
+    }
+}
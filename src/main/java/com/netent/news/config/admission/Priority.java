@@ -0,0 +1,27 @@
+package com.netent.news.config.admission;
+
+/**
+ * Which requests are shed first under overload: subscriptions, then balance reads, and money-moving transactions
+ * last, each once the estimated queue time passes its own {@link AdmissionProperties#getMaxQueueTime() maximum}.
+ */
+public enum Priority {
+    /** Moves money: a bet, win or withdrawal. */
+    TRANSACTION,
+    /** Reads balances, one or in bulk; the caller can ask again at no cost. */
+    READ,
+    /** Subscribes to balance updates, held open for as long as the caller listens. */
+    SUBSCRIPTION;
+
+    /**
+     * @param path matched on its last segments, those of the route: a wallet id may contain anything
+     */
+    static Priority of(String method, String path) {
+        if (path.endsWith("/balance/updates")) {
+            return SUBSCRIPTION;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method) || path.endsWith("/balance") || path.endsWith("/balances")) {
+            return READ;
+        }
+        return TRANSACTION;
+    }
+}
@@ -0,0 +1,58 @@
+package com.netent.news.config.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per caller, each a single {@link AtomicLong} updated with one compare-and-set per request. The bucket
+ * keeps the time at which it will be full again rather than a token count (the generic cell rate algorithm), so that
+ * refilling takes no timer and no second field: a request takes a token by moving that time one interval on, and is
+ * refused while it is more than {@code burst - 1} intervals ahead of now.
+ * <p>
+ * Callers are not forgotten; once {@code maxCallers} have a bucket of their own, further ones share a last one.
+ */
+final class TokenBuckets {
+    private final long interval;
+    private final long tolerance;
+    private final int maxCallers;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong shared;
+
+    /**
+     * @param rate  tokens per second
+     * @param burst tokens a full bucket holds
+     * @param now   {@link System#nanoTime()} or the clock later passed to {@link #acquire}
+     */
+    TokenBuckets(int rate, int burst, int maxCallers, long now) {
+        if (rate < 1 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive: " + rate + ", " + burst);
+        }
+        this.interval = 1_000_000_000L / rate;
+        this.tolerance = (burst - 1) * interval;
+        this.maxCallers = maxCallers;
+        this.shared = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if {@code caller} got a token, otherwise the nanoseconds until it would get one
+     */
+    long acquire(String caller, long now) {
+        var bucket = buckets.get(caller);
+        if (bucket == null) {
+            bucket = buckets.size() < maxCallers ? buckets.computeIfAbsent(caller, c -> new AtomicLong(now)) : shared;
+        }
+        while (true) {
+            var full = bucket.get();
+            // nanoTime may wrap, so compared by difference
+            var from = full - now > 0 ? full : now;
+            var wait = from - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, from + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.netent.news.config.deadline;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfig {
+    public static final String WALLETS = "/wallets";
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilterRegistration(DeadlineProperties properties) {
+        var registration = new FilterRegistrationBean<DeadlineFilter>();
+        registration.setFilter(new DeadlineFilter(properties));
+        registration.addUrlPatterns(WALLETS + "/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public DeadlineWebFilter deadlineWebFilter(DeadlineProperties properties) {
+        return new DeadlineWebFilter(properties);
+    }
+}
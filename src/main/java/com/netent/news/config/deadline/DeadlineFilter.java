@@ -0,0 +1,30 @@
+package com.netent.news.config.deadline;
+
+import com.netent.news.domain.Deadline;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Binds the request's {@link Deadline} to the serving thread, where the blocking operator bridge picks it up.
+ */
+public final class DeadlineFilter extends OncePerRequestFilter {
+
+    private final DeadlineProperties properties;
+
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var deadline = Deadline.after(properties.budget(request.getHeader(properties.getHeader())));
+        try (var ignored = deadline.bind()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
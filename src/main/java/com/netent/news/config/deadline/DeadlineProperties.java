@@ -0,0 +1,59 @@
+package com.netent.news.config.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Time budget of an incoming request, from which the deadline of its operator calls is derived.
+ */
+@ConfigurationProperties(prefix = "http.server.deadline")
+public class DeadlineProperties {
+    /** Header in which a caller may pass its own budget, in milliseconds. */
+    private String header = "X-Request-Timeout";
+    /** Budget of requests without the header. */
+    private Duration defaultBudget = Duration.ofSeconds(3);
+    /** Upper bound of a budget passed in the header. */
+    private Duration maxBudget = Duration.ofSeconds(10);
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public Duration getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(Duration defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Duration getMaxBudget() {
+        return maxBudget;
+    }
+
+    public void setMaxBudget(Duration maxBudget) {
+        this.maxBudget = maxBudget;
+    }
+
+    /**
+     * @param header value of the budget header, or {@code null}
+     */
+    Duration budget(String header) {
+        if (header != null) {
+            try {
+                var budget = Duration.ofMillis(Long.parseLong(header.trim()));
+                if (!budget.isNegative()) {
+                    return budget.compareTo(maxBudget) < 0 ? budget : maxBudget;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default budget
+            }
+        }
+        return defaultBudget;
+    }
+}
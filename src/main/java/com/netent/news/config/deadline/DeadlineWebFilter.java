@@ -0,0 +1,29 @@
+package com.netent.news.config.deadline;
+
+import com.netent.news.domain.Deadline;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link DeadlineFilter}: puts the request's {@link Deadline} in the subscriber context.
+ */
+public final class DeadlineWebFilter implements WebFilter {
+
+    private final DeadlineProperties properties;
+
+    public DeadlineWebFilter(DeadlineProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(DeadlineConfig.WALLETS + "/")) {
+            return chain.filter(exchange);
+        }
+        var header = exchange.getRequest().getHeaders().getFirst(properties.getHeader());
+        var deadline = Deadline.after(properties.budget(header));
+        return chain.filter(exchange).contextWrite(context -> context.put(Deadline.class, deadline));
+    }
+}
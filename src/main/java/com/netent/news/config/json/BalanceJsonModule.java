@@ -0,0 +1,137 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Streaming serializers for the balance DTOs, which are encoded on every request:
+ * {@code {"wallet":"42","amount":12.50,"currency":"EUR"}}. Field names are pre-encoded and values written straight
+ * to the generator, with no bean introspection or reflective access. Unknown fields are skipped when reading, and
+ * missing ones read as {@code null}. Wallet ids are written as strings and read from strings or integers.
+ */
+public class BalanceJsonModule extends SimpleModule {
+    private static final SerializableString WALLET = new SerializedString("wallet");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+
+    public BalanceJsonModule() {
+        super("BalanceJsonModule");
+        addSerializer(GetBalanceResponse.class, new BalanceSerializer<>(GetBalanceResponse.class) {
+            @Override
+            public void serialize(GetBalanceResponse value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                write(generator, value, value.wallet(), value.amount(), value.currency());
+            }
+        });
+        addSerializer(OperatorGetBalance.class, new BalanceSerializer<>(OperatorGetBalance.class) {
+            @Override
+            public void serialize(OperatorGetBalance value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                write(generator, value, value.wallet(), value.amount(), value.currency());
+            }
+        });
+        addDeserializer(GetBalanceResponse.class, new BalanceDeserializer<>(GetBalanceResponse.class) {
+            @Override
+            GetBalanceResponse create(WalletId wallet, BigDecimal amount, String currency) {
+                return new GetBalanceResponse(wallet, amount, currency);
+            }
+        });
+        addDeserializer(OperatorGetBalance.class, new BalanceDeserializer<>(OperatorGetBalance.class) {
+            @Override
+            OperatorGetBalance create(WalletId wallet, BigDecimal amount, String currency) {
+                return new OperatorGetBalance(wallet, amount, currency);
+            }
+        });
+        addSerializer(WalletId.class, new StdSerializer<>(WalletId.class) {
+            @Override
+            public void serialize(WalletId value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeString(value.value());
+            }
+        });
+        addDeserializer(WalletId.class, new StdDeserializer<>(WalletId.class) {
+            @Override
+            public WalletId deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                var token = parser.currentToken();
+                if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT) {
+                    return WalletId.of(parser.getValueAsString());
+                }
+                return (WalletId) context.handleUnexpectedToken(WalletId.class, parser);
+            }
+        });
+    }
+
+    private abstract static class BalanceSerializer<T> extends StdSerializer<T> {
+
+        BalanceSerializer(Class<T> type) {
+            super(type);
+        }
+
+        static void write(JsonGenerator generator, Object value, WalletId wallet, BigDecimal amount, String currency) throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(WALLET);
+            if (wallet == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(wallet.value());
+            }
+            generator.writeFieldName(AMOUNT);
+            if (amount == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(amount);
+            }
+            generator.writeFieldName(CURRENCY);
+            generator.writeString(currency);
+            generator.writeEndObject();
+        }
+    }
+
+    private abstract static class BalanceDeserializer<T> extends StdDeserializer<T> {
+
+        BalanceDeserializer(Class<T> type) {
+            super(type);
+        }
+
+        abstract T create(WalletId wallet, BigDecimal amount, String currency);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            var token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (T) context.handleUnexpectedToken(handledType(), parser);
+            }
+            WalletId wallet = null;
+            BigDecimal amount = null;
+            String currency = null;
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                var field = parser.currentName();
+                var value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "wallet" -> wallet = WalletId.of(parser.getValueAsString());
+                    case "amount" -> amount = value == JsonToken.VALUE_STRING ? new BigDecimal(parser.getText()) : parser.getDecimalValue();
+                    case "currency" -> currency = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            return create(wallet, amount, currency);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * {@code application/cbor} for callers that ask for it in {@code Accept}. The mappers come from the Boot builder, so
+ * CBOR bodies carry the same modules and settings as JSON ones. Which endpoints offer CBOR, and that JSON stays the
+ * default, is up to their {@code produces}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConfig {
+
+    /**
+     * Replaces the MVC default, which is built without the Boot customizations.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    /**
+     * Server codecs only, the operator WebClients register CBOR per operator, see
+     * {@link com.netent.news.config.logging.client.WebClientFactory}. The media type must be spelled out: given just a
+     * mapper, the CBOR decoder claims the JSON types.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public WebFluxConfigurer cborCodecsConfigurer(Jackson2ObjectMapperBuilder builder) {
+        var cborMapper = cborMapper(builder);
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+                configurer.customCodecs().register(new CborValueEncoder(cborMapper));
+                configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            }
+        };
+    }
+
+    /**
+     * @param builder a fresh builder, Boot's is a prototype bean
+     */
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+}
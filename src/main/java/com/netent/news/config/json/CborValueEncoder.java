@@ -0,0 +1,41 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Encodes single values as CBOR. The Spring encoder refuses any publisher, even the {@link Mono} of a response or
+ * request body, as it cannot stream; this one still refuses streams of several values.
+ */
+public class CborValueEncoder extends Jackson2CborEncoder {
+
+    public CborValueEncoder(ObjectMapper cborMapper) {
+        // given just a mapper, the encoder would claim the JSON media types
+        super(cborMapper, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream,
+                                   DataBufferFactory bufferFactory,
+                                   ResolvableType elementType,
+                                   @Nullable MimeType mimeType,
+                                   @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+}
@@ -0,0 +1,60 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Encodes a single value straight into a buffer of the given factory, a pooled one on Netty, instead of into a
+ * byte array that is then copied into the buffer. Values with a JSON view or filters take the default path.
+ */
+public class DirectJackson2JsonEncoder extends Jackson2JsonEncoder {
+
+    public DirectJackson2JsonEncoder(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value,
+                                  DataBufferFactory bufferFactory,
+                                  ResolvableType valueType,
+                                  @Nullable MimeType mimeType,
+                                  @Nullable Map<String, Object> hints) {
+        if (value instanceof MappingJacksonValue || hints != null && hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT)) {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+        var javaType = getJavaType(valueType.getType(), null);
+        ObjectWriter writer = getObjectMapper().writer();
+        if (javaType.isContainerType()) {
+            writer = writer.forType(javaType);
+        }
+        writer = customizeWriter(writer, mimeType, valueType, hints);
+
+        var buffer = bufferFactory.allocateBuffer();
+        var release = true;
+        try (var generator = getObjectMapper().getFactory().createGenerator(buffer.asOutputStream(), getJsonEncoding(mimeType))) {
+            writer.writeValue(generator, value);
+            generator.flush();
+            release = false;
+            return buffer;
+        } catch (IOException e) {
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Modules are picked up by the Boot {@link ObjectMapper}, which serves MVC, WebFlux and the operator WebClients.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JsonConfig {
+
+    @Bean
+    public Module balanceJsonModule() {
+        return new BalanceJsonModule();
+    }
+
+    /**
+     * Generated accessors instead of reflection for every other type. Not in a native image, which cannot define
+     * classes at runtime; the types it serializes are registered for reflection there instead.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("blackbird-disabled") : new BlackbirdModule();
+    }
+
+    /**
+     * WebFlux responses and WebClient requests; MVC already streams into the response.
+     */
+    @Bean
+    public CodecCustomizer directJsonEncoderCustomizer(ObjectMapper objectMapper) {
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new DirectJackson2JsonEncoder(objectMapper));
+    }
+}
@@ -0,0 +1,94 @@
+package com.netent.news.config.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which exchanges get logged and how much of their bodies. Exchanges that are not sampled are not wrapped or
+ * copied at all, and no more than {@code maxBodySize} bytes of a body are ever decoded.
+ */
+public final class BodyLoggingPolicy {
+
+    public static final BodyLoggingPolicy LOG_ALL = new BodyLoggingPolicy(1.0, Integer.MAX_VALUE);
+
+    private static final CBORFactory CBOR = new CBORFactory();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final double sampleRate;
+    private final int maxBodySize;
+
+    public BodyLoggingPolicy(double sampleRate, int maxBodySize) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be within [0, 1]: " + sampleRate);
+        }
+        if (maxBodySize < 0) {
+            throw new IllegalArgumentException("maxBodySize must not be negative: " + maxBodySize);
+        }
+        this.sampleRate = sampleRate;
+        this.maxBodySize = maxBodySize;
+    }
+
+    public boolean sample() {
+        return sampleRate >= 1.0 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public int maxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Decodes at most {@code maxBodySize} of the {@code length} captured bytes, noting the full size of the body if
+     * it was cut short.
+     */
+    public String decode(byte[] body, int length, long totalLength, Charset charset) {
+        var decodedLength = Math.min(length, maxBodySize);
+        var decoded = new String(body, 0, decodedLength, charset);
+        return totalLength > decodedLength ? decoded + "...[" + totalLength + " bytes]" : decoded;
+    }
+
+    /**
+     * Like {@link #decode(byte[], int, long, Charset)}, but keeps binary bodies readable: CBOR is transcoded to JSON,
+     * as far as the captured prefix goes, and other binary content is logged as Base64. Bodies without a content
+     * type are taken for text.
+     */
+    public String decode(byte[] body, int length, long totalLength, @Nullable MimeType contentType, Charset charset) {
+        if (contentType == null || isText(contentType)) {
+            return decode(body, length, totalLength, contentType != null && contentType.getCharset() != null ? contentType.getCharset() : charset);
+        }
+        var decodedLength = Math.min(length, maxBodySize);
+        var decoded = MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)
+                ? cborToJson(body, decodedLength)
+                : "base64:" + Base64.getEncoder().encodeToString(Arrays.copyOf(body, decodedLength));
+        return totalLength > decodedLength ? decoded + "...[" + totalLength + " bytes]" : decoded;
+    }
+
+    private static boolean isText(MimeType contentType) {
+        var subtype = contentType.getSubtype();
+        return contentType.getType().equals("text")
+                || subtype.equals("json") || subtype.endsWith("+json") || subtype.equals("x-ndjson")
+                || subtype.equals("xml") || subtype.endsWith("+xml")
+                || subtype.equals("x-www-form-urlencoded");
+    }
+
+    private static String cborToJson(byte[] body, int length) {
+        var json = new StringWriter();
+        try (var parser = CBOR.createParser(body, 0, length); var generator = JSON.createGenerator(json)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException e) {
+            // a truncated body ends where its prefix does, the generator closes what was left open
+        }
+        return json.toString();
+    }
+}
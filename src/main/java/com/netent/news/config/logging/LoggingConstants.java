@@ -24,4 +24,9 @@ public class LoggingConstants {
     public static final String REQUEST_BODY = "requestBody";
     public static final String RESPONSE_STATUS = "responseStatus";
     public static final String RESPONSE_BODY = "responseBody";
+
+    // tracing, in the MDC of every event logged while serving a traced request
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+    public static final String PARENT_SPAN_ID = "parentSpanId";
 }
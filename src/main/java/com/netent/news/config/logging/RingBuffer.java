@@ -0,0 +1,103 @@
+package com.netent.news.config.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer. Every slot carries a sequence number telling
+ * whose turn it is: producers claim the next slot with one compare-and-set on the tail and publish their element by
+ * advancing the slot's sequence, the consumer frees a slot by advancing it past the next lap. Producers never wait for
+ * each other or for the consumer; {@link #offer} fails when the buffer is full.
+ */
+final class RingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // consumer only
+    private long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int powerOfTwo = 1;
+        while (powerOfTwo < capacity) {
+            powerOfTwo <<= 1;
+        }
+        this.capacity = powerOfTwo;
+        this.mask = powerOfTwo - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long sequence = sequences.get(index(position));
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                // the slot still holds the element of the previous lap
+                return false;
+            }
+            // else another producer claimed the slot first
+        }
+        int index = index(position);
+        elements.lazySet(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} elements to {@code consumer}, in the order they were offered. Consumer thread only.
+     *
+     * @return the number of elements handed over
+     */
+    int drain(Consumer<? super E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = index(head);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            var element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, head + capacity);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Consumer thread only.
+     */
+    boolean isEmpty() {
+        return sequences.get(index(head)) != head + 1;
+    }
+
+    private int index(long position) {
+        return (int) position & mask;
+    }
+}
@@ -0,0 +1,216 @@
+package com.netent.news.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events from the logging thread to a single writer thread through a {@link RingBuffer}, without taking a
+ * lock. The writer encodes up to {@code batchSize} events at a time into one buffer and writes it to standard output
+ * with a single call, so a burst of events costs one write rather than one per event.
+ * <p>
+ * Memory is bounded by {@code queueSize} pending events plus one batch of encoded output. When the ring buffer is
+ * full, the policy decides who pays:
+ * <ul>
+ *     <li>{@code neverBlock=true} (default): the event is dropped and counted, requests never wait for logging. The
+ *     writer reports how many events were dropped with a WARN event of its own once it catches up.</li>
+ *     <li>{@code neverBlock=false}: the logging thread waits until the writer has made room, so no event is lost but
+ *     a slow output slows down requests.</li>
+ * </ul>
+ * Configured in {@code logback-spring.xml} with a nested {@code encoder}.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private int queueSize = 8192;
+    private int batchSize = 256;
+    private boolean neverBlock = true;
+    private int maxFlushTime = 1000;
+    private Encoder<ILoggingEvent> encoder;
+    private OutputStream outputStream;
+
+    private RingBuffer<ILoggingEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;
+    private ByteArrayOutputStream batch;
+    // started is not volatile in AppenderBase, the writer thread polls this instead
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private Thread writer;
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+
+    /**
+     * How long {@link #stop()} waits for pending events to be written, in milliseconds.
+     */
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * Defaults to standard output, unbuffered: the appender does its own batching.
+     */
+    public void setOutputStream(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Events dropped so far because the ring buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        if (queueSize < 1 || batchSize < 1) {
+            addError("queueSize and batchSize must be positive for the appender named [" + name + "].");
+            return;
+        }
+        if (outputStream == null) {
+            outputStream = new FileOutputStream(FileDescriptor.out);
+        }
+        buffer = new RingBuffer<>(queueSize);
+        batch = new ByteArrayOutputStream(BATCH_BYTES);
+        writer = new Thread(this::write, "logback-ring-" + name);
+        writer.setDaemon(true);
+        running = true;
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(maxFlushTime);
+            if (writer.isAlive()) {
+                addWarn("Writer of the appender named [" + name + "] did not finish within " + maxFlushTime + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // formats the message and copies the MDC while still on the logging thread
+        event.prepareForDeferredProcessing();
+        while (!buffer.offer(event)) {
+            if (neverBlock || !running) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void write() {
+        while (running) {
+            if (buffer.drain(this::encode, batchSize) > 0) {
+                flush();
+                continue;
+            }
+            writerParked = true;
+            // an event offered before writerParked was set would not unpark the writer
+            if (buffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+        while (buffer.drain(this::encode, batchSize) > 0) {
+            flush();
+        }
+        flush();
+    }
+
+    private void encode(ILoggingEvent event) {
+        try {
+            batch.writeBytes(encoder.encode(event));
+        } catch (RuntimeException e) {
+            addError("Failed to encode event for the appender named [" + name + "].", e);
+        }
+        if (batch.size() >= BATCH_BYTES) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        var droppedNow = dropped.get();
+        if (droppedNow != droppedReported) {
+            batch.writeBytes(encoder.encode(droppedEvent(droppedNow - droppedReported)));
+            droppedReported = droppedNow;
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            batch.writeTo(outputStream);
+            outputStream.flush();
+        } catch (IOException e) {
+            addError("Failed to write events of the appender named [" + name + "].", e);
+        }
+        // a single large event must not keep its buffer alive
+        batch = batch.size() > 2 * BATCH_BYTES ? new ByteArrayOutputStream(BATCH_BYTES) : reset(batch);
+    }
+
+    private ILoggingEvent droppedEvent(long count) {
+        var event = new LoggingEvent();
+        event.setLoggerName(RingBufferAppender.class.getName());
+        event.setLevel(Level.WARN);
+        event.setThreadName(Thread.currentThread().getName());
+        event.setTimeStamp(System.currentTimeMillis());
+        event.setMessage(count + " events dropped by the appender named [" + name + "], its queue was full");
+        event.setLoggerContextRemoteView(((LoggerContext) getContext()).getLoggerContextRemoteView());
+        return event;
+    }
+
+    private static ByteArrayOutputStream reset(ByteArrayOutputStream batch) {
+        batch.reset();
+        return batch;
+    }
+}
@@ -0,0 +1,37 @@
+package com.netent.news.config.logging.client;
+
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "http.client.logging")
+public class HttpClientLoggingProperties {
+
+    /** Log request and response bodies of outbound calls; when off, bodies are not copied at all. */
+    private boolean bodies = true;
+    /** Only this much of each body is copied and logged. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(2);
+
+    public boolean isBodies() {
+        return bodies;
+    }
+
+    public void setBodies(boolean bodies) {
+        this.bodies = bodies;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * @return the policy for {@link WebClientFactory}, {@code null} when bodies are not logged
+     */
+    public BodyLoggingPolicy toPolicy() {
+        return bodies ? new BodyLoggingPolicy(1.0, (int) maxBodySize.toBytes()) : null;
+    }
+}
@@ -1,25 +1,39 @@
 package com.netent.news.config.logging.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netent.news.config.json.CborValueEncoder;
+import com.netent.news.config.json.DirectJackson2JsonEncoder;
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import com.netent.news.config.tracing.Span;
+import com.netent.news.config.tracing.TraceContext;
+import com.netent.news.config.tracing.TraceHeaders;
+import com.netent.news.config.tracing.TraceMdc;
+import com.netent.news.config.tracing.Tracer;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
-import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.lang.Nullable;
 import org.springframework.util.MimeType;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -35,7 +49,8 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Creating a WebClient with this class will guarantee you the following properties: -
- * Instrumentation for OpenTracing with Zipkin - Timeouts configured with http.read.timeout.ms and http.connection.timeout.ms - and standardized
+ * Trace propagation: calls made while serving a traced request carry a child span in W3C and B3 headers, are recorded
+ * by the {@link Tracer}, and are logged with the span's ids - Timeouts configured with http.read.timeout.ms and http.connection.timeout.ms - and standardized
  * ObjectMapper
  *
  * https://github.com/spring-cloud/spring-cloud-sleuth/blob/master/spring-cloud-sleuth-core/src/main/java/org/springframework/cloud/sleuth/instrument/web/client/TraceWebClientBeanPostProcessor.java
@@ -44,47 +59,168 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class WebClientFactory {
 
     private static final Logger LOGGER = getLogger(WebClientFactory.class);
+    private static final MediaType JSON_FALLBACK = new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.5"));
 
     private final WebClient.Builder builder;
+    @Nullable
+    private final BodyLoggingPolicy bodyLogging;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final Tracer tracer;
 
     public WebClientFactory(final WebClient.Builder builder) {
+        this(builder, BodyLoggingPolicy.LOG_ALL);
+    }
+
+    public WebClientFactory(final WebClient.Builder builder, @Nullable final BodyLoggingPolicy bodyLogging) {
+        this(builder, bodyLogging, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    public WebClientFactory(final WebClient.Builder builder,
+                            @Nullable final BodyLoggingPolicy bodyLogging,
+                            final ObjectMapper objectMapper) {
+        this(builder, bodyLogging, objectMapper, Jackson2ObjectMapperBuilder.cbor().build());
+    }
+
+    /**
+     * @param bodyLogging  how much of request and response bodies to log, {@code null} to log no bodies at all, in
+     *                     which case the builder's codecs are used and bodies are never copied
+     * @param objectMapper used by the body logging codecs, normally the one the builder's codecs were configured with
+     * @param cborMapper   used by the CBOR codecs of clients created for {@code application/cbor}
+     */
+    public WebClientFactory(final WebClient.Builder builder,
+                            @Nullable final BodyLoggingPolicy bodyLogging,
+                            final ObjectMapper objectMapper,
+                            final ObjectMapper cborMapper) {
+        this(builder, bodyLogging, objectMapper, cborMapper, Tracer.PROPAGATE_ONLY);
+    }
+
+    /**
+     * @param tracer records the spans of calls made while serving a traced request
+     */
+    public WebClientFactory(final WebClient.Builder builder,
+                            @Nullable final BodyLoggingPolicy bodyLogging,
+                            final ObjectMapper objectMapper,
+                            final ObjectMapper cborMapper,
+                            final Tracer tracer) {
         this.builder = requireNonNull(builder);
+        this.bodyLogging = bodyLogging;
+        this.objectMapper = requireNonNull(objectMapper);
+        this.cborMapper = requireNonNull(cborMapper);
+        this.tracer = requireNonNull(tracer);
     }
 
     public WebClient fromBaseUrl(final String baseUrl) {
-        // See https://andrew-flower.com/blog/webclient-body-logging
-        var loggingEncoder = new LoggingEncoder(bytes -> LOGGER.info("Client request body", kv(REQUEST_BODY, new String(bytes))));
-        var loggingDecoder = new LoggingDecoder(bytes -> LOGGER.info("Client response body", kv(RESPONSE_BODY, new String(bytes))));
+        return fromBaseUrl(baseUrl, MediaType.APPLICATION_JSON);
+    }
 
-        return builder.clone()
+    /**
+     * @param mediaType format of the request and response bodies, {@code application/json} or
+     *                  {@code application/cbor}; CBOR clients still accept JSON from servers that do not support it
+     */
+    public WebClient fromBaseUrl(final String baseUrl, final MediaType mediaType) {
+        var cbor = MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType);
+        if (!cbor && !MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+            throw new IllegalArgumentException("Unsupported media type " + mediaType);
+        }
+        // the first filter wraps the others, which log with the ids of the call's span
+        var webClient = builder.clone()
+                .filter(trace())
                 .filter(logRequest())
-                .filter(logResponseStatus())
-                .codecs(codecConfigurer -> {
-                    codecConfigurer.defaultCodecs().jackson2JsonEncoder(loggingEncoder);
-                    codecConfigurer.defaultCodecs().jackson2JsonDecoder(loggingDecoder);
-                })
+                .filter(logResponseStatus());
+        // the level is checked on each exchange rather than here, so that changing it at runtime takes effect on
+        // clients already built
+        var logBodies = bodyLogging != null;
+
+        if (logBodies) {
+            // See https://andrew-flower.com/blog/webclient-body-logging
+            var loggingEncoder = new LoggingEncoder(objectMapper, bodyLogging, LOGGER::isInfoEnabled, body -> LOGGER.info("Client request body", kv(REQUEST_BODY, body)));
+            var loggingDecoder = new LoggingDecoder(objectMapper, bodyLogging, LOGGER::isInfoEnabled, body -> LOGGER.info("Client response body", kv(RESPONSE_BODY, body)));
+            webClient.codecs(codecConfigurer -> {
+                codecConfigurer.defaultCodecs().jackson2JsonEncoder(loggingEncoder);
+                codecConfigurer.defaultCodecs().jackson2JsonDecoder(loggingDecoder);
+            });
+        }
+        if (cbor) {
+            // custom codecs take precedence over the default JSON ones, so request bodies are sent as CBOR too;
+            // the media type must be given, with just a mapper the CBOR decoder claims the JSON ones
+            var cborEncoder = logBodies
+                    ? new LoggingCborEncoder(cborMapper, bodyLogging, LOGGER::isInfoEnabled, body -> LOGGER.info("Client request body", kv(REQUEST_BODY, body)))
+                    : new CborValueEncoder(cborMapper);
+            var cborDecoder = logBodies
+                    ? new LoggingCborDecoder(cborMapper, bodyLogging, LOGGER::isInfoEnabled, body -> LOGGER.info("Client response body", kv(RESPONSE_BODY, body)))
+                    : new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR);
+            webClient.codecs(codecConfigurer -> {
+                codecConfigurer.customCodecs().register(cborEncoder);
+                codecConfigurer.customCodecs().register(cborDecoder);
+            });
+            webClient.defaultHeaders(headers -> headers.setAccept(List.of(MediaType.APPLICATION_CBOR, JSON_FALLBACK)));
+        }
+
+        return webClient
                 .baseUrl(baseUrl)
                 .build();
     }
 
+    /**
+     * Continues the trace of the request being served, found in the subscriber context or bound to the subscribing
+     * thread, with a span for the call. Calls outside of a traced request are left alone.
+     */
+    private ExchangeFilterFunction trace() {
+        return (clientRequest, next) -> Mono.deferContextual(context -> {
+            var parent = context.getOrDefault(TraceContext.class, TraceContext.current());
+            if (parent == null) {
+                return next.exchange(clientRequest);
+            }
+            var trace = parent.child();
+            var span = tracer.start(clientRequest.method().name(), Span.Kind.CLIENT, trace)
+                    .tag("http.method", clientRequest.method().name())
+                    .tag("http.path", clientRequest.url().getPath());
+            var traced = ClientRequest.from(clientRequest)
+                    .headers(headers -> TraceHeaders.inject(trace, headers::set))
+                    .build();
+            return next.exchange(traced)
+                    .doOnNext(clientResponse -> span.tag("http.status_code", String.valueOf(clientResponse.rawStatusCode())))
+                    .doOnError(span::error)
+                    .doFinally(signal -> {
+                        // hedged calls that lost the race, and calls past their deadline
+                        if (signal == SignalType.CANCEL) {
+                            span.tag("cancelled", "true");
+                        }
+                        span.finish();
+                    })
+                    .contextWrite(c -> c.put(TraceContext.class, trace));
+        });
+    }
+
     private ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            LOGGER.info("Client request",
-                    kv(REQUEST_METHOD, clientRequest.method()),
-                    kv(HEADERS, getHeaders(clientRequest.headers())),
-                    kv(REQUEST_URI, clientRequest.url())
-            );
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> Mono.deferContextual(context -> {
+            if (!LOGGER.isInfoEnabled()) {
+                return Mono.just(clientRequest);
+            }
+            try (var ignored = TraceMdc.put(context.getOrDefault(TraceContext.class, null))) {
+                LOGGER.info("Client request",
+                        kv(REQUEST_METHOD, clientRequest.method()),
+                        kv(HEADERS, getHeaders(clientRequest.headers())),
+                        kv(REQUEST_URI, clientRequest.url())
+                );
+            }
             return Mono.just(clientRequest);
-        });
+        }));
     }
 
     private ExchangeFilterFunction logResponseStatus() {
-        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-             LOGGER.info("Client response",
-                    kv(RESPONSE_STATUS, clientResponse.rawStatusCode()),
-                    kv(HEADERS, clientResponse.headers().asHttpHeaders().toString()));
+        return ExchangeFilterFunction.ofResponseProcessor(clientResponse -> Mono.deferContextual(context -> {
+            if (!LOGGER.isInfoEnabled()) {
+                return Mono.just(clientResponse);
+            }
+            try (var ignored = TraceMdc.put(context.getOrDefault(TraceContext.class, null))) {
+                LOGGER.info("Client response",
+                        kv(RESPONSE_STATUS, clientResponse.rawStatusCode()),
+                        kv(HEADERS, clientResponse.headers().asHttpHeaders().toString()));
+            }
             return Mono.just(clientResponse);
-        });
+        }));
     }
 
     protected static String getHeaders(final HttpHeaders headers) {
@@ -107,10 +243,18 @@ public class WebClientFactory {
         return key + ": '" + value + "'";
     }
 
-    static class LoggingEncoder extends Jackson2JsonEncoder {
-        private final Consumer<byte[]> consumer;
+    static class LoggingEncoder extends DirectJackson2JsonEncoder {
+        private final BodyLoggingPolicy policy;
+        private final BooleanSupplier enabled;
+        private final Consumer<String> consumer;
 
-        public LoggingEncoder(final Consumer<byte[]> consumer) {
+        public LoggingEncoder(final ObjectMapper objectMapper,
+                              final BodyLoggingPolicy policy,
+                              final BooleanSupplier enabled,
+                              final Consumer<String> consumer) {
+            super(objectMapper);
+            this.policy = policy;
+            this.enabled = enabled;
             this.consumer = consumer;
         }
 
@@ -123,19 +267,71 @@ public class WebClientFactory {
 
             // Encode/Serialize data to JSON
             final DataBuffer data = super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+            if (!enabled.getAsBoolean()) {
+                return data;
+            }
+            logEncoded(data, mimeType, policy, consumer);
+            return data;
+        }
 
-            // Interception: Generate Signature and inject header into request
-            consumer.accept(extractBytesAndReset(data));
+    }
 
+    static class LoggingCborEncoder extends CborValueEncoder {
+        private final BodyLoggingPolicy policy;
+        private final BooleanSupplier enabled;
+        private final Consumer<String> consumer;
+
+        public LoggingCborEncoder(final ObjectMapper cborMapper,
+                                  final BodyLoggingPolicy policy,
+                                  final BooleanSupplier enabled,
+                                  final Consumer<String> consumer) {
+            super(cborMapper);
+            this.policy = policy;
+            this.enabled = enabled;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public DataBuffer encodeValue(final Object value,
+                                      final DataBufferFactory bufferFactory,
+                                      final ResolvableType valueType,
+                                      @Nullable final MimeType mimeType,
+                                      @Nullable final Map<String, Object> hints) {
+            final DataBuffer data = super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+            if (!enabled.getAsBoolean()) {
+                return data;
+            }
+            logEncoded(data, mimeType != null ? mimeType : MediaType.APPLICATION_CBOR, policy, consumer);
             return data;
         }
+    }
 
+    /**
+     * Decodes the logged prefix straight from the encoded buffer, leaving its read position alone.
+     */
+    private static void logEncoded(final DataBuffer data,
+                                   @Nullable final MimeType mimeType,
+                                   final BodyLoggingPolicy policy,
+                                   final Consumer<String> consumer) {
+        final int readable = data.readableByteCount();
+        final int logged = Math.min(readable, policy.maxBodySize());
+        final byte[] prefix = new byte[logged];
+        data.asByteBuffer(data.readPosition(), logged).get(prefix);
+        consumer.accept(policy.decode(prefix, logged, readable, mimeType, StandardCharsets.UTF_8));
     }
 
     static class LoggingDecoder extends Jackson2JsonDecoder {
-        private final Consumer<byte[]> consumer;
+        private final BodyLoggingPolicy policy;
+        private final BooleanSupplier enabled;
+        private final Consumer<String> consumer;
 
-        public LoggingDecoder(final Consumer<byte[]> consumer) {
+        public LoggingDecoder(final ObjectMapper objectMapper,
+                              final BodyLoggingPolicy policy,
+                              final BooleanSupplier enabled,
+                              final Consumer<String> consumer) {
+            super(objectMapper);
+            this.policy = policy;
+            this.enabled = enabled;
             this.consumer = consumer;
         }
 
@@ -144,31 +340,84 @@ public class WebClientFactory {
                                          final ResolvableType elementType,
                                          @Nullable final MimeType mimeType,
                                          @Nullable final Map<String, Object> hints) {
-            // Buffer for bytes from each published DataBuffer
-            final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            if (!enabled.getAsBoolean()) {
+                return super.decodeToMono(input, elementType, mimeType, hints);
+            }
+            // Return the original method, giving our augmented Publisher
+            return super.decodeToMono(logDecoded(input, mimeType, policy, consumer), elementType, mimeType, hints);
+        }
+    }
 
-            // Augment the Flux, and intercept each group of bytes buffered
-            final Flux<DataBuffer> interceptor = Flux.from(input)
-                    .doOnNext(buffer -> bufferBytes(payload, buffer))
-                    .doOnComplete(() -> consumer.accept(payload.toByteArray()));
+    static class LoggingCborDecoder extends Jackson2CborDecoder {
+        private final BodyLoggingPolicy policy;
+        private final BooleanSupplier enabled;
+        private final Consumer<String> consumer;
 
-            // Return the original method, giving our augmented Publisher
-            return super.decodeToMono(interceptor, elementType, mimeType, hints);
+        public LoggingCborDecoder(final ObjectMapper cborMapper,
+                                  final BodyLoggingPolicy policy,
+                                  final BooleanSupplier enabled,
+                                  final Consumer<String> consumer) {
+            super(cborMapper, MediaType.APPLICATION_CBOR);
+            this.policy = policy;
+            this.enabled = enabled;
+            this.consumer = consumer;
         }
 
-        private void bufferBytes(final ByteArrayOutputStream bao, final DataBuffer buffer) {
-            try {
-                bao.write(extractBytesAndReset(buffer));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        @Override
+        public Mono<Object> decodeToMono(final Publisher<DataBuffer> input,
+                                         final ResolvableType elementType,
+                                         @Nullable final MimeType mimeType,
+                                         @Nullable final Map<String, Object> hints) {
+            if (!enabled.getAsBoolean()) {
+                return super.decodeToMono(input, elementType, mimeType, hints);
             }
+            return super.decodeToMono(logDecoded(input, mimeType, policy, consumer), elementType, mimeType, hints);
         }
     }
 
-    private static byte[] extractBytesAndReset(final DataBuffer data) {
-        final byte[] bytes = new byte[data.readableByteCount()];
-        data.read(bytes);
-        data.readPosition(0);
-        return bytes;
+    /**
+     * Augments the Flux to intercept each buffer on its way to the decoder: a bounded copy of the first bytes of the
+     * published DataBuffers is logged on completion, the rest is only counted.
+     */
+    private static Flux<DataBuffer> logDecoded(final Publisher<DataBuffer> input,
+                                               @Nullable final MimeType mimeType,
+                                               final BodyLoggingPolicy policy,
+                                               final Consumer<String> consumer) {
+        final BodyPrefix prefix = new BodyPrefix(policy.maxBodySize());
+        return Flux.from(input)
+                .doOnNext(prefix::append)
+                .doOnComplete(() -> consumer.accept(prefix.decode(policy, mimeType)));
+    }
+
+    /**
+     * Collects at most {@code limit} bytes of a body streamed in several buffers, copying each byte at most once and
+     * growing with the body rather than allocating the limit up front.
+     */
+    static final class BodyPrefix {
+        private final int limit;
+        private byte[] bytes = new byte[0];
+        private int length;
+        private long totalLength;
+
+        BodyPrefix(final int limit) {
+            this.limit = limit;
+        }
+
+        void append(final DataBuffer buffer) {
+            final int readable = buffer.readableByteCount();
+            final int copied = Math.min(readable, limit - length);
+            if (copied > 0) {
+                if (bytes.length < length + copied) {
+                    bytes = Arrays.copyOf(bytes, Math.min(limit, Math.max(length + copied, bytes.length * 2)));
+                }
+                buffer.asByteBuffer(buffer.readPosition(), copied).get(bytes, length, copied);
+                length += copied;
+            }
+            totalLength += readable;
+        }
+
+        String decode(final BodyLoggingPolicy policy, @Nullable final MimeType mimeType) {
+            return policy.decode(bytes, length, totalLength, mimeType, StandardCharsets.UTF_8);
+        }
     }
 }
@@ -2,28 +2,35 @@ package com.netent.news.config.logging.server;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
-import javax.servlet.ServletContext;
-
-@Configuration
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(HttpServerLoggingProperties.class)
 public class FilterConfig {
     public static final String GAMEPROVIDERAPI = "/gameproviderapi";
 
     private static final Logger LOG = LoggerFactory.getLogger(FilterConfig.class);
 
-    @Autowired
-    public void logServer(ServletContext servletContext) {
-        LOG.info("HTTP server: " + servletContext.getServerInfo());
+    /**
+     * Once the server is up, rather than by injecting the {@code ServletContext} into this configuration, which would
+     * initialize it early and keep it from being lazy.
+     */
+    @EventListener
+    public void logServer(ServletWebServerInitializedEvent event) {
+        LOG.info("HTTP server: " + event.getApplicationContext().getServletContext().getServerInfo());
     }
 
     @Bean
-    public FilterRegistrationBean<LoggingFilter> loggingFilterRegistration() {
+    public FilterRegistrationBean<LoggingFilter> loggingFilterRegistration(HttpServerLoggingProperties properties) {
         var registration = new FilterRegistrationBean<LoggingFilter>();
-        registration.setFilter(new LoggingFilter());
+        registration.setFilter(new LoggingFilter(properties.toPolicy()));
         registration.addUrlPatterns(GAMEPROVIDERAPI + "/*");
         return registration;
     }
@@ -0,0 +1,34 @@
+package com.netent.news.config.logging.server;
+
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "http.server.logging")
+public class HttpServerLoggingProperties {
+
+    /** Share of requests logged, between 0 and 1. */
+    private double sampleRate = 1.0;
+    /** Longer request and response bodies are logged truncated. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(8);
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public BodyLoggingPolicy toPolicy() {
+        return new BodyLoggingPolicy(sampleRate, (int) maxBodySize.toBytes());
+    }
+}
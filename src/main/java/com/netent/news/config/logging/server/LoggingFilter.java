@@ -1,7 +1,12 @@
 package com.netent.news.config.logging.server;
 
+import com.netent.news.config.logging.BodyLoggingPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -11,7 +16,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 
 import static com.netent.news.config.logging.LoggingConstants.REQUEST_BODY;
 import static com.netent.news.config.logging.LoggingConstants.REQUEST_METHOD;
@@ -21,14 +26,28 @@ import static com.netent.news.config.logging.LoggingConstants.RESPONSE_BODY;
 import static com.netent.news.config.logging.LoggingConstants.RESPONSE_STATUS;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
+/**
+ * Logs incoming requests and outgoing responses with their bodies. Requests that are not sampled by the
+ * {@link BodyLoggingPolicy}, or any request while INFO is disabled for this logger, pass through unwrapped.
+ */
 @SuppressWarnings("PlaceholderCountMatchesArgumentCount")
 public final class LoggingFilter extends OncePerRequestFilter {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoggingFilter.class);
 
+    private final BodyLoggingPolicy policy;
+
+    public LoggingFilter(BodyLoggingPolicy policy) {
+        this.policy = policy;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        var requestWrapper = new ContentCachingRequestWrapper(request);
+        if (!LOG.isInfoEnabled() || !policy.sample()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        var requestWrapper = cachingRequest(request);
         var responseWrapper = new ContentCachingResponseWrapper(response);
         filterChain.doFilter(requestWrapper, responseWrapper);
         logRequest(requestWrapper);
@@ -36,8 +55,20 @@ public final class LoggingFilter extends OncePerRequestFilter {
         responseWrapper.copyBodyToResponse();
     }
 
-    private void logRequest(ContentCachingRequestWrapper wrapper) throws UnsupportedEncodingException {
-        var body = new String(wrapper.getContentAsByteArray(), wrapper.getCharacterEncoding());
+    private ContentCachingRequestWrapper cachingRequest(HttpServletRequest request) {
+        // the limited wrapper allocates its whole limit up front, the unlimited one only the content length
+        var contentLength = request.getContentLength();
+        if (policy.maxBodySize() == Integer.MAX_VALUE || contentLength >= 0 && contentLength <= policy.maxBodySize()) {
+            return new ContentCachingRequestWrapper(request);
+        }
+        return new ContentCachingRequestWrapper(request, policy.maxBodySize());
+    }
+
+    private void logRequest(ContentCachingRequestWrapper wrapper) {
+        // the wrapper stops caching at maxBodySize, the content length tells whether there was more
+        var content = wrapper.getContentAsByteArray();
+        var body = policy.decode(content, content.length, Math.max(content.length, wrapper.getContentLengthLong()),
+                contentType(wrapper.getContentType()), Charset.forName(wrapper.getCharacterEncoding()));
         LOG.info("Incoming request",
                 kv(REQUEST_METHOD, wrapper.getMethod()),
                 kv(REQUEST_URI, wrapper.getRequestURI()),
@@ -46,11 +77,23 @@ public final class LoggingFilter extends OncePerRequestFilter {
         );
     }
 
-    private void logResponse(ContentCachingResponseWrapper wrapper) throws UnsupportedEncodingException {
-        var body = new String(wrapper.getContentAsByteArray(), wrapper.getCharacterEncoding());
+    private void logResponse(ContentCachingResponseWrapper wrapper) throws IOException {
+        // read only the logged prefix, getContentAsByteArray() would copy the whole response
+        var content = wrapper.getContentInputStream().readNBytes(policy.maxBodySize());
+        var body = policy.decode(content, content.length, wrapper.getContentSize(),
+                contentType(wrapper.getContentType()), Charset.forName(wrapper.getCharacterEncoding()));
         LOG.info("Outgoing response",
                 kv(RESPONSE_STATUS, wrapper.getStatus()),
                 kv(RESPONSE_BODY, body)
         );
     }
+
+    @Nullable
+    private static MimeType contentType(@Nullable String contentType) {
+        try {
+            return contentType != null ? MimeTypeUtils.parseMimeType(contentType) : null;
+        } catch (InvalidMimeTypeException e) {
+            return null;
+        }
+    }
 }
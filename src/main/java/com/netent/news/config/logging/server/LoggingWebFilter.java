@@ -0,0 +1,157 @@
+package com.netent.news.config.logging.server;
+
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import com.netent.news.config.tracing.TraceContext;
+import com.netent.news.config.tracing.TraceMdc;
+import com.netent.news.config.tracing.TracingWebFilter;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static com.netent.news.config.logging.LoggingConstants.REQUEST_BODY;
+import static com.netent.news.config.logging.LoggingConstants.REQUEST_METHOD;
+import static com.netent.news.config.logging.LoggingConstants.REQUEST_QUERY;
+import static com.netent.news.config.logging.LoggingConstants.REQUEST_URI;
+import static com.netent.news.config.logging.LoggingConstants.RESPONSE_BODY;
+import static com.netent.news.config.logging.LoggingConstants.RESPONSE_STATUS;
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Reactive counterpart of {@link LoggingFilter}: logs the same events and fields for requests to
+ * {@code path} and below, capturing the bodies as they stream through instead of wrapping servlet streams.
+ * Sampling and truncation follow the same {@link BodyLoggingPolicy}. Both events carry the ids of the request's trace
+ * left by {@link TracingWebFilter}, as the servlet filter's do from the MDC of the serving thread.
+ */
+@SuppressWarnings("PlaceholderCountMatchesArgumentCount")
+public final class LoggingWebFilter implements WebFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingWebFilter.class);
+
+    private final String path;
+    private final String pathPrefix;
+    private final BodyLoggingPolicy policy;
+
+    public LoggingWebFilter(String path, BodyLoggingPolicy policy) {
+        this.path = path;
+        this.pathPrefix = path + "/";
+        this.policy = policy;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var requestPath = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!requestPath.equals(path) && !requestPath.startsWith(pathPrefix) || !LOG.isInfoEnabled() || !policy.sample()) {
+            return chain.filter(exchange);
+        }
+        var request = new BodyCapturingRequest(exchange.getRequest(), policy);
+        var response = new BodyCapturingResponse(exchange.getResponse(), policy);
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signal -> {
+                    try (var ignored = TraceMdc.put(exchange.<TraceContext>getAttribute(TracingWebFilter.TRACE_CONTEXT))) {
+                        logRequest(request);
+                        logResponse(response);
+                    }
+                });
+    }
+
+    private void logRequest(BodyCapturingRequest request) {
+        LOG.info("Incoming request",
+                kv(REQUEST_METHOD, request.getMethodValue()),
+                kv(REQUEST_URI, request.getPath().value()),
+                kv(REQUEST_QUERY, request.getURI().getRawQuery()),
+                kv(REQUEST_BODY, request.body())
+        );
+    }
+
+    private void logResponse(BodyCapturingResponse response) {
+        LOG.info("Outgoing response",
+                kv(RESPONSE_STATUS, Optional.ofNullable(response.getRawStatusCode()).orElse(200)),
+                kv(RESPONSE_BODY, response.body())
+        );
+    }
+
+    /**
+     * Copies the first {@code maxBodySize} bytes of a streamed body and counts the rest.
+     */
+    private static final class BodyCapture {
+        private final BodyLoggingPolicy policy;
+        private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        private long totalLength;
+
+        BodyCapture(BodyLoggingPolicy policy) {
+            this.policy = policy;
+        }
+
+        void capture(DataBuffer buffer) {
+            var readable = buffer.readableByteCount();
+            var remaining = policy.maxBodySize() - captured.size();
+            if (remaining > 0) {
+                var bytes = new byte[Math.min(readable, remaining)];
+                buffer.asByteBuffer().get(bytes);
+                captured.writeBytes(bytes);
+            }
+            totalLength += readable;
+        }
+
+        String decode(HttpHeaders headers) {
+            return policy.decode(captured.toByteArray(), captured.size(), totalLength, headers.getContentType(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class BodyCapturingRequest extends ServerHttpRequestDecorator {
+        private final BodyCapture body;
+
+        BodyCapturingRequest(ServerHttpRequest delegate, BodyLoggingPolicy policy) {
+            super(delegate);
+            this.body = new BodyCapture(policy);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(body::capture);
+        }
+
+        String body() {
+            return body.decode(getHeaders());
+        }
+    }
+
+    private static final class BodyCapturingResponse extends ServerHttpResponseDecorator {
+        private final BodyCapture body;
+
+        BodyCapturingResponse(ServerHttpResponse delegate, BodyLoggingPolicy policy) {
+            super(delegate);
+            this.body = new BodyCapture(policy);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this.body::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(part -> Flux.from(part).doOnNext(this.body::capture)));
+        }
+
+        String body() {
+            return body.decode(getHeaders());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.netent.news.config.logging.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerInitializedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import static com.netent.news.config.logging.server.FilterConfig.GAMEPROVIDERAPI;
+
+/**
+ * Reactive counterpart of {@link FilterConfig}, active when running with {@code spring.main.web-application-type=reactive}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(HttpServerLoggingProperties.class)
+public class WebFilterConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebFilterConfig.class);
+
+    @EventListener
+    public void logServer(ReactiveWebServerInitializedEvent event) {
+        LOG.info("HTTP server: " + event.getWebServer().getClass().getSimpleName());
+    }
+
+    @Bean
+    public LoggingWebFilter loggingWebFilter(HttpServerLoggingProperties properties) {
+        return new LoggingWebFilter(GAMEPROVIDERAPI, properties.toPolicy());
+    }
+}
@@ -0,0 +1,211 @@
+package com.netent.news.config.metrics;
+
+import com.netent.news.application.port.out.RequestScope;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Times every call into a port, i.e. every method of an interface in {@code com.netent.news.application.port},
+ * on every bean implementing one, but for the {@link RequestScope}, which only hands on state. Each layer of the operator decorator chain is a bean of its own, so
+ * {@code wallet.port.calls} shows where the time goes between the service, the cache, the batcher and the
+ * operator.
+ * <ul>
+ *     <li>{@code wallet.port.calls} timer, tagged {@code class}, {@code method}, {@code operator} and
+ *     {@code outcome} (success, error, cancelled)</li>
+ *     <li>{@code wallet.port.in.flight} gauge, tagged {@code class}, {@code method} and {@code operator}</li>
+ *     <li>{@code wallet.port.errors} counter, tagged {@code class}, {@code method}, {@code operator} and
+ *     {@code exception}</li>
+ * </ul>
+ * A {@link Mono} or {@link Flux} is timed from subscription to termination. Calls taking a {@link WalletId} or a
+ * {@link WalletTransaction} are tagged with the operator serving its wallet, other calls with {@value #NO_OPERATOR}.
+ * <p>
+ * The timers of the edges, the services implementing an inbound port and the adapter calling the operators, publish
+ * fixed histogram buckets, aggregated into percentiles by Prometheus, rather than percentiles computed in process:
+ * recording is then a bucket increment. The decorators in between only export count, sum and max, each bucket being a
+ * series of its own. Meters are looked up once per class, method and operator and kept; a timer is registered with
+ * the first call ending with its outcome, so outcomes that never happen export no series.
+ */
+@Aspect
+public class PortMetricsAspect {
+    static final String CALLS = "wallet.port.calls";
+    static final String IN_FLIGHT = "wallet.port.in.flight";
+    static final String ERRORS = "wallet.port.errors";
+    static final String NO_OPERATOR = "none";
+
+    private static final String INBOUND_PORTS = "com.netent.news.application.port.in";
+
+    private static final Duration MINIMUM_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAXIMUM_EXPECTED = Duration.ofSeconds(10);
+
+    private final MeterRegistry registry;
+    private final Function<WalletId, String> operatorOf;
+    private final Predicate<Class<?>> outboundEdge;
+    private final Map<Key, PortMeters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param operatorOf   the operator serving a wallet, bounded to the configured operators
+     * @param outboundEdge whether an outbound port implementation is the one calling out of the service, rather than
+     *                     a decorator of it
+     */
+    public PortMetricsAspect(MeterRegistry registry,
+                             Function<WalletId, String> operatorOf,
+                             Predicate<Class<?>> outboundEdge) {
+        this.registry = registry;
+        this.operatorOf = operatorOf;
+        this.outboundEdge = outboundEdge;
+    }
+
+    @Around("execution(* com.netent.news.application.port..*.*(..))"
+            + " && !execution(* com.netent.news.application.port.out.RequestScope+.*(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        var meters = metersOf(call);
+        var returnType = ((MethodSignature) call.getSignature()).getReturnType();
+        if (Mono.class.isAssignableFrom(returnType)) {
+            var result = (Mono<?>) call.proceed();
+            return result == null ? null : Mono.defer(() -> meters.time(result));
+        }
+        if (Flux.class.isAssignableFrom(returnType)) {
+            var result = (Flux<?>) call.proceed();
+            return result == null ? null : Flux.defer(() -> meters.time(result));
+        }
+        var start = meters.start();
+        try {
+            var result = call.proceed();
+            meters.success(start);
+            return result;
+        } catch (Throwable e) {
+            meters.error(start, e);
+            throw e;
+        }
+    }
+
+    private PortMeters metersOf(ProceedingJoinPoint call) {
+        var args = call.getArgs();
+        var operator = args.length == 0 ? NO_OPERATOR
+                : args[0] instanceof WalletId wallet ? operatorOf.apply(wallet)
+                : args[0] instanceof WalletTransaction transaction ? operatorOf.apply(transaction.wallet())
+                : NO_OPERATOR;
+        var key = new Key(call.getTarget().getClass(), ((MethodSignature) call.getSignature()).getMethod(), operator);
+        var existing = meters.get(key);
+        return existing != null ? existing : meters.computeIfAbsent(key, PortMeters::new);
+    }
+
+    private record Key(Class<?> type, Method method, String operator) {
+    }
+
+    private boolean isEdge(Class<?> type) {
+        return outboundEdge.test(type) || ClassUtils.getAllInterfacesForClassAsSet(type).stream()
+                .anyMatch(port -> port.getPackageName().startsWith(INBOUND_PORTS));
+    }
+
+    private final class PortMeters {
+        private final Tags tags;
+        private final boolean histogram;
+        private final OutcomeTimer success = new OutcomeTimer("success");
+        private final OutcomeTimer error = new OutcomeTimer("error");
+        private final OutcomeTimer cancelled = new OutcomeTimer("cancelled");
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        PortMeters(Key key) {
+            tags = Tags.of("class", key.type().getSimpleName(), "method", key.method().getName(),
+                    "operator", key.operator());
+            histogram = isEdge(key.type());
+            Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get).tags(tags).register(registry);
+        }
+
+        /**
+         * Stopped once, on termination: a caller taking the first of several answers, as hedging does, cancels a
+         * mono after its value, which still counts as a success.
+         */
+        <T> Mono<T> time(Mono<T> call) {
+            var start = start();
+            var answered = new AtomicBoolean();
+            return call
+                    .doOnNext(value -> answered.set(true))
+                    .doOnError(this::countError)
+                    .doFinally(signal -> stop(signal == SignalType.ON_ERROR ? error
+                            : signal == SignalType.ON_COMPLETE || answered.get() ? success
+                            : cancelled, start));
+        }
+
+        <T> Flux<T> time(Flux<T> call) {
+            var start = start();
+            return call
+                    .doOnError(this::countError)
+                    .doFinally(signal -> stop(signal == SignalType.ON_ERROR ? error
+                            : signal == SignalType.ON_COMPLETE ? success
+                            : cancelled, start));
+        }
+
+        long start() {
+            inFlight.incrementAndGet();
+            return registry.config().clock().monotonicTime();
+        }
+
+        void success(long start) {
+            stop(success, start);
+        }
+
+        void error(long start, Throwable e) {
+            stop(error, start);
+            countError(e);
+        }
+
+        private void countError(Throwable e) {
+            registry.counter(ERRORS, tags.and("exception", e.getClass().getSimpleName())).increment();
+        }
+
+        private void stop(OutcomeTimer timer, long start) {
+            inFlight.decrementAndGet();
+            timer.get().record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private final class OutcomeTimer {
+            private final String outcome;
+            private volatile Timer timer;
+
+            OutcomeTimer(String outcome) {
+                this.outcome = outcome;
+            }
+
+            /**
+             * Registers the timer on first use; a race registers it twice, which the registry resolves to one meter.
+             */
+            Timer get() {
+                var registered = timer;
+                if (registered == null) {
+                    var builder = Timer.builder(CALLS).tags(tags).tag("outcome", outcome);
+                    if (histogram) {
+                        builder.publishPercentileHistogram()
+                                .minimumExpectedValue(MINIMUM_EXPECTED)
+                                .maximumExpectedValue(MAXIMUM_EXPECTED);
+                    }
+                    timer = registered = builder.register(registry);
+                }
+                return registered;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.netent.news.config.metrics;
+
+import com.netent.news.adapter.out.WebClientOperatorWalletFacade;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "management.metrics.ports.enabled", havingValue = "true", matchIfMissing = true)
+public class PortMetricsConfig {
+
+    /**
+     * The operator facade is looked up on first use: the aspect is created before the beans it advises. It is also the
+     * outbound edge, whose calls are timed with histograms like those of the services.
+     */
+    @Bean
+    public PortMetricsAspect portMetricsAspect(MeterRegistry meterRegistry,
+                                               ObjectProvider<WebClientOperatorWalletFacade> webClientOperatorWalletFacade) {
+        var facade = SingletonSupplier.of(webClientOperatorWalletFacade::getIfAvailable);
+        return new PortMetricsAspect(meterRegistry, wallet -> {
+            var operators = facade.get();
+            return operators == null ? PortMetricsAspect.NO_OPERATOR : operators.operatorOf(wallet);
+        }, WebClientOperatorWalletFacade.class::isAssignableFrom);
+    }
+}
@@ -0,0 +1,259 @@
+package com.netent.news.config.operator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netent.news.adapter.out.AdaptiveConcurrencyLimit;
+import com.netent.news.adapter.out.BalanceChangeFeed;
+import com.netent.news.adapter.out.BatchingOperatorWalletFacade;
+import com.netent.news.adapter.out.CachingOperatorWalletFacade;
+import com.netent.news.adapter.out.CircuitBreaker;
+import com.netent.news.adapter.out.HedgingOperatorWalletFacade;
+import com.netent.news.adapter.out.LatencyPercentile;
+import com.netent.news.adapter.out.OperatorHedging;
+import com.netent.news.adapter.out.OperatorGuard;
+import com.netent.news.adapter.out.ResilientOperatorWalletFacade;
+import com.netent.news.adapter.out.RetryBudget;
+import com.netent.news.adapter.out.WebClientOperatorWalletFacade;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.SharedBalanceCache;
+import com.netent.news.config.json.CborConfig;
+import com.netent.news.config.logging.client.HttpClientLoggingProperties;
+import com.netent.news.config.logging.client.WebClientFactory;
+import com.netent.news.config.tracing.Tracer;
+import com.netent.news.domain.WalletId;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({OperatorWalletProperties.class, HttpClientLoggingProperties.class})
+public class OperatorWalletConfig {
+    private static final Duration LATENCY_PERCENTILE_REFRESH = Duration.ofMillis(100);
+
+    private final List<ConnectionProvider> connectionProviders = new ArrayList<>();
+
+    @Bean
+    public WebClientOperatorWalletFacade webClientOperatorWalletFacade(WebClient.Builder builder,
+                                                                       ObjectMapper objectMapper,
+                                                                       Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                                                       OperatorWalletProperties properties,
+                                                                       HttpClientLoggingProperties loggingProperties,
+                                                                       Tracer tracer) {
+        var cborMapper = CborConfig.cborMapper(objectMapperBuilder);
+        var operators = new LinkedHashMap<String, WebClient>();
+        properties.getOperators().forEach((name, operator) -> {
+            var connector = new ReactorClientHttpConnector(httpClient(name, operator));
+            var factory = new WebClientFactory(builder.clone().clientConnector(connector), loggingProperties.toPolicy(),
+                    objectMapper, cborMapper, tracer);
+            operators.put(name, factory.fromBaseUrl(operator.getBaseUrl(), operator.getMediaType()));
+        });
+        return new WebClientOperatorWalletFacade(operators, properties.getDefaultOperator());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "operator.wallet.batch.enabled", havingValue = "true")
+    public BatchingOperatorWalletFacade batchingOperatorWalletFacade(WebClientOperatorWalletFacade webClientOperatorWalletFacade,
+                                                                     OperatorWalletProperties properties) {
+        var batch = properties.getBatch();
+        return new BatchingOperatorWalletFacade(webClientOperatorWalletFacade, batch.getMaxSize(), batch.getWindow(),
+                batch.getMaxConcurrency());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "operator.wallet.resilience.enabled", havingValue = "true", matchIfMissing = true)
+    public ResilientOperatorWalletFacade resilientOperatorWalletFacade(WebClientOperatorWalletFacade webClientOperatorWalletFacade,
+                                                                       ObjectProvider<BatchingOperatorWalletFacade> batchingOperatorWalletFacade,
+                                                                       OperatorWalletProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        var resilience = properties.getResilience();
+        var guards = new LinkedHashMap<String, OperatorGuard>();
+        properties.getOperators().keySet().forEach(name -> {
+            var guard = guard(resilience);
+            guards.put(name, guard);
+            var tags = Tags.of("operator", name);
+            Gauge.builder("operator.circuit.state", guard, g -> g.state().ordinal())
+                    .description("0 closed, 1 open, 2 half-open").tags(tags).register(meterRegistry);
+            Gauge.builder("operator.concurrency.limit", guard, OperatorGuard::limit).tags(tags).register(meterRegistry);
+            Gauge.builder("operator.concurrency.in.flight", guard, OperatorGuard::inFlight).tags(tags).register(meterRegistry);
+            FunctionCounter.builder("operator.rejected", guard, OperatorGuard::rejected).tags(tags).register(meterRegistry);
+        });
+
+        Cache<WalletId, OperatorGetBalance> stale = null;
+        if (resilience.getStale().isEnabled()) {
+            stale = Caffeine.newBuilder()
+                    .expireAfterWrite(resilience.getStale().getTtl())
+                    .maximumSize(properties.getCache().getMaximumSize())
+                    .build();
+        }
+        var upstream = batchingOrWebClient(webClientOperatorWalletFacade, batchingOperatorWalletFacade);
+        return new ResilientOperatorWalletFacade(upstream, webClientOperatorWalletFacade::operatorOf, guards, stale);
+    }
+
+    @Bean
+    public HedgingOperatorWalletFacade hedgingOperatorWalletFacade(WebClientOperatorWalletFacade webClientOperatorWalletFacade,
+                                                                   ObjectProvider<BatchingOperatorWalletFacade> batchingOperatorWalletFacade,
+                                                                   ObjectProvider<ResilientOperatorWalletFacade> resilientOperatorWalletFacade,
+                                                                   OperatorWalletProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        var hedge = properties.getHedge();
+        var retry = properties.getRetry();
+        var operators = new LinkedHashMap<String, OperatorHedging>();
+        properties.getOperators().keySet().forEach(name -> {
+            var hedging = new OperatorHedging(
+                    new LatencyPercentile(hedge.getPercentile(), hedge.getWindow(), hedge.getMinSamples(),
+                            LATENCY_PERCENTILE_REFRESH.toNanos()),
+                    new RetryBudget(retry.getBudgetRatio(), retry.getBudgetMaxTokens()),
+                    hedge.getMinDelay());
+            operators.put(name, hedging);
+            var tags = Tags.of("operator", name);
+            FunctionCounter.builder("operator.hedges", hedging, OperatorHedging::hedgesFired)
+                    .tags(tags).tag("result", "fired").register(meterRegistry);
+            FunctionCounter.builder("operator.hedges", hedging, OperatorHedging::hedgesWon)
+                    .tags(tags).tag("result", "won").register(meterRegistry);
+            FunctionCounter.builder("operator.retries", hedging, OperatorHedging::retries)
+                    .tags(tags).register(meterRegistry);
+            Gauge.builder("operator.hedge.delay", hedging, OperatorHedging::hedgeDelaySeconds)
+                    .baseUnit("seconds").tags(tags).register(meterRegistry);
+        });
+
+        ReactiveOperatorWalletFacade upstream = resilientOperatorWalletFacade.getIfAvailable();
+        if (upstream == null) {
+            upstream = batchingOrWebClient(webClientOperatorWalletFacade, batchingOperatorWalletFacade);
+        }
+        return new HedgingOperatorWalletFacade(upstream, webClientOperatorWalletFacade::operatorOf, operators,
+                hedge.isEnabled(), retry.getMaxRetries(), retry.getBackoff());
+    }
+
+    @Bean
+    public BalanceChangeFeed balanceChangeFeed() {
+        return new BalanceChangeFeed();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "dispose")
+    @Primary
+    public CachingOperatorWalletFacade cachingOperatorWalletFacade(HedgingOperatorWalletFacade hedgingOperatorWalletFacade,
+                                                                   BalanceChangeFeed balanceChangeFeed,
+                                                                   ObjectProvider<SharedBalanceCache> sharedBalanceCache,
+                                                                   OperatorWalletProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        var cacheProperties = properties.getCache();
+        var shared = cacheProperties.getShared().isEnabled() ? sharedBalanceCache(cacheProperties, sharedBalanceCache) : null;
+        AsyncCache<WalletId, OperatorGetBalance> cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheProperties.getTtl())
+                .maximumSize(cacheProperties.getMaximumSize())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "operator-balances");
+        if (shared == null) {
+            return new CachingOperatorWalletFacade(hedgingOperatorWalletFacade, cache, balanceChangeFeed);
+        }
+        var facade = new CachingOperatorWalletFacade(hedgingOperatorWalletFacade, cache, balanceChangeFeed, shared,
+                cacheProperties.getShared().getTimeout());
+        FunctionCounter.builder("operator.balances.shared", facade, CachingOperatorWalletFacade::sharedHits)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("operator.balances.shared", facade, CachingOperatorWalletFacade::sharedMisses)
+                .tag("result", "miss").register(meterRegistry);
+        return facade;
+    }
+
+    /**
+     * The shared tier is only enabled with a networked cache to share: one held in this process would be shared with
+     * no other replica, and would miss their invalidations. Its balances are served by the near cache for another
+     * {@code ttl} once read, so they must not outlive the near cache's own.
+     */
+    private static SharedBalanceCache sharedBalanceCache(OperatorWalletProperties.Cache properties,
+                                                         ObjectProvider<SharedBalanceCache> sharedBalanceCache) {
+        var ttl = properties.getShared().getTtl();
+        if (ttl.compareTo(properties.getTtl()) > 0) {
+            throw new IllegalArgumentException("operator.wallet.cache.shared.ttl must not exceed operator.wallet.cache.ttl: "
+                    + ttl + " > " + properties.getTtl());
+        }
+        var shared = sharedBalanceCache.getIfAvailable();
+        if (shared == null) {
+            throw new IllegalStateException("operator.wallet.cache.shared.enabled needs a SharedBalanceCache bean");
+        }
+        return shared;
+    }
+
+    @PreDestroy
+    public void disposeConnectionProviders() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    private static ReactiveOperatorWalletFacade batchingOrWebClient(WebClientOperatorWalletFacade webClient,
+                                                                    ObjectProvider<BatchingOperatorWalletFacade> batching) {
+        ReactiveOperatorWalletFacade facade = batching.getIfAvailable();
+        return facade != null ? facade : webClient;
+    }
+
+    private static OperatorGuard guard(OperatorWalletProperties.Resilience resilience) {
+        var circuit = resilience.getCircuit();
+        var limit = resilience.getLimit();
+        return new OperatorGuard(
+                new CircuitBreaker(circuit.getFailureRateThreshold(), circuit.getSlowCall(), circuit.getWindowSize(),
+                        circuit.getMinimumCalls(), circuit.getOpenDuration(), circuit.getHalfOpenCalls()),
+                new AdaptiveConcurrencyLimit(limit.getInitial(), limit.getMin(), limit.getMax(),
+                        limit.getLatencyThreshold(), limit.getBackoffRatio()));
+    }
+
+    /**
+     * Package-private for the connection reuse load test, which disposes of the pool with
+     * {@link #disposeConnectionProviders()}.
+     */
+    HttpClient httpClient(String name, OperatorWalletProperties.Operator operator) {
+        var pool = operator.getPool();
+        var protocols = operator.getProtocols();
+        var connectionProvider = ConnectionProvider.builder("operator-" + name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(pool.isMetrics());
+        if (protocols.contains(HttpProtocol.H2) || protocols.contains(HttpProtocol.H2C)) {
+            // replaces maxConnections, keeping the requests in flight it allows: a connection carries max-concurrent-streams
+            // of them, and a burst would otherwise open a connection per request before the first ones are up
+            connectionProvider.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(Math.max(1, pool.getMaxConnections() / pool.getMaxConcurrentStreams()))
+                    .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                    .build());
+        }
+        var provider = connectionProvider.build();
+        connectionProviders.add(provider);
+
+        // responseTimeout rather than a ReadTimeoutHandler: the latter would also close idle keep-alive connections
+        return HttpClient.create(provider)
+                .protocol(protocols.toArray(HttpProtocol[]::new))
+                .compress(operator.isCompress())
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) operator.getConnectTimeout().toMillis())
+                .responseTimeout(operator.getReadTimeout());
+    }
+}
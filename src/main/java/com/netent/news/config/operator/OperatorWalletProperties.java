@@ -0,0 +1,581 @@
+package com.netent.news.config.operator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operator wallet endpoints, keyed by operator name:
+ * <pre>
+ * operator.wallet.operators.acme.base-url=https://wallet.acme.example
+ * operator.wallet.operators.acme.pool.max-connections=200
+ * operator.wallet.operators.acme.media-type=application/cbor
+ * operator.wallet.operators.acme.protocols=h2,http11
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "operator.wallet")
+public class OperatorWalletProperties {
+
+    private String defaultOperator = "default";
+    private Map<String, Operator> operators = new LinkedHashMap<>();
+    private final Cache cache = new Cache();
+    private final Batch batch = new Batch();
+    private final Resilience resilience = new Resilience();
+    private final Hedge hedge = new Hedge();
+    private final Retry retry = new Retry();
+
+    public String getDefaultOperator() {
+        return defaultOperator;
+    }
+
+    public void setDefaultOperator(String defaultOperator) {
+        this.defaultOperator = defaultOperator;
+    }
+
+    public Map<String, Operator> getOperators() {
+        return operators;
+    }
+
+    public void setOperators(Map<String, Operator> operators) {
+        this.operators = operators;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public static class Operator {
+        private String baseUrl;
+        private Duration connectTimeout = Duration.ofMillis(500);
+        private Duration readTimeout = Duration.ofSeconds(2);
+        /**
+         * Format of the bodies exchanged with the operator, {@code application/json} or {@code application/cbor}.
+         */
+        private MediaType mediaType = MediaType.APPLICATION_JSON;
+        /**
+         * HTTP versions spoken to the operator: {@code http11}; {@code h2c} alone for HTTP/2 over cleartext with prior
+         * knowledge, or {@code h2c,http11} to upgrade to it; {@code h2,http11} for HTTP/2 negotiated by TLS ALPN, with
+         * an https base URL.
+         */
+        private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+        /** Ask for gzip responses, which pays off for bulk balance lookups rather than single ones. */
+        private boolean compress = false;
+        private final Pool pool = new Pool();
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public void setMediaType(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public List<HttpProtocol> getProtocols() {
+            return protocols;
+        }
+
+        public void setProtocols(List<HttpProtocol> protocols) {
+            this.protocols = protocols;
+        }
+
+        public boolean isCompress() {
+            return compress;
+        }
+
+        public void setCompress(boolean compress) {
+            this.compress = compress;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+    }
+
+    public static class Pool {
+        /**
+         * Upper bound of open connections to one operator, and so of requests in flight to it; over HTTP/2 as many
+         * requests share max-connections / max-concurrent-streams connections.
+         */
+        private int maxConnections = 500;
+        /** Requests multiplexed on one HTTP/2 connection; another connection is opened once all carry as many. */
+        private int maxConcurrentStreams = 100;
+        /** Requests allowed to wait for a free connection before failing fast. */
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+        /** Idle keep-alive connections are closed after this, before the operator's load balancer drops them. */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        /** Publishes reactor.netty.connection.provider.* gauges: active, idle, pending and total connections. */
+        private boolean metrics = true;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+
+        public boolean isMetrics() {
+            return metrics;
+        }
+
+        public void setMetrics(boolean metrics) {
+            this.metrics = metrics;
+        }
+    }
+
+    public static class Cache {
+        /** How long a balance is served without asking the operator. Zero keeps only concurrent lookups coalesced. */
+        private Duration ttl = Duration.ofSeconds(1);
+        /** Upper bound of cached wallets, least valuable entries are evicted first (W-TinyLFU). */
+        private long maximumSize = 100_000;
+        private final Shared shared = new Shared();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Shared getShared() {
+            return shared;
+        }
+    }
+
+    /**
+     * Cache tier shared by all replicas, behind each replica's own cache. Enabling it needs a networked
+     * {@link com.netent.news.application.port.out.SharedBalanceCache} bean.
+     */
+    public static class Shared {
+        private boolean enabled;
+        /** How long a balance is shared; at most the {@link Cache#getTtl() ttl} of each replica's own cache. */
+        private Duration ttl = Duration.ofSeconds(1);
+        /** Longest wait for the shared cache before asking the operator. */
+        private Duration timeout = Duration.ofMillis(50);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Batch {
+        /** Only for operators whose wallets offer the bulk balance endpoint. */
+        private boolean enabled;
+        /** Longest a lookup waits for others to join its batch. */
+        private Duration window = Duration.ofMillis(2);
+        private int maxSize = 50;
+        /** Bulk lookups in flight at once, further batches wait for one of them to finish. */
+        private int maxConcurrency = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * Applies to every operator, each with a circuit breaker and concurrency limit of its own.
+     */
+    public static class Resilience {
+        private boolean enabled = true;
+        private final Limit limit = new Limit();
+        private final Circuit circuit = new Circuit();
+        private final Stale stale = new Stale();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Limit getLimit() {
+            return limit;
+        }
+
+        public Circuit getCircuit() {
+            return circuit;
+        }
+
+        public Stale getStale() {
+            return stale;
+        }
+    }
+
+    public static class Limit {
+        private int initial = 20;
+        private int min = 2;
+        /** Bulkhead: calls in flight to one operator never exceed this, however fast it answers. */
+        private int max = 100;
+        /** Calls slower than this shrink the limit, faster ones grow it. */
+        private Duration latencyThreshold = Duration.ofMillis(250);
+        private double backoffRatio = 0.9;
+
+        public int getInitial() {
+            return initial;
+        }
+
+        public void setInitial(int initial) {
+            this.initial = initial;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public void setMin(int min) {
+            this.min = min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public void setMax(int max) {
+            this.max = max;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+
+    public static class Circuit {
+        /** Percentage of failed or slow calls among the last window-size calls that opens the circuit. */
+        private int failureRateThreshold = 50;
+        private Duration slowCall = Duration.ofSeconds(1);
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        /** How long an open circuit fails calls fast before letting trial calls through. */
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int halfOpenCalls = 3;
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getSlowCall() {
+            return slowCall;
+        }
+
+        public void setSlowCall(Duration slowCall) {
+            this.slowCall = slowCall;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+
+    public static class Stale {
+        /** Serve the last balance read when the operator fails or is unavailable. */
+        private boolean enabled;
+        /** Oldest balance served as a fallback. */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Hedge {
+        /** Send a second balance lookup when the first one is slower than the percentile. */
+        private boolean enabled = true;
+        private double percentile = 95;
+        /** Number of most recent lookups per operator the percentile is taken from. */
+        private int window = 1000;
+        /** Lookups per operator needed before hedging starts. */
+        private int minSamples = 100;
+        private Duration minDelay = Duration.ofMillis(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public int getWindow() {
+            return window;
+        }
+
+        public void setWindow(int window) {
+            this.window = window;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+    }
+
+    public static class Retry {
+        private int maxRetries = 1;
+        private Duration backoff = Duration.ofMillis(20);
+        /** Hedges and retries allowed per lookup, e.g. 0.1 adds at most 10% to an operator's load. */
+        private double budgetRatio = 0.1;
+        /** Hedges and retries that may be spent at once after a quiet period. */
+        private int budgetMaxTokens = 10;
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetMaxTokens() {
+            return budgetMaxTokens;
+        }
+
+        public void setBudgetMaxTokens(int budgetMaxTokens) {
+            this.budgetMaxTokens = budgetMaxTokens;
+        }
+    }
+}
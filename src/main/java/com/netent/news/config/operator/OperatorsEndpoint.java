@@ -0,0 +1,36 @@
+package com.netent.news.config.operator;
+
+import com.netent.news.adapter.out.CircuitBreaker;
+import com.netent.news.adapter.out.ResilientOperatorWalletFacade;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/operators}: circuit state, concurrency limit, calls in flight and rejected calls per operator,
+ * empty with {@code operator.wallet.resilience.enabled=false}.
+ */
+@Component
+@Endpoint(id = "operators")
+public class OperatorsEndpoint {
+    private final ObjectProvider<ResilientOperatorWalletFacade> facade;
+
+    public OperatorsEndpoint(ObjectProvider<ResilientOperatorWalletFacade> facade) {
+        this.facade = facade;
+    }
+
+    @ReadOperation
+    public Map<String, OperatorState> operators() {
+        var operators = new LinkedHashMap<String, OperatorState>();
+        facade.ifAvailable(resilient -> resilient.guards().forEach((name, guard) ->
+                operators.put(name, new OperatorState(guard.state(), guard.limit(), guard.inFlight(), guard.rejected()))));
+        return operators;
+    }
+
+    public record OperatorState(CircuitBreaker.State state, int limit, int inFlight, long rejected) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.netent.news.config.startup;
+
+import com.netent.news.application.BalanceSubscriptions;
+import com.netent.news.application.port.in.ReactiveWalletService;
+import com.netent.news.application.port.in.WalletService;
+import com.netent.news.application.port.out.OperatorWalletFacade;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.TransactionJournal;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code spring.main.lazy-initialization=true} (profile {@code fast-start}), beans are created when first used
+ * rather than at startup. The wallet path is still created eagerly, so that the first requests a new instance serves
+ * do not pay for building the operator clients, balance subscriptions start refreshing right away, and the
+ * transaction journal is replayed before the first transaction.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter walletPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(WalletService.class, ReactiveWalletService.class,
+                OperatorWalletFacade.class, ReactiveOperatorWalletFacade.class, BalanceSubscriptions.class,
+                TransactionJournal.class);
+    }
+}
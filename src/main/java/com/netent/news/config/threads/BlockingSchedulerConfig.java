@@ -0,0 +1,22 @@
+package com.netent.news.config.threads;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The scheduler that blocking operator calls made on behalf of a balance fan-out or a queued transaction run on:
+ * Reactor's bounded elastic one, shared with the rest of the application. {@link VirtualThreadConfig} replaces it with
+ * a virtual thread per call.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+public class BlockingSchedulerConfig {
+
+    @Bean
+    public Scheduler blockingScheduler() {
+        return Schedulers.boundedElastic();
+    }
+}
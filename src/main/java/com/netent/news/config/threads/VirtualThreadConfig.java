@@ -0,0 +1,54 @@
+package com.netent.news.config.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every servlet request, and with it the blocking operator call made through
+ * {@link com.netent.news.application.port.out.OperatorWalletFacade}, on its own virtual thread. A request parked on
+ * an operator then costs a few hundred bytes of heap instead of a Tomcat worker, so the number of in-flight balance
+ * lookups is bounded by the operator connection pools rather than {@code server.tomcat.threads.max}. The blocking
+ * operator calls of balance fan-outs and queued transactions get a virtual thread each too, in place of
+ * {@link BlockingSchedulerConfig}'s bounded elastic ones, on either web stack.
+ * <p>
+ * Opt in with {@code spring.threads.virtual.enabled=true}, the property Spring Boot 3.2 later adopted for the same
+ * purpose.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tomcat-virtual-", 0).factory()));
+    }
+
+    /**
+     * Replaces the pooled executor used for asynchronous MVC handlers and {@code @Async} methods.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-virtual-", 0).factory()));
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-virtual-", 0).factory()), "blocking-virtual");
+    }
+}
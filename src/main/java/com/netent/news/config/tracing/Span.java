@@ -0,0 +1,27 @@
+package com.netent.news.config.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span, in the terms of the Zipkin v2 model.
+ *
+ * @param parentId        {@code null} for the root span of a trace
+ * @param timestampMicros start, in microseconds since the epoch
+ * @param durationMicros  in microseconds
+ */
+public record Span(String traceId,
+                   String id,
+                   String parentId,
+                   String name,
+                   Kind kind,
+                   long timestampMicros,
+                   long durationMicros,
+                   Map<String, String> tags) {
+
+    public enum Kind {
+        /** A request served by this application. */
+        SERVER,
+        /** A call this application made to serve one. */
+        CLIENT
+    }
+}
@@ -0,0 +1,12 @@
+package com.netent.news.config.tracing;
+
+/**
+ * Receives every sampled span once it is finished. Called on request threads, so implementations must not block.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+    SpanExporter NONE = span -> {
+    };
+
+    void export(Span span);
+}
@@ -0,0 +1,147 @@
+package com.netent.news.config.tracing;
+
+import com.netent.news.domain.Deadline;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace a request belongs to and the span of work done for it on this hop, in the form of a W3C
+ * {@code traceparent} header: {@code 00-<32 hex trace id>-<16 hex span id>-<flags>}.
+ * <p>
+ * As for {@link Deadline}, the context of the request being served on the current thread is available from
+ * {@link #current()} while {@link #bind} is in effect; reactive callers carry it in their subscriber context under
+ * {@code TraceContext.class}. The application does not know it: it hands it on to other threads and to reactive calls
+ * as part of the {@link TraceRequestScope}.
+ */
+public final class TraceContext {
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final boolean sampled;
+
+    private TraceContext(String traceId, String spanId, String parentSpanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Starts a new trace.
+     */
+    public static TraceContext newTrace(boolean sampled) {
+        var random = ThreadLocalRandom.current();
+        return new TraceContext(hex(random.nextLong()) + hex(random.nextLong()), newSpanId(), null, sampled);
+    }
+
+    /**
+     * @return the context of the caller's span given in a {@code traceparent} header, or {@code null} if the header is
+     * missing or malformed
+     */
+    public static TraceContext fromTraceparent(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55 || traceparent.charAt(2) != '-'
+                || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        var traceId = traceparent.substring(3, 35);
+        var spanId = traceparent.substring(36, 52);
+        var flags = traceparent.substring(53, 55);
+        if (!isHex(traceId, 32) || !isHex(spanId, 16) || !isHex(flags, 2)) {
+            return null;
+        }
+        return new TraceContext(traceId, spanId, null, (Integer.parseInt(flags, 16) & 1) == 1);
+    }
+
+    /**
+     * A span for work done on behalf of this one, in the same trace.
+     */
+    public TraceContext child() {
+        return new TraceContext(traceId, newSpanId(), spanId, sampled);
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    /**
+     * @return {@code null} for the root span of a trace
+     */
+    public String parentSpanId() {
+        return parentSpanId;
+    }
+
+    public boolean sampled() {
+        return sampled;
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    /**
+     * @return the trace context bound to the current thread, or {@code null}
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this trace context to the current thread until the returned binding is closed.
+     */
+    public Binding bind() {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return traceparent();
+    }
+
+    private static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return hex(id);
+    }
+
+    private static String hex(long value) {
+        var hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        var nonZero = false;
+        for (int i = 0; i < length; i++) {
+            var c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero || length == 2;
+    }
+
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,58 @@
+package com.netent.news.config.tracing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads and writes the caller's span in W3C {@code traceparent} and Zipkin B3 headers. Both are written, so that
+ * operators instrumented for either continue the trace; W3C wins when a caller sends both.
+ */
+public final class TraceHeaders {
+    public static final String TRACEPARENT = "traceparent";
+    public static final String B3_TRACE_ID = "X-B3-TraceId";
+    public static final String B3_SPAN_ID = "X-B3-SpanId";
+    public static final String B3_PARENT_SPAN_ID = "X-B3-ParentSpanId";
+    public static final String B3_SAMPLED = "X-B3-Sampled";
+
+    private TraceHeaders() {
+    }
+
+    /**
+     * @param headers first value of a header by name, {@code null} if missing
+     * @return the caller's span, {@code null} if the caller sent none or malformed ones
+     */
+    @Nullable
+    public static TraceContext extract(Function<String, String> headers) {
+        var caller = TraceContext.fromTraceparent(headers.apply(TRACEPARENT));
+        if (caller != null) {
+            return caller;
+        }
+        var traceId = headers.apply(B3_TRACE_ID);
+        var spanId = headers.apply(B3_SPAN_ID);
+        if (traceId == null || spanId == null) {
+            return null;
+        }
+        // 64-bit B3 trace ids are the low half of a 128-bit one
+        if (traceId.length() == 16) {
+            traceId = "0".repeat(16) + traceId;
+        }
+        var sampled = headers.apply(B3_SAMPLED);
+        var flags = "0".equals(sampled) || "false".equalsIgnoreCase(sampled) ? "00" : "01";
+        return TraceContext.fromTraceparent("00-" + traceId.toLowerCase() + "-" + spanId.toLowerCase() + "-" + flags);
+    }
+
+    /**
+     * Writes {@code context} as the caller's span of a request.
+     */
+    public static void inject(TraceContext context, BiConsumer<String, String> headers) {
+        headers.accept(TRACEPARENT, context.traceparent());
+        headers.accept(B3_TRACE_ID, context.traceId());
+        headers.accept(B3_SPAN_ID, context.spanId());
+        if (context.parentSpanId() != null) {
+            headers.accept(B3_PARENT_SPAN_ID, context.parentSpanId());
+        }
+        headers.accept(B3_SAMPLED, context.sampled() ? "1" : "0");
+    }
+}
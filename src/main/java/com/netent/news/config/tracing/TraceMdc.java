@@ -0,0 +1,53 @@
+package com.netent.news.config.tracing;
+
+import org.slf4j.MDC;
+import org.springframework.lang.Nullable;
+
+import static com.netent.news.config.logging.LoggingConstants.PARENT_SPAN_ID;
+import static com.netent.news.config.logging.LoggingConstants.SPAN_ID;
+import static com.netent.news.config.logging.LoggingConstants.TRACE_ID;
+
+/**
+ * Puts a span's ids in the MDC, where the JSON encoder adds them to every event logged on the thread.
+ */
+public final class TraceMdc {
+
+    private TraceMdc() {
+    }
+
+    /**
+     * @param context {@code null} leaves the MDC alone
+     * @return restores the ids the MDC held before when closed
+     */
+    public static Scope put(@Nullable TraceContext context) {
+        if (context == null) {
+            return () -> {
+            };
+        }
+        var traceId = MDC.get(TRACE_ID);
+        var spanId = MDC.get(SPAN_ID);
+        var parentSpanId = MDC.get(PARENT_SPAN_ID);
+        set(context.traceId(), context.spanId(), context.parentSpanId());
+        return () -> set(traceId, spanId, parentSpanId);
+    }
+
+    private static void set(String traceId, String spanId, String parentSpanId) {
+        set(TRACE_ID, traceId);
+        set(SPAN_ID, spanId);
+        set(PARENT_SPAN_ID, parentSpanId);
+    }
+
+    private static void set(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
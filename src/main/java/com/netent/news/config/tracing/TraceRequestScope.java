@@ -0,0 +1,27 @@
+package com.netent.news.config.tracing;
+
+import com.netent.news.application.port.out.RequestScope;
+import reactor.util.context.Context;
+
+/**
+ * Hands the {@link TraceContext} bound to the serving thread on to the threads and reactive calls the application
+ * makes for the request, so that its operator calls continue the request's trace.
+ */
+final class TraceRequestScope implements RequestScope {
+
+    @Override
+    public Captured capture() {
+        var trace = TraceContext.current();
+        return trace == null ? Captured.NONE : new Captured() {
+            @Override
+            public Binding bind() {
+                return trace.bind()::close;
+            }
+
+            @Override
+            public Context addTo(Context context) {
+                return context.put(TraceContext.class, trace);
+            }
+        };
+    }
+}
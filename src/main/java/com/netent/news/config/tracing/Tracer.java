@@ -0,0 +1,106 @@
+package com.netent.news.config.tracing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts traces for requests whose caller did not, at {@code sampleRate}, and records spans of sampled traces for the
+ * {@link SpanExporter}. Unsampled traces are still propagated, so that the next hop does not start one of its own, but
+ * their spans cost no more than the ids.
+ */
+public class Tracer {
+    /** Continues traces of callers, records nothing. */
+    public static final Tracer PROPAGATE_ONLY = new Tracer(0, SpanExporter.NONE);
+
+    private final double sampleRate;
+    private final SpanExporter exporter;
+
+    public Tracer(double sampleRate, SpanExporter exporter) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.exporter = exporter;
+    }
+
+    /**
+     * @param caller the caller's span, {@code null} if it did not send one
+     * @return the span serving the caller's request, in a new trace if the caller is not traced
+     */
+    public TraceContext serverContext(@Nullable TraceContext caller) {
+        return caller != null ? caller.child() : TraceContext.newTrace(sample());
+    }
+
+    public ActiveSpan start(String name, Span.Kind kind, TraceContext context) {
+        return context.sampled() && exporter != SpanExporter.NONE
+                ? new RecordingSpan(name, kind, context)
+                : NOT_RECORDED;
+    }
+
+    private boolean sample() {
+        return sampleRate >= 1.0 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * A span in progress. Not thread-safe: tag and finish it from one thread at a time.
+     */
+    public interface ActiveSpan {
+        ActiveSpan tag(String key, String value);
+
+        default ActiveSpan error(Throwable error) {
+            return tag("error", error.getClass().getSimpleName());
+        }
+
+        /**
+         * Exports the span, only the first call counts.
+         */
+        void finish();
+    }
+
+    private static final ActiveSpan NOT_RECORDED = new ActiveSpan() {
+        @Override
+        public ActiveSpan tag(String key, String value) {
+            return this;
+        }
+
+        @Override
+        public void finish() {
+        }
+    };
+
+    private final class RecordingSpan implements ActiveSpan {
+        private final String name;
+        private final Span.Kind kind;
+        private final TraceContext context;
+        private final long timestampMicros = System.currentTimeMillis() * 1000;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private boolean finished;
+
+        RecordingSpan(String name, Span.Kind kind, TraceContext context) {
+            this.name = name;
+            this.kind = kind;
+            this.context = context;
+        }
+
+        @Override
+        public ActiveSpan tag(String key, String value) {
+            tags.put(key, value);
+            return this;
+        }
+
+        @Override
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            var durationMicros = Math.max(1, (System.nanoTime() - startNanos) / 1000);
+            exporter.export(new Span(context.traceId(), context.spanId(), context.parentSpanId(), name, kind,
+                    timestampMicros, durationMicros, tags));
+        }
+    }
+}
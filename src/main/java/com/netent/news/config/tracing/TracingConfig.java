@@ -0,0 +1,72 @@
+package com.netent.news.config.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netent.news.application.port.out.RequestScope;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static com.netent.news.config.deadline.DeadlineConfig.WALLETS;
+import static com.netent.news.config.logging.server.FilterConfig.GAMEPROVIDERAPI;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+    // ahead of the logging and deadline filters, which are not ordered
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+    private static final List<String> TRACED = List.of(GAMEPROVIDERAPI, WALLETS);
+
+    @Bean(initMethod = "start", destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "tracing.export.enabled", havingValue = "true")
+    public ZipkinSpanExporter zipkinSpanExporter(TracingProperties properties,
+                                                 WebClient.Builder builder,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        var export = properties.getExport();
+        // a plain client: the exporter's own calls are neither traced nor logged
+        var exporter = new ZipkinSpanExporter(builder.clone().baseUrl(export.getEndpoint()).build(), objectMapper,
+                properties.getServiceName(), export.getQueueSize(), export.getBatchSize(), export.getInterval());
+        FunctionCounter.builder("tracing.spans", exporter, ZipkinSpanExporter::exported)
+                .tag("result", "exported").register(meterRegistry);
+        FunctionCounter.builder("tracing.spans", exporter, ZipkinSpanExporter::dropped)
+                .tag("result", "dropped").register(meterRegistry);
+        return exporter;
+    }
+
+    @Bean
+    public Tracer tracer(TracingProperties properties, ObjectProvider<ZipkinSpanExporter> exporter) {
+        SpanExporter spanExporter = exporter.getIfAvailable();
+        return new Tracer(properties.getSampleRate(), spanExporter != null ? spanExporter : SpanExporter.NONE);
+    }
+
+    @Bean
+    public RequestScope traceRequestScope() {
+        return new TraceRequestScope();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<TracingFilter> tracingFilterRegistration(Tracer tracer) {
+        var registration = new FilterRegistrationBean<TracingFilter>();
+        registration.setFilter(new TracingFilter(tracer));
+        TRACED.forEach(path -> registration.addUrlPatterns(path + "/*"));
+        registration.setOrder(ORDER);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public TracingWebFilter tracingWebFilter(Tracer tracer) {
+        return new TracingWebFilter(tracer, TRACED);
+    }
+}
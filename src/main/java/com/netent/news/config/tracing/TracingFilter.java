@@ -0,0 +1,41 @@
+package com.netent.news.config.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Continues the caller's trace, or starts one, for the request: its {@link TraceContext} is bound to the serving thread,
+ * where the blocking operator bridge picks it up, and its ids are in the MDC of everything logged meanwhile, the
+ * request and response logged by {@code LoggingFilter} included. Records the request as a server span.
+ * <p>
+ * Streamed responses are written after the span has finished; their operator calls are still children of it.
+ */
+public final class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var trace = tracer.serverContext(TraceHeaders.extract(request::getHeader));
+        var span = tracer.start(request.getMethod(), Span.Kind.SERVER, trace)
+                .tag("http.method", request.getMethod())
+                .tag("http.path", request.getRequestURI());
+        try (var ignored = trace.bind(); var mdc = TraceMdc.put(trace)) {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.tag("http.status_code", String.valueOf(response.getStatus())).finish();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.netent.news.config.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+    /** Share of traces started here that are recorded; traces of callers follow the caller's decision. */
+    private double sampleRate = 1.0;
+    /** Name of this application in the collector. */
+    private String serviceName = "ports";
+    private final Export export = new Export();
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public static class Export {
+        /** Post recorded spans to a Zipkin collector; when off, trace ids are still logged and propagated. */
+        private boolean enabled = false;
+        private String endpoint = "http://localhost:9411/api/v2/spans";
+        /** Spans held for the collector, later ones are dropped. */
+        private int queueSize = 10000;
+        private int batchSize = 100;
+        private Duration interval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.netent.news.config.tracing;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link TracingFilter}: puts the request's {@link TraceContext} in the subscriber context,
+ * and in the exchange attribute {@link #TRACE_CONTEXT} for filters that log outside of it. Runs before the other
+ * filters, so that they see it.
+ */
+public final class TracingWebFilter implements WebFilter, Ordered {
+    public static final String TRACE_CONTEXT = TraceContext.class.getName();
+
+    private final Tracer tracer;
+    private final List<String> paths;
+
+    /**
+     * @param paths requests to these paths and below are traced
+     */
+    public TracingWebFilter(Tracer tracer, List<String> paths) {
+        this.tracer = tracer;
+        this.paths = List.copyOf(paths);
+    }
+
+    @Override
+    public int getOrder() {
+        return TracingConfig.ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var requestPath = request.getPath().pathWithinApplication().value();
+        if (paths.stream().noneMatch(path -> requestPath.equals(path) || requestPath.startsWith(path + "/"))) {
+            return chain.filter(exchange);
+        }
+        var trace = tracer.serverContext(TraceHeaders.extract(request.getHeaders()::getFirst));
+        var span = tracer.start(request.getMethodValue(), Span.Kind.SERVER, trace)
+                .tag("http.method", request.getMethodValue())
+                .tag("http.path", requestPath);
+        exchange.getAttributes().put(TRACE_CONTEXT, trace);
+        return chain.filter(exchange)
+                .doOnError(span::error)
+                .doFinally(signal -> span
+                        .tag("http.status_code", String.valueOf(Optional.ofNullable(exchange.getResponse().getRawStatusCode()).orElse(200)))
+                        .finish())
+                .contextWrite(context -> context.put(TraceContext.class, trace));
+    }
+}
@@ -0,0 +1,157 @@
+package com.netent.news.config.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Posts spans to a Zipkin collector, {@code POST /api/v2/spans} with a JSON array of Zipkin v2 spans, every
+ * {@code interval} in batches of up to {@code batchSize}. Request threads only queue finished spans; at most
+ * {@code queueSize} are held, later ones are dropped and counted, as are spans the collector failed to take, so that
+ * a slow or missing collector never slows down requests.
+ */
+public class ZipkinSpanExporter implements SpanExporter, Disposable {
+    private static final Logger LOG = LoggerFactory.getLogger(ZipkinSpanExporter.class);
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(2);
+
+    private final WebClient collector;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> localEndpoint;
+    private final BlockingQueue<Span> queue;
+    private final int batchSize;
+    private final Duration interval;
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Disposable flushing;
+
+    /**
+     * @param collector   posts to the collector's span endpoint
+     * @param serviceName the name of this application in the collector
+     */
+    public ZipkinSpanExporter(WebClient collector, ObjectMapper objectMapper, String serviceName,
+                              int queueSize, int batchSize, Duration interval) {
+        if (queueSize < 1 || batchSize < 1 || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("queueSize, batchSize and interval must be positive");
+        }
+        this.collector = collector;
+        this.objectMapper = objectMapper;
+        this.localEndpoint = Map.of("serviceName", serviceName);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.interval = interval;
+    }
+
+    /**
+     * Starts posting queued spans every {@code interval}.
+     */
+    public void start() {
+        flushing = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Posts the spans queued so far.
+     */
+    public Mono<Void> flush() {
+        return Flux.<List<Span>>generate(sink -> {
+                    var batch = new ArrayList<Span>(batchSize);
+                    queue.drainTo(batch, batchSize);
+                    if (batch.isEmpty()) {
+                        sink.complete();
+                    } else {
+                        sink.next(batch);
+                    }
+                })
+                .concatMap(this::post, 1)
+                .then();
+    }
+
+    public long exported() {
+        return exported.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void dispose() {
+        var flushing = this.flushing;
+        if (flushing != null) {
+            flushing.dispose();
+        }
+        try {
+            flush().block(FLUSH_TIMEOUT);
+        } catch (RuntimeException e) {
+            LOG.warn("Spans not exported on shutdown: {}", e.toString());
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        var flushing = this.flushing;
+        return flushing != null && flushing.isDisposed();
+    }
+
+    private Mono<Void> post(List<Span> batch) {
+        return Mono.fromCallable(() -> json(batch))
+                .flatMap(body -> collector.post()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .toBodilessEntity())
+                .doOnSuccess(response -> exported.addAndGet(batch.size()))
+                .onErrorResume(e -> {
+                    dropped.addAndGet(batch.size());
+                    LOG.warn("{} spans dropped, the collector failed: {}", batch.size(), e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private byte[] json(List<Span> batch) throws JsonProcessingException {
+        var spans = new ArrayList<Map<String, Object>>(batch.size());
+        for (var span : batch) {
+            var json = new LinkedHashMap<String, Object>();
+            json.put("traceId", span.traceId());
+            json.put("id", span.id());
+            if (span.parentId() != null) {
+                json.put("parentId", span.parentId());
+            }
+            json.put("name", span.name());
+            json.put("kind", span.kind().name());
+            json.put("timestamp", span.timestampMicros());
+            json.put("duration", span.durationMicros());
+            json.put("localEndpoint", localEndpoint);
+            if (!span.tags().isEmpty()) {
+                json.put("tags", span.tags());
+            }
+            spans.add(json);
+        }
+        return objectMapper.writeValueAsBytes(spans);
+    }
+}
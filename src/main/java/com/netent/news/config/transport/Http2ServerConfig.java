@@ -0,0 +1,43 @@
+package com.netent.news.config.transport;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Multiplexing of the HTTP/2 connections Spring Boot sets up with {@code server.http2.enabled}: h2c, by upgrade or
+ * prior knowledge, without {@code server.ssl}, h2 by TLS ALPN with it. A game provider's gateway then sends all its
+ * requests over a few connections instead of opening one per request in flight.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+@EnableConfigurationProperties(Http2ServerProperties.class)
+public class Http2ServerConfig {
+
+    /**
+     * Tomcat serves only 20 streams of a connection at a time by default, queueing the others.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public TomcatConnectorCustomizer http2TomcatConnectorCustomizer(Http2ServerProperties properties) {
+        return connector -> {
+            for (var upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(properties.getMaxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(properties.getMaxConcurrentStreams());
+                }
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyServerCustomizer http2NettyServerCustomizer(Http2ServerProperties properties) {
+        return server -> server.http2Settings(settings -> settings.maxConcurrentStreams(properties.getMaxConcurrentStreams()));
+    }
+}
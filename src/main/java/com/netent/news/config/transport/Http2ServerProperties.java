@@ -0,0 +1,20 @@
+package com.netent.news.config.transport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * HTTP/2 settings of the inbound server, once enabled with {@code server.http2.enabled}.
+ */
+@ConfigurationProperties(prefix = "http.server.http2")
+public class Http2ServerProperties {
+    /** Requests a client may multiplex on one connection; Tomcat also serves as many of them at a time. */
+    private int maxConcurrentStreams = 200;
+
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+}
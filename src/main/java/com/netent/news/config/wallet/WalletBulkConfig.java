@@ -0,0 +1,16 @@
+package com.netent.news.config.wallet;
+
+import com.netent.news.application.BalanceFanOut;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(WalletBulkProperties.class)
+public class WalletBulkConfig {
+
+    @Bean
+    public BalanceFanOut balanceFanOut(WalletBulkProperties properties) {
+        return new BalanceFanOut(properties.getMaxWallets(), properties.getChunkSize(), properties.getConcurrency());
+    }
+}
@@ -0,0 +1,40 @@
+package com.netent.news.config.wallet;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk balance requests, {@code POST /wallets/balances}.
+ */
+@ConfigurationProperties(prefix = "wallet.bulk")
+public class WalletBulkProperties {
+    /** Distinct wallets one request may ask for. */
+    private int maxWallets = 1000;
+    /** Wallets per bulk operator lookup. */
+    private int chunkSize = 50;
+    /** Bulk operator lookups in flight per request. */
+    private int concurrency = 8;
+
+    public int getMaxWallets() {
+        return maxWallets;
+    }
+
+    public void setMaxWallets(int maxWallets) {
+        this.maxWallets = maxWallets;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,21 @@
+package com.netent.news.config.wallet;
+
+import com.netent.news.application.BalanceSubscriptions;
+import com.netent.news.application.port.out.BalanceChanges;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(WalletSubscriptionProperties.class)
+public class WalletSubscriptionConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "dispose")
+    public BalanceSubscriptions balanceSubscriptions(ReactiveOperatorWalletFacade operatorWalletFacade,
+                                                     BalanceChanges balanceChanges,
+                                                     WalletSubscriptionProperties properties) {
+        return new BalanceSubscriptions(operatorWalletFacade, balanceChanges, properties.getRefreshInterval(),
+                properties.getChunkSize(), properties.getConcurrency());
+    }
+}
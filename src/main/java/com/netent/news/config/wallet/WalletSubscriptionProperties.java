@@ -0,0 +1,42 @@
+package com.netent.news.config.wallet;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Balance subscriptions, {@code GET /wallets/{wallet}/balance/updates}.
+ */
+@ConfigurationProperties(prefix = "wallet.subscription")
+public class WalletSubscriptionProperties {
+    /** How often the balances of all subscribed wallets are looked up again. */
+    private Duration refreshInterval = Duration.ofSeconds(2);
+    /** Wallets per bulk operator lookup of a refresh. */
+    private int chunkSize = 50;
+    /** Operator lookups in flight per refresh. */
+    private int concurrency = 8;
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
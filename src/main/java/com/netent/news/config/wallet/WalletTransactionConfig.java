@@ -0,0 +1,98 @@
+package com.netent.news.config.wallet;
+
+import com.netent.news.adapter.out.MappedFileTransactionJournal;
+import com.netent.news.adapter.out.WebClientOperatorWalletFacade;
+import com.netent.news.application.WalletStripes;
+import com.netent.news.application.WalletTransactions;
+import com.netent.news.application.port.out.BalanceInvalidator;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.TransactionJournal;
+import com.netent.news.config.operator.OperatorWalletProperties;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(WalletTransactionProperties.class)
+public class WalletTransactionConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(WalletTransactionConfig.class);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean(TransactionJournal.class)
+    public MappedFileTransactionJournal mappedFileTransactionJournal(WalletTransactionProperties properties) throws IOException {
+        var journal = properties.getJournal();
+        if (journal.getDirectory() == null) {
+            // a journal lost on restart forgets the transactions left pending and the answers to retries
+            throw new IllegalStateException("wallet.transactions.journal.directory must be set to a directory kept across restarts");
+        }
+        return new MappedFileTransactionJournal(journal.getDirectory(), Math.toIntExact(journal.getSegmentSize().toBytes()),
+                journal.getMaxSegments(), journal.getSyncInterval());
+    }
+
+    /**
+     * {@code wallet.stripe.depth}, {@code wallet.stripe.depth.max} and {@code wallet.stripe.wait}, tagged with the
+     * operator whose stripes they add up; with {@code wallet.transactions.per-stripe-metrics}, {@code wallet.stripe.depth}
+     * and {@code wallet.stripe.wait} of every stripe instead, tagged with the operator and the stripe.
+     */
+    @Bean
+    public WalletStripes walletStripes(WalletTransactionProperties properties, OperatorWalletProperties operatorWalletProperties,
+                                       WebClientOperatorWalletFacade webClientOperatorWalletFacade, MeterRegistry meterRegistry) {
+        var stripes = new WalletStripes(properties.getStripes(), operatorWalletProperties.getOperators().keySet(),
+                webClientOperatorWalletFacade::operatorOf);
+        for (var operator : stripes.operators()) {
+            if (properties.isPerStripeMetrics()) {
+                for (int i = 0; i < stripes.stripes(); i++) {
+                    var stripe = i;
+                    var tags = Tags.of("operator", operator, "stripe", String.valueOf(stripe));
+                    Gauge.builder("wallet.stripe.depth", stripes, s -> s.depth(operator, stripe))
+                            .tags(tags).register(meterRegistry);
+                    FunctionTimer.builder("wallet.stripe.wait", stripes, s -> s.started(operator, stripe),
+                                    s -> s.waitedNanos(operator, stripe), TimeUnit.NANOSECONDS)
+                            .tags(tags).register(meterRegistry);
+                }
+            } else {
+                Gauge.builder("wallet.stripe.depth", stripes, s -> s.depth(operator))
+                        .tag("operator", operator).register(meterRegistry);
+                Gauge.builder("wallet.stripe.depth.max", stripes, s -> s.maxDepth(operator))
+                        .tag("operator", operator).register(meterRegistry);
+                FunctionTimer.builder("wallet.stripe.wait", stripes, s -> s.started(operator), s -> s.waitedNanos(operator), TimeUnit.NANOSECONDS)
+                        .tag("operator", operator).register(meterRegistry);
+            }
+        }
+        return stripes;
+    }
+
+    @Bean
+    public WalletTransactions walletTransactions(TransactionJournal journal, ObjectProvider<BalanceInvalidator> balanceInvalidator,
+                                                 WalletStripes stripes) {
+        return new WalletTransactions(journal, balanceInvalidator.getIfAvailable(() -> BalanceInvalidator.NONE), stripes);
+    }
+
+    /**
+     * Once the application is ready, sends the transactions it left unanswered when it last stopped again. Requests
+     * are served meanwhile; a retry of one of these joins it.
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> pendingTransactionRecovery(WalletTransactions transactions,
+                                                                               ReactiveOperatorWalletFacade operatorWalletFacade) {
+        return event -> transactions.recover(operatorWalletFacade::transact)
+                .subscribe(answered -> {
+                    if (answered > 0) {
+                        LOG.info("{} pending transactions answered by the operators", answered);
+                    }
+                }, e -> LOG.warn("Pending transactions not recovered", e));
+    }
+}
@@ -0,0 +1,86 @@
+package com.netent.news.config.wallet;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Wallet transactions, {@code POST /wallets/{wallet}/transactions}, and their journal.
+ */
+@ConfigurationProperties(prefix = "wallet.transactions")
+public class WalletTransactionProperties {
+
+    /** Queues that transactions are ordered in, one per group of wallets of an operator; per operator, a power of two. */
+    private int stripes = 64;
+    /**
+     * Exports the depth and wait of every stripe, tagged with it, in place of their totals per operator: as many series
+     * as stripes of every operator, to find the wallets that hold up a stripe.
+     */
+    private boolean perStripeMetrics;
+    private final Journal journal = new Journal();
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public boolean isPerStripeMetrics() {
+        return perStripeMetrics;
+    }
+
+    public void setPerStripeMetrics(boolean perStripeMetrics) {
+        this.perStripeMetrics = perStripeMetrics;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public static class Journal {
+        /** Where the journal is kept, on a volume that outlives the process; {@code journal} in the working directory by default. */
+        private Path directory;
+        /** Size of a journal segment file. */
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+        /** Segments kept; the outcomes in the oldest are forgotten when another is needed. */
+        private int maxSegments = 4;
+        /** How often appended entries are forced to disk, zero to force every append. */
+        private Duration syncInterval = Duration.ofMillis(10);
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public Duration getSyncInterval() {
+            return syncInterval;
+        }
+
+        public void setSyncInterval(Duration syncInterval) {
+            this.syncInterval = syncInterval;
+        }
+    }
+}
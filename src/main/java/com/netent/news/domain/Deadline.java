@@ -0,0 +1,68 @@
+package com.netent.news.domain;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a request must be answered, taken from the caller's time budget. Every call made on the
+ * request's behalf gets only what is left of it.
+ * <p>
+ * The deadline of the request being served on the current thread is available from {@link #current()} while
+ * {@link #bind} is in effect; reactive callers carry it in their subscriber context under {@code Deadline.class}.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * @return what is left of the budget, negative once the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(nanos - System.nanoTime());
+    }
+
+    public boolean expired() {
+        return nanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the deadline bound to the current thread, or {@code null}
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this deadline to the current thread until the returned binding is closed.
+     */
+    public Binding bind() {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline in " + remaining().toMillis() + " ms";
+    }
+
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
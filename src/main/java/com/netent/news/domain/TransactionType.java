@@ -0,0 +1,13 @@
+package com.netent.news.domain;
+
+/**
+ * What a {@link WalletTransaction} does to the balance of its wallet.
+ */
+public enum TransactionType {
+    /** Debits the stake of a game round. */
+    BET,
+    /** Credits the winnings of a game round. */
+    WIN,
+    /** Debits money leaving the wallet outside of a game round. */
+    WITHDRAW
+}
@@ -1,4 +1,82 @@
 package com.netent.news.domain;
 
-public class WalletId {
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable wallet identifier. Most operators number their wallets, so a canonical decimal id, without sign or
+ * leading zeros and of at most 18 digits, is packed into a {@code long}: no string is kept, and equality and hashing
+ * are plain arithmetic. Any other id, e.g. {@code acme:1234} or a UUID, keeps its string.
+ * <p>
+ * Two ids are equal exactly when their {@link #value()}s are.
+ */
+public final class WalletId {
+    private static final int MAX_PACKED_DIGITS = 18;
+
+    private final long number;
+    /** {@code null} for packed ids. */
+    private final String text;
+
+    private WalletId(long number, String text) {
+        this.number = number;
+        this.text = text;
+    }
+
+    public static WalletId of(String value) {
+        var number = parseCanonical(requireNonNull(value));
+        return number < 0 ? new WalletId(0, value) : new WalletId(number, null);
+    }
+
+    public static WalletId of(long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Wallet numbers are not negative: " + number);
+        }
+        return number < 1_000_000_000_000_000_000L ? new WalletId(number, null) : new WalletId(0, Long.toString(number));
+    }
+
+    public String value() {
+        return text != null ? text : Long.toString(number);
+    }
+
+    /**
+     * @return whether the id is a plain wallet number, which has no operator prefix
+     */
+    public boolean isNumeric() {
+        return text == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof WalletId other
+                && number == other.number
+                && (text == null ? other.text == null : text.equals(other.text));
+    }
+
+    @Override
+    public int hashCode() {
+        return text != null ? text.hashCode() : Long.hashCode(number * 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
+
+    /**
+     * @return the number {@code value} is the canonical decimal form of, or -1
+     */
+    private static long parseCanonical(String value) {
+        var length = value.length();
+        if (length == 0 || length > MAX_PACKED_DIGITS || length > 1 && value.charAt(0) == '0') {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            var digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            number = number * 10 + digit;
+        }
+        return number;
+    }
 }
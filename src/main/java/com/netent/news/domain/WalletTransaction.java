@@ -0,0 +1,59 @@
+package com.netent.news.domain;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A change to the balance of a wallet, identified by the id its game provider gave it. The id makes the transaction
+ * idempotent: sent twice, it is applied once.
+ *
+ * @param amount    not negative, the {@link TransactionType} says which way it moves the balance
+ * @param currency  ISO 4217 code
+ * @param sessionId game session, if any
+ * @param gameId    game played, if any
+ */
+public record WalletTransaction(String id, WalletId wallet, TransactionType type, BigDecimal amount, String currency,
+                                String sessionId, String gameId) {
+    /** Of the id, and of the other string fields. */
+    public static final int MAX_ID_LENGTH = 128;
+
+    public WalletTransaction {
+        requireNonNull(id, "id");
+        requireNonNull(wallet, "wallet");
+        requireNonNull(type, "type");
+        requireNonNull(amount, "amount");
+        requireNonNull(currency, "currency");
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("Transaction ids are not empty");
+        }
+        checkLength("id", id);
+        checkLength("currency", currency);
+        checkLength("sessionId", sessionId);
+        checkLength("gameId", gameId);
+        if (amount.signum() < 0) {
+            throw new IllegalArgumentException("Transaction amounts are not negative: " + amount);
+        }
+    }
+
+    /**
+     * @return whether {@code other} asks for the same change as this transaction, as a retry of it would; 10.0 and
+     * 10.00 EUR are the same amount
+     */
+    public boolean sameAs(WalletTransaction other) {
+        return id.equals(other.id)
+                && wallet.equals(other.wallet)
+                && type == other.type
+                && amount.compareTo(other.amount) == 0
+                && currency.equals(other.currency)
+                && Objects.equals(sessionId, other.sessionId)
+                && Objects.equals(gameId, other.gameId);
+    }
+
+    private static void checkLength(String name, String value) {
+        if (value != null && value.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException(name + " is longer than " + MAX_ID_LENGTH + " characters");
+        }
+    }
+}
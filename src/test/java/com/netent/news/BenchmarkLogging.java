@@ -0,0 +1,21 @@
+package com.netent.news;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmarks run without Spring, so logback falls back to logging everything at DEBUG to the console, which would
+ * dominate every measurement.
+ */
+public final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    public static void warningsOnly() {
+        var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+    }
+}
@@ -0,0 +1,59 @@
+package com.netent.news;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time until {@link PortsApplication} serves requests, from a cold JVM: every measurement is a single start in a fresh
+ * fork, so class loading and JIT warm-up are included as they are for a new instance. Run with
+ * {@code mvn test -P benchmark -Djmh.benchmarks=Startup}, and compare a default run with one started from the CDS
+ * archive ({@code -P cds}) by adding {@code -XX:SharedArchiveFile} to the fork's JVM arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    /**
+     * default: every bean and auto-configuration, fast-start: lazy initialization and trimmed auto-configuration.
+     */
+    @Param({"default", "fast-start"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext start() {
+        context = new SpringApplicationBuilder(PortsApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.main.web-application-type=" + stack,
+                "--spring.profiles.active=" + profile);
+        return context;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,181 @@
+package com.netent.news;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.springframework.boot.convert.DurationStyle;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process operator wallet answering the single and bulk balance lookups and the transactions of
+ * {@link com.netent.news.adapter.out.WebClientOperatorWalletFacade} after a latency drawn from a {@link Latency}
+ * distribution, failing a share of them with 503. Speaks CBOR to clients that accept it, and HTTP/2 over cleartext to
+ * those that ask for it by upgrade or prior knowledge.
+ * <p>
+ * Runs on its own event loops: closing an application context disposes the global Reactor Netty resources, which
+ * must not take the operator down with it.
+ */
+public final class StubOperator implements AutoCloseable {
+    private static final String CBOR_TYPE = "application/cbor";
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    private final LoopResources loops;
+    private final DisposableServer server;
+    private final Latency latency;
+    private final double errorRate;
+    private final Set<SocketAddress> clients = ConcurrentHashMap.newKeySet();
+
+    private StubOperator(Latency latency, double errorRate) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        loops = LoopResources.create("stub-operator");
+        server = HttpServer.create()
+                .runOn(loops)
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/wallets/{wallet}/balance", (request, response) ->
+                                respond(request, response, Mono.just(balance("\"" + request.param("wallet") + "\""))))
+                        .post("/wallets/balances", (request, response) -> respond(request, response,
+                                request.receive().aggregate().asByteArray()
+                                        .map(body -> balances(toJson(body, request.requestHeaders())))))
+                        .post("/wallets/{wallet}/transactions", (request, response) -> respond(request, response,
+                                request.receive().then(Mono.fromSupplier(() -> balance("\"" + request.param("wallet") + "\""))))))
+                .bindNow();
+    }
+
+    public static StubOperator start(Duration latency) {
+        return start(Latency.fixed(latency), 0);
+    }
+
+    public static StubOperator start(Latency latency, double errorRate) {
+        return new StubOperator(latency, errorRate);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    /**
+     * @return connections that requests were received on so far
+     */
+    public int connections() {
+        return clients.size();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+        loops.dispose();
+    }
+
+    /**
+     * Answers in CBOR when the request accepts it, in JSON otherwise.
+     */
+    private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, Mono<String> body) {
+        // the streams of an HTTP/2 connection share its address
+        clients.add(request.remoteAddress());
+        var delay = latency.next();
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return Mono.delay(delay).then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+        }
+        var delayed = delay.isZero() ? body : body.delayElement(delay);
+        var accept = request.requestHeaders().get(HttpHeaderNames.ACCEPT, "");
+        if (accept.contains(CBOR_TYPE)) {
+            return response.header(HttpHeaderNames.CONTENT_TYPE, CBOR_TYPE).sendByteArray(delayed.map(StubOperator::toCbor)).then();
+        }
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json").sendString(delayed).then();
+    }
+
+    private static String toJson(byte[] body, HttpHeaders headers) {
+        if (!headers.get(HttpHeaderNames.CONTENT_TYPE, "").startsWith(CBOR_TYPE)) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return JSON.writeValueAsString(CBOR.readTree(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] toCbor(String json) {
+        try {
+            return CBOR.writeValueAsBytes(JSON.readTree(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Answers {@code ["a","b"]} with {@code {"a":{"wallet":"a",...},"b":{"wallet":"b",...}}}.
+     */
+    private static String balances(String wallets) {
+        return "{" + wallets.replaceAll("[\\[\\]]", "").replaceAll("(\"[^\"]+\")", "$1:" + balance("$1")) + "}";
+    }
+
+    private static String balance(String wallet) {
+        return "{\"wallet\":" + wallet + ",\"amount\":100.00,\"currency\":\"EUR\"}";
+    }
+
+    /**
+     * Operator response time distribution.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration next();
+
+        static Latency fixed(Duration latency) {
+            return () -> latency;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+
+        /**
+         * Long-tailed, as operator wallets usually are: half the responses are faster than {@code median}, one in a
+         * hundred slower than {@code p99}.
+         */
+        static Latency logNormal(Duration median, Duration p99) {
+            var mu = Math.log(median.toNanos());
+            var sigma = (Math.log(p99.toNanos()) - mu) / 2.326;
+            return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        /**
+         * Parses {@code fixed:20ms}, {@code uniform:5ms:50ms} or {@code lognormal:20ms:200ms}.
+         */
+        static Latency parse(String spec) {
+            var parts = spec.split(":");
+            return switch (parts[0]) {
+                case "fixed" -> fixed(duration(parts[1]));
+                case "uniform" -> uniform(duration(parts[1]), duration(parts[2]));
+                case "lognormal" -> logNormal(duration(parts[1]), duration(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+            };
+        }
+
+        private static Duration duration(String value) {
+            return DurationStyle.detectAndParse(value);
+        }
+    }
+}
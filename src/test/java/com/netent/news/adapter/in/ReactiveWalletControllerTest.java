@@ -0,0 +1,168 @@
+package com.netent.news.adapter.in;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.config.json.BalanceJsonModule;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveWalletControllerTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private WebTestClient client;
+
+    @MockBean
+    private ReactiveOperatorWalletFacade operatorWalletFacade;
+
+    @Test
+    void serves_balance_on_the_reactive_stack() {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")));
+
+        client.get().uri("/wallets/{wallet}/balance", "42")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"wallet\":\"42\",\"amount\":10,\"currency\":\"EUR\"}");
+
+        assertTrue(context instanceof ReactiveWebApplicationContext);
+        verify(operatorWalletFacade).getBalance(any(WalletId.class));
+    }
+
+    @Test
+    void serves_balance_as_cbor_when_asked_for() throws Exception {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")));
+
+        var body = client.get().uri("/wallets/{wallet}/balance", "42")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        assertEquals(new GetBalanceResponse(WalletId.of(42), BigDecimal.TEN, "EUR"),
+                new ObjectMapper(new CBORFactory()).registerModule(new BalanceJsonModule()).readValue(body, GetBalanceResponse.class));
+    }
+
+    @Test
+    void streams_bulk_balances_as_ndjson() {
+        when(operatorWalletFacade.getBalances(any())).thenAnswer(call -> {
+            Collection<WalletId> wallets = call.getArgument(0);
+            return Mono.just(wallets.stream().collect(Collectors.toMap(Function.identity(),
+                    wallet -> new OperatorGetBalance(wallet, BigDecimal.ONE, "EUR"))));
+        });
+
+        var balances = client.post().uri("/wallets/balances")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("[\"1\", 2, \"acme:3\"]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(GetBalanceResponse.class).getResponseBody()
+                .collectList().block();
+
+        assertEquals(Set.of(WalletId.of(1), WalletId.of(2), WalletId.of("acme:3")),
+                balances.stream().map(GetBalanceResponse::wallet).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void rejects_bulk_requests_for_too_many_wallets() {
+        var wallets = IntStream.rangeClosed(1, 1001).mapToObj(String::valueOf).toList();
+
+        client.post().uri("/wallets/balances")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(wallets)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void pushes_balance_updates_as_server_sent_events() {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")));
+
+        var updates = client.get().uri("/wallets/{wallet}/balance/updates", "42")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(GetBalanceResponse.class).getResponseBody();
+
+        StepVerifier.create(updates)
+                .expectNext(new GetBalanceResponse(WalletId.of(42), BigDecimal.TEN, "EUR"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void answers_a_refused_transaction_and_its_retries_with_422() {
+        when(operatorWalletFacade.transact(any())).thenReturn(Mono.error(new OperatorRejectedException("insufficient funds")));
+
+        for (int i = 0; i < 2; i++) {
+            client.post().uri("/wallets/{wallet}/transactions", "42")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"transactionId\":\"reactive-tx-1\",\"type\":\"BET\",\"amount\":1000,\"currency\":\"EUR\"}")
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        verify(operatorWalletFacade, times(1)).transact(any());
+    }
+
+    @Test
+    void answers_504_when_the_operator_misses_the_deadline() {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(Mono.error(new DeadlineExceededException("acme")));
+
+        client.get().uri("/wallets/{wallet}/balance", "acme:1")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void exports_port_timings_to_prometheus() {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")));
+        client.get().uri("/wallets/{wallet}/balance", "42").exchange().expectStatus().isOk();
+
+        client.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.contains(
+                        "wallet_port_calls_seconds_bucket{class=\"ReactiveWalletServiceImpl\",method=\"getBalance\"")));
+    }
+}
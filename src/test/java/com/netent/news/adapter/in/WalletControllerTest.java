@@ -0,0 +1,156 @@
+package com.netent.news.adapter.in;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import com.netent.news.application.port.out.OperatorWalletFacade;
+import com.netent.news.config.json.BalanceJsonModule;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WalletControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private OperatorWalletFacade operatorWalletFacade;
+
+    @BeforeEach
+    void setUp() {
+        when(operatorWalletFacade.getBalance(any())).thenReturn(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"));
+        when(operatorWalletFacade.getBalances(any())).thenAnswer(call -> {
+            Collection<WalletId> wallets = call.getArgument(0);
+            return wallets.stream().collect(Collectors.toMap(Function.identity(),
+                    wallet -> new OperatorGetBalance(wallet, BigDecimal.ONE, "EUR")));
+        });
+    }
+
+    @Test
+    void serves_json_by_default() throws Exception {
+        mvc.perform(get("/wallets/{wallet}/balance", "42").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"wallet\":\"42\",\"amount\":10,\"currency\":\"EUR\"}"));
+    }
+
+    @Test
+    void answers_503_while_the_operator_is_unavailable() throws Exception {
+        when(operatorWalletFacade.getBalance(WalletId.of("degraded:1"))).thenThrow(new OperatorUnavailableException("degraded"));
+
+        mvc.perform(get("/wallets/{wallet}/balance", "degraded:1"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void serves_cbor_when_asked_for() throws Exception {
+        var body = mvc.perform(get("/wallets/{wallet}/balance", "42").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(new GetBalanceResponse(WalletId.of(42), BigDecimal.TEN, "EUR"),
+                new ObjectMapper(new CBORFactory()).registerModule(new BalanceJsonModule()).readValue(body, GetBalanceResponse.class));
+    }
+
+    @Test
+    void streams_bulk_balances_as_ndjson() throws Exception {
+        var result = mvc.perform(post("/wallets/balances")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("[\"1\", 2, \"acme:3\"]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var lines = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().lines().toList();
+
+        assertEquals(Set.of(
+                "{\"wallet\":\"1\",\"amount\":1,\"currency\":\"EUR\"}",
+                "{\"wallet\":\"2\",\"amount\":1,\"currency\":\"EUR\"}",
+                "{\"wallet\":\"acme:3\",\"amount\":1,\"currency\":\"EUR\"}"), Set.copyOf(lines));
+    }
+
+    @Test
+    void streams_bulk_balances_as_server_sent_events_by_default() throws Exception {
+        var result = mvc.perform(post("/wallets/balances")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"1\"]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("data:{\"wallet\":\"1\",\"amount\":1,\"currency\":\"EUR\"}\n\n"));
+    }
+
+    @Test
+    void applies_a_transaction_once_however_often_it_is_sent() throws Exception {
+        when(operatorWalletFacade.transact(any())).thenReturn(new OperatorGetBalance(WalletId.of(42), BigDecimal.valueOf(90), "EUR"));
+        var transaction = "{\"transactionId\":\"servlet-tx-1\",\"type\":\"BET\",\"amount\":10,\"currency\":\"EUR\"}";
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/wallets/{wallet}/transactions", "42")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(transaction))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json("{\"transactionId\":\"servlet-tx-1\",\"wallet\":\"42\",\"balance\":90,\"currency\":\"EUR\"}"));
+        }
+
+        verify(operatorWalletFacade, times(1)).transact(any());
+    }
+
+    @Test
+    void answers_409_when_a_transaction_id_is_reused_for_another_transaction() throws Exception {
+        when(operatorWalletFacade.transact(any())).thenReturn(new OperatorGetBalance(WalletId.of(42), BigDecimal.valueOf(90), "EUR"));
+        mvc.perform(post("/wallets/{wallet}/transactions", "42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionId\":\"servlet-tx-2\",\"type\":\"BET\",\"amount\":10,\"currency\":\"EUR\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/wallets/{wallet}/transactions", "42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionId\":\"servlet-tx-2\",\"type\":\"BET\",\"amount\":20,\"currency\":\"EUR\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void refuses_a_transaction_without_an_id() throws Exception {
+        mvc.perform(post("/wallets/{wallet}/transactions", "42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"BET\",\"amount\":10,\"currency\":\"EUR\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
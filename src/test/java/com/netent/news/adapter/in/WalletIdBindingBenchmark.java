@@ -0,0 +1,83 @@
+package com.netent.news.adapter.in;
+
+import com.netent.news.domain.WalletId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning the {@code {wallet}} path variable into a {@link WalletId}: directly, through the conversion
+ * service with {@link StringToWalletIdConverter} as the controllers bind {@code @PathVariable WalletId}, and through
+ * the reflective fallback used without it; and of looking the id up in a map, as the balance cache does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletIdBindingBenchmark {
+
+    private final String[] values = {"1234567", "acme:1234567", "9f2c6a1e-5d7b-4f0e-8a31-2b6c9d4e7f10"};
+
+    private ConversionService conversionService;
+    private ConversionService reflectiveConversionService;
+    private final Map<WalletId, Integer> wallets = new HashMap<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        var service = new DefaultFormattingConversionService();
+        service.addConverter(new StringToWalletIdConverter());
+        conversionService = service;
+        reflectiveConversionService = new DefaultFormattingConversionService();
+        for (int i = 0; i < 10_000; i++) {
+            wallets.put(WalletId.of(i), i);
+        }
+        for (var value : values) {
+            wallets.put(WalletId.of(value), -1);
+        }
+    }
+
+    @Benchmark
+    public WalletId construct() {
+        return WalletId.of(value());
+    }
+
+    @Benchmark
+    public WalletId bind() {
+        return conversionService.convert(value(), WalletId.class);
+    }
+
+    @Benchmark
+    public WalletId bindReflectively() {
+        return reflectiveConversionService.convert(value(), WalletId.class);
+    }
+
+    @Benchmark
+    public Integer bindAndLookUp() {
+        return wallets.get(conversionService.convert(value(), WalletId.class));
+    }
+
+    @Benchmark
+    public int hashCodeOfNewWallet() {
+        return WalletId.of(value()).hashCode();
+    }
+
+    private String value() {
+        return values[next++ % values.length];
+    }
+}
@@ -0,0 +1,73 @@
+package com.netent.news.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 6, Duration.ofMillis(100), 0.5);
+
+    @Test
+    void rejects_calls_beyond_the_limit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+
+        limit.onCancel();
+
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void backs_off_on_slow_calls_down_to_the_minimum() {
+        call(SLOW, false);
+        assertEquals(2, limit.limit());
+
+        call(FAST, true);
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void backs_off_once_per_limit_worth_of_slow_answers() {
+        var limit = new AdaptiveConcurrencyLimit(8, 1, 8, Duration.ofMillis(100), 0.5);
+        slowAnswers(limit, 8);
+        assertEquals(4, limit.limit());
+
+        slowAnswers(limit, 4);
+
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void grows_on_fast_calls_up_to_the_bulkhead() {
+        for (int i = 0; i < 100; i++) {
+            call(FAST, false);
+        }
+
+        assertEquals(6, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    private static void slowAnswers(AdaptiveConcurrencyLimit limit, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        for (int i = 0; i < calls; i++) {
+            limit.onResult(SLOW, false);
+        }
+    }
+
+    private void call(long nanos, boolean error) {
+        assertTrue(limit.tryAcquire());
+        limit.onResult(nanos, error);
+    }
+}
@@ -0,0 +1,164 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.Deadline;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchingOperatorWalletFacadeTest {
+
+    private static final WalletId FIRST = WalletId.of("1");
+    private static final WalletId SECOND = WalletId.of("2");
+    private static final WalletId UNKNOWN = WalletId.of("unknown");
+
+    private final Queue<Collection<WalletId>> bulkCalls = new ConcurrentLinkedQueue<>();
+    private final Queue<Deadline> bulkDeadlines = new ConcurrentLinkedQueue<>();
+    private BatchingOperatorWalletFacade facade;
+
+    @AfterEach
+    void tearDown() {
+        facade.dispose();
+    }
+
+    @Test
+    void sends_lookups_within_window_as_one_bulk_call() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 100, Duration.ofMillis(50), 4);
+
+        var balances = Flux.merge(facade.getBalance(FIRST), facade.getBalance(SECOND), facade.getBalance(FIRST))
+                .collectList()
+                .block();
+
+        assertEquals(3, balances.size());
+        assertEquals(List.of(List.of(FIRST, SECOND)), List.copyOf(bulkCalls));
+    }
+
+    @Test
+    void sends_batch_as_soon_as_it_is_full() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 2, Duration.ofMinutes(1), 4);
+
+        StepVerifier.create(Flux.merge(facade.getBalance(FIRST), facade.getBalance(SECOND)))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, bulkCalls.size());
+    }
+
+    @Test
+    void refuses_lookups_of_wallets_missing_from_bulk_response() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 2, Duration.ofMillis(10), 4);
+
+        StepVerifier.create(facade.getBalance(UNKNOWN)).expectError(OperatorRejectedException.class).verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void fails_every_lookup_of_a_failed_batch() {
+        facade = new BatchingOperatorWalletFacade(operator(balances -> Mono.error(new IllegalStateException())), 2, Duration.ofMinutes(1), 4);
+
+        var first = StepVerifier.create(facade.getBalance(FIRST)).expectError(IllegalStateException.class).verifyLater();
+        var second = StepVerifier.create(facade.getBalance(SECOND)).expectError(IllegalStateException.class).verifyLater();
+
+        first.verify(Duration.ofSeconds(5));
+        second.verify(Duration.ofSeconds(5));
+        assertEquals(1, bulkCalls.size());
+    }
+
+    @Test
+    void sends_batch_under_earliest_deadline_of_its_lookups() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 2, Duration.ofMinutes(1), 4);
+        var earliest = Deadline.after(Duration.ofSeconds(5));
+
+        Flux.merge(facade.getBalance(FIRST).contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ofSeconds(10)))),
+                        facade.getBalance(SECOND).contextWrite(context -> context.put(Deadline.class, earliest)))
+                .blockLast(Duration.ofSeconds(5));
+
+        assertEquals(List.of(earliest), List.copyOf(bulkDeadlines));
+    }
+
+    @Test
+    void leaves_lookups_past_their_deadline_out_of_the_batch() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 2, Duration.ofMinutes(1), 4);
+
+        var late = StepVerifier.create(facade.getBalance(FIRST).contextWrite(context -> context.put(Deadline.class, Deadline.after(Duration.ZERO))))
+                .expectError(DeadlineExceededException.class)
+                .verifyLater();
+        StepVerifier.create(facade.getBalance(SECOND)).expectNextCount(1).expectComplete().verify(Duration.ofSeconds(5));
+
+        late.verify(Duration.ofSeconds(5));
+        assertEquals(List.of(List.of(SECOND)), List.copyOf(bulkCalls));
+    }
+
+    @Test
+    void keeps_bulk_calls_in_flight_within_bound() {
+        var inFlight = new AtomicInteger();
+        var mostInFlight = new AtomicInteger();
+        facade = new BatchingOperatorWalletFacade(operator(balances -> Mono.just(balances)
+                .doOnSubscribe(subscription -> mostInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(20))
+                .doOnNext(answered -> inFlight.decrementAndGet())), 1, Duration.ofMinutes(1), 2);
+
+        var balances = Flux.range(0, 10)
+                .flatMap(n -> facade.getBalance(WalletId.of(n)))
+                .count()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(10, balances);
+        assertEquals(2, mostInFlight.get());
+    }
+
+    @Test
+    void takes_lookups_from_many_threads_at_once() {
+        facade = new BatchingOperatorWalletFacade(operator(Mono::just), 50, Duration.ofMillis(1), 4);
+
+        var balances = Flux.range(0, 20_000)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(n -> facade.getBalance(WalletId.of(n)))
+                .sequential()
+                .count()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(20_000, balances);
+    }
+
+    private ReactiveOperatorWalletFacade operator(Function<Map<WalletId, OperatorGetBalance>, Mono<Map<WalletId, OperatorGetBalance>>> response) {
+        return new ReactiveOperatorWalletFacade() {
+            @Override
+            public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+                throw new AssertionError("single lookups must be batched");
+            }
+
+            @Override
+            public Mono<Map<WalletId, OperatorGetBalance>> getBalances(Collection<WalletId> wallets) {
+                bulkCalls.add(wallets);
+                var balances = wallets.stream()
+                        .filter(wallet -> !wallet.equals(UNKNOWN))
+                        .collect(Collectors.toMap(Function.identity(), wallet -> new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")));
+                return Mono.deferContextual(context -> {
+                    context.<Deadline>getOrEmpty(Deadline.class).ifPresent(bulkDeadlines::add);
+                    return response.apply(balances);
+                });
+            }
+        };
+    }
+}
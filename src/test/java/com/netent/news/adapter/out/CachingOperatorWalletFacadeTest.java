@@ -0,0 +1,188 @@
+package com.netent.news.adapter.out;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.SharedBalanceCache;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachingOperatorWalletFacadeTest {
+
+    private static final WalletId WALLET = WalletId.of("42");
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AsyncCache<WalletId, OperatorGetBalance> cache = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .maximumSize(100)
+            .recordStats()
+            .buildAsync();
+
+    @Test
+    void serves_repeated_lookups_from_cache() {
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"))), cache);
+
+        var first = facade.getBalance(WALLET).block();
+        var second = facade.getBalance(WALLET).block();
+
+        assertSame(first, second);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.synchronous().stats().hitCount());
+        assertEquals(1, cache.synchronous().stats().missCount());
+    }
+
+    @Test
+    void concurrent_misses_share_one_upstream_call() {
+        var upstream = Sinks.<OperatorGetBalance>one();
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> upstream.asMono()), cache);
+
+        var first = StepVerifier.create(facade.getBalance(WALLET)).expectNextCount(1).expectComplete().verifyLater();
+        var second = StepVerifier.create(facade.getBalance(WALLET)).expectNextCount(1).expectComplete().verifyLater();
+        upstream.tryEmitValue(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"));
+
+        first.verify();
+        second.verify();
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void cancelled_caller_does_not_cancel_shared_lookup() {
+        var upstream = Sinks.<OperatorGetBalance>one();
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> upstream.asMono()), cache);
+
+        StepVerifier.create(facade.getBalance(WALLET)).thenCancel().verify();
+        var waiting = StepVerifier.create(facade.getBalance(WALLET)).expectNextCount(1).expectComplete().verifyLater();
+        upstream.tryEmitValue(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"));
+
+        waiting.verify();
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void invalidated_wallet_is_fetched_again() {
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"))), cache);
+
+        facade.getBalance(WALLET).block();
+        facade.invalidate(WALLET);
+        facade.getBalance(WALLET).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void failed_lookup_is_not_cached() {
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> Mono.error(new IllegalStateException())), cache);
+
+        StepVerifier.create(facade.getBalance(WALLET)).verifyError(IllegalStateException.class);
+        StepVerifier.create(facade.getBalance(WALLET)).verifyError(IllegalStateException.class);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void replicas_share_balances_through_the_shared_cache() {
+        var shared = new InMemorySharedBalanceCache(Duration.ofMinutes(1), 100);
+        var upstream = counting(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR")));
+        var first = replica(upstream, shared);
+        var second = replica(upstream, shared.join());
+
+        first.getBalance(WALLET).block();
+        var balance = second.getBalance(WALLET).block();
+        var balances = second.getBalances(List.of(WALLET, WalletId.of("7"))).block();
+
+        assertEquals(BigDecimal.TEN, balance.amount());
+        assertEquals(2, balances.size());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, second.sharedHits());
+        assertEquals(1, second.sharedMisses());
+    }
+
+    @Test
+    void invalidation_reaches_the_other_replicas() {
+        var shared = new InMemorySharedBalanceCache(Duration.ofMinutes(1), 100);
+        var upstream = counting(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR")));
+        var first = replica(upstream, shared);
+        var secondChanges = new BalanceChangeFeed();
+        var second = new CachingOperatorWalletFacade(upstream, newCache(), secondChanges, shared.join(), Duration.ofSeconds(1));
+        second.start();
+        var changed = StepVerifier.create(secondChanges.changes()).expectNext(WALLET).thenCancel().verifyLater();
+
+        second.getBalance(WALLET).block();
+        first.invalidate(WALLET);
+        second.getBalance(WALLET).block();
+
+        changed.verify(Duration.ofSeconds(5));
+        assertEquals(2, upstreamCalls.get());
+        second.dispose();
+    }
+
+    @Test
+    void failing_shared_cache_falls_back_to_the_operator() {
+        var facade = new CachingOperatorWalletFacade(counting(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR"))),
+                cache, new BalanceChangeFeed(), failing(), Duration.ofSeconds(1));
+
+        assertEquals(BigDecimal.TEN, facade.getBalance(WALLET).block().amount());
+        facade.invalidate(WALLET);
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    private CachingOperatorWalletFacade replica(ReactiveOperatorWalletFacade upstream, SharedBalanceCache shared) {
+        var replica = new CachingOperatorWalletFacade(upstream, newCache(), new BalanceChangeFeed(), shared, Duration.ofSeconds(1));
+        replica.start();
+        return replica;
+    }
+
+    private static AsyncCache<WalletId, OperatorGetBalance> newCache() {
+        return Caffeine.newBuilder().executor(Runnable::run).expireAfterWrite(Duration.ofMinutes(1)).buildAsync();
+    }
+
+    private static SharedBalanceCache failing() {
+        return new SharedBalanceCache() {
+            @Override
+            public Mono<Map<WalletId, OperatorGetBalance>> getAll(Collection<WalletId> wallets) {
+                return Mono.error(new IllegalStateException());
+            }
+
+            @Override
+            public Mono<Void> putAll(Map<WalletId, OperatorGetBalance> balances, Instant lookedUpAt) {
+                return Mono.error(new IllegalStateException());
+            }
+
+            @Override
+            public Mono<Void> invalidate(WalletId wallet) {
+                return Mono.error(new IllegalStateException());
+            }
+
+            @Override
+            public Flux<WalletId> invalidations() {
+                return Flux.never();
+            }
+        };
+    }
+
+    private ReactiveOperatorWalletFacade counting(ReactiveOperatorWalletFacade upstream) {
+        return wallet -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.getBalance(wallet);
+        };
+    }
+}
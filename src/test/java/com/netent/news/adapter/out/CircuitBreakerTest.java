@@ -0,0 +1,97 @@
+package com.netent.news.adapter.out;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.netent.news.adapter.out.CircuitBreaker.State.CLOSED;
+import static com.netent.news.adapter.out.CircuitBreaker.State.HALF_OPEN;
+import static com.netent.news.adapter.out.CircuitBreaker.State.OPEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(50, Duration.ofSeconds(1), 10, 4,
+            Duration.ofSeconds(5), 2, now::get);
+
+    @Test
+    void opens_once_half_of_the_window_failed_or_was_slow() {
+        call(FAST, false);
+        call(FAST, true);
+        call(FAST, false);
+        assertEquals(CLOSED, breaker.state());
+
+        call(SLOW, false);
+
+        assertEquals(OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void needs_the_minimum_calls_before_opening() {
+        call(FAST, true);
+        call(FAST, true);
+        call(FAST, true);
+
+        assertEquals(CLOSED, breaker.state());
+    }
+
+    @Test
+    void closes_after_the_trial_calls_succeed() {
+        open();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only two trial calls");
+        assertEquals(HALF_OPEN, breaker.state());
+
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, false);
+
+        assertEquals(CLOSED, breaker.state());
+    }
+
+    @Test
+    void reopens_when_a_trial_call_fails() {
+        open();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, true);
+
+        assertEquals(OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void hands_back_cancelled_trial_calls() {
+        open();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onCancel();
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(FAST, true);
+        }
+        assertEquals(OPEN, breaker.state());
+    }
+
+    private void call(long nanos, boolean error) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(nanos, error);
+    }
+}
@@ -0,0 +1,126 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.DeadlineExceededException;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.Deadline;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HedgingOperatorWalletFacadeTest {
+
+    private static final WalletId WALLET = WalletId.of("42");
+    private static final OperatorGetBalance BALANCE = new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR");
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void hedges_a_lookup_slower_than_the_percentile_and_takes_the_first_answer() {
+        var hedging = hedging(10);
+        var facade = facade(wallet -> calls.incrementAndGet() == 1 ? Mono.never() : Mono.just(BALANCE), hedging, true, 0);
+
+        StepVerifier.withVirtualTime(() -> facade.getBalance(WALLET))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .expectNext(BALANCE)
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+        assertEquals(1, hedging.hedgesFired());
+        assertEquals(1, hedging.hedgesWon());
+    }
+
+    @Test
+    void records_the_latency_of_a_primary_that_answered_first_once() {
+        var recorded = new AtomicInteger();
+        var latency = new LatencyPercentile(95, 10, 1, 0) {
+            @Override
+            public void record(long nanos) {
+                recorded.incrementAndGet();
+                super.record(nanos);
+            }
+        };
+        latency.record(Duration.ofMillis(50).toNanos());
+        var facade = facade(wallet -> Mono.just(BALANCE), new OperatorHedging(latency, new RetryBudget(0, 10), Duration.ofMillis(5)),
+                true, 0);
+
+        StepVerifier.create(facade.getBalance(WALLET)).expectNext(BALANCE).verifyComplete();
+
+        assertEquals(2, recorded.get());
+    }
+
+    @Test
+    void does_not_hedge_once_the_budget_is_spent() {
+        var hedging = hedging(0);
+        var facade = facade(wallet -> {
+            calls.incrementAndGet();
+            return Mono.just(BALANCE).delayElement(Duration.ofSeconds(1));
+        }, hedging, true, 0);
+
+        StepVerifier.withVirtualTime(() -> facade.getBalance(WALLET))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(BALANCE)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, hedging.hedgesFired());
+    }
+
+    @Test
+    void retries_operator_failures_but_not_rejections() {
+        var hedging = hedging(10);
+        var retried = facade(wallet -> calls.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("connection reset"))
+                : Mono.just(BALANCE), hedging, false, 1);
+
+        StepVerifier.create(retried.getBalance(WALLET)).expectNext(BALANCE).verifyComplete();
+        assertEquals(1, hedging.retries());
+
+        var rejected = facade(wallet -> Mono.error(new OperatorUnavailableException("default")), hedging, false, 1);
+        StepVerifier.create(rejected.getBalance(WALLET)).expectError(OperatorUnavailableException.class).verify();
+        assertEquals(1, hedging.retries());
+    }
+
+    @Test
+    void fails_when_the_deadline_passes() {
+        var facade = facade(wallet -> Mono.never(), hedging(10), true, 1);
+
+        StepVerifier.create(facade.getBalance(WALLET)
+                        .contextWrite(Context.of(Deadline.class, Deadline.after(Duration.ofMillis(50)))))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    /**
+     * A hedge delay of 50 ms, known from the start.
+     */
+    private static OperatorHedging hedging(int budget) {
+        var latency = new LatencyPercentile(95, 10, 1, 0);
+        latency.record(Duration.ofMillis(50).toNanos());
+        return new OperatorHedging(latency, new RetryBudget(0, budget), Duration.ofMillis(5));
+    }
+
+    @Test
+    void fails_lookups_of_an_operator_without_hedging() {
+        var facade = new HedgingOperatorWalletFacade(wallet -> Mono.just(BALANCE), wallet -> "unknown", Map.of(), true, 0, Duration.ofMillis(1));
+
+        StepVerifier.create(facade.getBalance(WALLET)).expectError(IllegalStateException.class).verify();
+    }
+
+    private static HedgingOperatorWalletFacade facade(ReactiveOperatorWalletFacade delegate, OperatorHedging hedging,
+                                                      boolean hedge, int maxRetries) {
+        return new HedgingOperatorWalletFacade(delegate, wallet -> "default", Map.of("default", hedging), hedge,
+                maxRetries, Duration.ofMillis(1));
+    }
+}
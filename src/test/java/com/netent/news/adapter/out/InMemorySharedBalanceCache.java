@@ -0,0 +1,105 @@
+package com.netent.news.adapter.out;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.SharedBalanceCache;
+import com.netent.news.domain.WalletId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link SharedBalanceCache} held in this process, standing in for a networked one in tests.
+ * Replicas are simulated by {@link #join() joining} further instances to the same store: they share its balances and
+ * see each other's invalidations, as replicas sharing a networked cache would.
+ * <p>
+ * An invalidated wallet keeps a tombstone for {@code ttl}, so that lookups in flight at the time are not written
+ * afterwards; {@code ttl} must therefore exceed the operator read timeout.
+ */
+public class InMemorySharedBalanceCache implements SharedBalanceCache {
+    private final Store store;
+
+    public InMemorySharedBalanceCache(Duration ttl, long maximumSize) {
+        this(new Store(ttl, maximumSize));
+    }
+
+    private InMemorySharedBalanceCache(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * @return another replica's view of this cache
+     */
+    public InMemorySharedBalanceCache join() {
+        return new InMemorySharedBalanceCache(store);
+    }
+
+    @Override
+    public Mono<Map<WalletId, OperatorGetBalance>> getAll(Collection<WalletId> wallets) {
+        return Mono.fromSupplier(() -> {
+            var balances = new HashMap<WalletId, OperatorGetBalance>();
+            store.entries.getAllPresent(wallets).forEach((wallet, entry) -> {
+                if (entry.balance() != null) {
+                    balances.put(wallet, entry.balance());
+                }
+            });
+            return balances;
+        });
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<WalletId, OperatorGetBalance> balances, Instant lookedUpAt) {
+        return Mono.fromRunnable(() -> balances.forEach((wallet, balance) -> store.entries.asMap().compute(wallet,
+                (key, existing) -> existing != null && existing.invalidatedAt() != null && !lookedUpAt.isAfter(existing.invalidatedAt())
+                        ? existing
+                        : new Entry(balance, null))));
+    }
+
+    @Override
+    public Mono<Void> invalidate(WalletId wallet) {
+        return Mono.fromRunnable(() -> {
+            store.entries.put(wallet, new Entry(null, Instant.now()));
+            var invalidation = new Invalidation(this, wallet);
+            // no subscriber or no demand is fine, only concurrent emits are retried
+            while (store.invalidations.tryEmitNext(invalidation) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+        });
+    }
+
+    @Override
+    public Flux<WalletId> invalidations() {
+        return store.invalidations.asFlux()
+                .filter(invalidation -> invalidation.origin() != this)
+                .map(Invalidation::wallet);
+    }
+
+    /**
+     * @param balance       {@code null} for a tombstone
+     * @param invalidatedAt {@code null} unless a tombstone
+     */
+    private record Entry(OperatorGetBalance balance, Instant invalidatedAt) {
+    }
+
+    private record Invalidation(InMemorySharedBalanceCache origin, WalletId wallet) {
+    }
+
+    private static final class Store {
+        private final Cache<WalletId, Entry> entries;
+        private final Sinks.Many<Invalidation> invalidations = Sinks.many().multicast().directBestEffort();
+
+        Store(Duration ttl, long maximumSize) {
+            entries = Caffeine.newBuilder()
+                    .expireAfterWrite(ttl)
+                    .maximumSize(maximumSize)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemorySharedBalanceCacheTest {
+
+    private static final WalletId WALLET = WalletId.of("42");
+    private static final OperatorGetBalance BALANCE = new OperatorGetBalance(WALLET, BigDecimal.TEN, "EUR");
+
+    private final InMemorySharedBalanceCache cache = new InMemorySharedBalanceCache(Duration.ofMinutes(1), 100);
+
+    @Test
+    void lookups_in_flight_when_a_wallet_was_invalidated_are_not_written() {
+        var lookedUpBefore = Instant.now().minusSeconds(1);
+        cache.invalidate(WALLET).block();
+
+        cache.putAll(Map.of(WALLET, BALANCE), lookedUpBefore).block();
+        assertEquals(Map.of(), cache.getAll(List.of(WALLET)).block());
+
+        cache.putAll(Map.of(WALLET, BALANCE), Instant.now().plusSeconds(1)).block();
+        assertEquals(Map.of(WALLET, BALANCE), cache.getAll(List.of(WALLET)).block());
+    }
+
+    @Test
+    void replicas_see_each_others_invalidations_but_not_their_own() {
+        var other = cache.join();
+        var seenByOther = StepVerifier.create(other.invalidations()).expectNext(WALLET).thenCancel().verifyLater();
+        var seenBySelf = StepVerifier.create(cache.invalidations()).expectSubscription().expectNoEvent(Duration.ofMillis(100)).thenCancel().verifyLater();
+
+        cache.invalidate(WALLET).block();
+
+        seenByOther.verify(Duration.ofSeconds(5));
+        seenBySelf.verify(Duration.ofSeconds(5));
+    }
+}
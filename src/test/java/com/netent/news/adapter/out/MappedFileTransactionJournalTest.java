@@ -0,0 +1,115 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.JournaledTransaction;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileTransactionJournalTest {
+
+    private static final WalletId WALLET = WalletId.of(42);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopened_journal_knows_the_latest_entry_of_every_transaction() throws IOException {
+        try (var journal = open(1 << 16, 4)) {
+            journal.append(JournaledTransaction.pending(bet("tx-1")));
+            journal.append(JournaledTransaction.completed(bet("tx-1"), balance(90)));
+            journal.append(JournaledTransaction.pending(bet("tx-2")));
+            journal.append(JournaledTransaction.rejected(bet("tx-3"), "insufficient funds"));
+        }
+
+        try (var journal = open(1 << 16, 4)) {
+            assertEquals(Optional.of(JournaledTransaction.completed(bet("tx-1"), balance(90))), journal.find("tx-1"));
+            assertEquals(Optional.of(JournaledTransaction.rejected(bet("tx-3"), "insufficient funds")), journal.find("tx-3"));
+            assertEquals(List.of(JournaledTransaction.pending(bet("tx-2"))), journal.pending());
+        }
+    }
+
+    @Test
+    void replay_stops_at_a_torn_record_which_the_next_append_overwrites() throws IOException {
+        try (var journal = open(1 << 16, 4)) {
+            journal.append(JournaledTransaction.pending(bet("tx-1")));
+        }
+        try (var segment = FileChannel.open(segments().get(0), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var length = ByteBuffer.allocate(4);
+            segment.read(length, 0);
+            // a record whose body was not completely written when the process died
+            segment.write(ByteBuffer.allocate(8).putInt(40).putInt(12345).flip(), 8 + length.flip().getInt());
+        }
+
+        try (var journal = open(1 << 16, 4)) {
+            assertEquals(List.of(JournaledTransaction.pending(bet("tx-1"))), journal.pending());
+            journal.append(JournaledTransaction.pending(bet("tx-2")));
+        }
+        try (var journal = open(1 << 16, 4)) {
+            assertEquals(List.of(JournaledTransaction.pending(bet("tx-1")), JournaledTransaction.pending(bet("tx-2"))),
+                    journal.pending());
+        }
+    }
+
+    @Test
+    void forgets_the_oldest_outcomes_but_keeps_pending_transactions() throws IOException {
+        try (var journal = open(1024, 2)) {
+            journal.append(JournaledTransaction.pending(bet("unanswered")));
+            for (int i = 0; i < 100; i++) {
+                journal.append(JournaledTransaction.completed(bet("tx-" + i), balance(i)));
+            }
+
+            assertEquals(2, segments().size());
+            assertEquals(Optional.empty(), journal.find("tx-0"));
+            assertEquals(Optional.of(JournaledTransaction.completed(bet("tx-99"), balance(99))), journal.find("tx-99"));
+            assertEquals(List.of(JournaledTransaction.pending(bet("unanswered"))), journal.pending());
+        }
+
+        try (var journal = open(1024, 2)) {
+            assertTrue(journal.find("tx-99").isPresent());
+            assertEquals(List.of(JournaledTransaction.pending(bet("unanswered"))), journal.pending());
+        }
+    }
+
+    @Test
+    void is_opened_by_one_journal_at_a_time() throws IOException {
+        try (var journal = open(1 << 16, 4)) {
+            assertThrows(IllegalStateException.class, () -> open(1 << 16, 4));
+        }
+    }
+
+    private MappedFileTransactionJournal open(int segmentSize, int maxSegments) throws IOException {
+        return new MappedFileTransactionJournal(directory, segmentSize, maxSegments, Duration.ZERO);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static WalletTransaction bet(String id) {
+        return new WalletTransaction(id, WALLET, TransactionType.BET, new BigDecimal("10.00"), "EUR", "session-1", null);
+    }
+
+    private static OperatorGetBalance balance(int amount) {
+        return new OperatorGetBalance(WALLET, BigDecimal.valueOf(amount), "EUR");
+    }
+}
@@ -0,0 +1,85 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.StubOperator;
+import com.netent.news.load.RunningApplication;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fault injection: one of two operators answers after seconds while its wallets are flooded with lookups. Tomcat has
+ * fewer threads than flooding requests, so without isolation the degraded operator would hold every thread and the
+ * healthy operator's lookups would queue behind it.
+ */
+class OperatorIsolationTest {
+
+    private static final int TOMCAT_THREADS = 20;
+    private static final int FLOOD = 100;
+
+    @Test
+    void healthy_operator_keeps_its_latency_while_another_is_degraded() throws Exception {
+        try (var healthy = StubOperator.start(Duration.ofMillis(5));
+             var degraded = StubOperator.start(Duration.ofSeconds(3));
+             var application = RunningApplication.start(healthy.baseUrl(), List.of(
+                     "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                     "--operator.wallet.operators.degraded.base-url=" + degraded.baseUrl(),
+                     "--operator.wallet.resilience.limit.initial=5",
+                     "--operator.wallet.resilience.limit.max=10"))) {
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            // the first lookup of each operator loads classes and opens connections, which is not what is measured
+            client.send(get(application, "healthy-warm-up"), HttpResponse.BodyHandlers.discarding());
+            client.send(get(application, "degraded:warm-up"), HttpResponse.BodyHandlers.discarding());
+
+            var flood = new ArrayList<CompletableFuture<HttpResponse<Void>>>();
+            for (int i = 0; i < FLOOD; i++) {
+                flood.add(client.sendAsync(get(application, "degraded:" + i), HttpResponse.BodyHandlers.discarding()));
+            }
+
+            var slowest = 0L;
+            for (int i = 0; i < 20; i++) {
+                var start = System.nanoTime();
+                var response = client.send(get(application, "healthy-" + i), HttpResponse.BodyHandlers.discarding());
+                slowest = Math.max(slowest, System.nanoTime() - start);
+                assertEquals(200, response.statusCode());
+            }
+
+            var rejected = flood.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 503).count();
+            assertTrue(Duration.ofNanos(slowest).compareTo(Duration.ofSeconds(1)) < 0,
+                    "healthy lookups took up to " + Duration.ofNanos(slowest).toMillis() + " ms");
+            assertTrue(rejected >= FLOOD - 10, rejected + " of " + FLOOD + " degraded lookups failed fast");
+        }
+    }
+
+    @Test
+    void hedged_lookups_leave_no_call_in_flight() throws Exception {
+        try (var operator = StubOperator.start(Duration.ofMillis(5));
+             var application = RunningApplication.start(operator.baseUrl(), List.of(
+                     "--operator.wallet.hedge.min-samples=5"))) {
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // hedged once the operator's percentile is known, a few lookups in
+            for (int i = 0; i < 50; i++) {
+                // other wallets each time, past the cache
+                assertEquals(200, client.send(get(application, String.valueOf(i)), HttpResponse.BodyHandlers.discarding()).statusCode());
+            }
+
+            var operators = client.send(HttpRequest.newBuilder(URI.create(application.baseUrl() + "/actuator/operators")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            assertTrue(operators.contains("\"inFlight\":0,"), operators);
+        }
+    }
+
+    private static HttpRequest get(RunningApplication application, String wallet) {
+        return HttpRequest.newBuilder(URI.create(application.baseUrl() + "/wallets/" + wallet + "/balance")).build();
+    }
+}
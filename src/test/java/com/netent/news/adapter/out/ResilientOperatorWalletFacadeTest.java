@@ -0,0 +1,106 @@
+package com.netent.news.adapter.out;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorUnavailableException;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResilientOperatorWalletFacadeTest {
+
+    private static final WalletId HEALTHY = WalletId.of("healthy:1");
+    private static final WalletId DEGRADED = WalletId.of("degraded:1");
+
+    private final Map<String, OperatorGuard> guards = Map.of(
+            "healthy", guard(),
+            "degraded", guard());
+
+    @Test
+    void fails_fast_once_the_operator_limit_is_reached() {
+        var pending = Sinks.<OperatorGetBalance>one();
+        var facade = facade(wallet -> wallet.equals(DEGRADED) ? pending.asMono() : Mono.just(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR")), null);
+
+        var inFlight = StepVerifier.create(facade.getBalance(DEGRADED)).expectNextCount(1).expectComplete().verifyLater();
+
+        StepVerifier.create(facade.getBalance(DEGRADED)).expectError(OperatorUnavailableException.class).verify();
+        StepVerifier.create(facade.getBalance(HEALTHY)).expectNextCount(1).verifyComplete();
+        assertEquals(1, guards.get("degraded").rejected());
+
+        pending.tryEmitValue(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"));
+        inFlight.verify();
+        assertEquals(0, guards.get("degraded").inFlight());
+    }
+
+    @Test
+    void releases_the_guard_once_when_the_caller_cancels_after_the_answer() {
+        var facade = facade(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR")), null);
+
+        for (int i = 0; i < 3; i++) {
+            // the first of two answers, as a hedged lookup takes it
+            Flux.merge(facade.getBalance(HEALTHY), Mono.never()).next().block();
+        }
+
+        assertEquals(0, guards.get("healthy").inFlight());
+    }
+
+    @Test
+    void serves_the_last_balance_when_the_operator_fails() {
+        var balance = new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR");
+        var stale = Caffeine.newBuilder().<WalletId, OperatorGetBalance>build();
+        var calls = new int[1];
+        var facade = facade(wallet -> calls[0]++ == 0
+                ? Mono.just(balance)
+                : Mono.error(new IllegalStateException("operator down")), stale);
+
+        facade.getBalance(HEALTHY).block();
+
+        assertSame(balance, facade.getBalance(HEALTHY).block());
+        assertSame(balance, facade.getBalances(List.of(HEALTHY)).block().get(HEALTHY));
+    }
+
+    @Test
+    void client_errors_do_not_open_the_circuit() {
+        var facade = facade(wallet -> Mono.error(WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null)), null);
+
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(facade.getBalance(HEALTHY)).expectError(WebClientResponseException.class).verify();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guards.get("healthy").state());
+    }
+
+    @Test
+    void fails_calls_to_an_operator_without_a_guard() {
+        var facade = facade(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR")), null);
+
+        StepVerifier.create(facade.getBalance(WalletId.of("unknown:1"))).expectError(IllegalStateException.class).verify();
+    }
+
+    private ResilientOperatorWalletFacade facade(ReactiveOperatorWalletFacade delegate,
+                                                 Cache<WalletId, OperatorGetBalance> stale) {
+        return new ResilientOperatorWalletFacade(delegate, wallet -> wallet.value().split(":")[0], guards, stale);
+    }
+
+    private static OperatorGuard guard() {
+        return new OperatorGuard(
+                new CircuitBreaker(50, Duration.ofSeconds(1), 4, 2, Duration.ofSeconds(5), 1),
+                new AdaptiveConcurrencyLimit(1, 1, 1, Duration.ofSeconds(1), 0.5));
+    }
+}
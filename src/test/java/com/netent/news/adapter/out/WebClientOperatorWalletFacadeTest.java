@@ -0,0 +1,134 @@
+package com.netent.news.adapter.out;
+
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class WebClientOperatorWalletFacadeTest {
+
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private DisposableServer acme;
+    private DisposableServer fallback;
+    private WebClientOperatorWalletFacade facade;
+
+    @BeforeEach
+    void setUp() {
+        acme = stubOperator("acme");
+        fallback = stubOperator("default");
+        facade = new WebClientOperatorWalletFacade(Map.of(
+                "acme", WebClient.create("http://localhost:" + acme.port()),
+                "default", WebClient.create("http://localhost:" + fallback.port())),
+                "default");
+    }
+
+    @AfterEach
+    void tearDown() {
+        acme.disposeNow();
+        fallback.disposeNow();
+    }
+
+    @Test
+    void routes_wallet_to_operator_named_by_prefix() {
+        StepVerifier.create(facade.getBalance(WalletId.of("acme:42"))).expectNextCount(1).verifyComplete();
+
+        assertEquals("acme /wallets/acme%3A42/balance", requests.poll());
+    }
+
+    @Test
+    void routes_unknown_prefix_to_default_operator() {
+        StepVerifier.create(facade.getBalance(WalletId.of("other:42"))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(facade.getBalance(WalletId.of("42"))).expectNextCount(1).verifyComplete();
+
+        assertEquals("default /wallets/other%3A42/balance", requests.poll());
+        assertEquals("default /wallets/42/balance", requests.poll());
+    }
+
+    @Test
+    void sends_one_bulk_lookup_per_operator() {
+        var wallets = List.of(WalletId.of("acme:1"), WalletId.of("acme:2"), WalletId.of("3"));
+
+        var balances = facade.getBalances(wallets).block();
+
+        assertEquals(Set.copyOf(wallets), balances.keySet());
+        assertEquals(Set.of("acme /wallets/balances [\"acme:1\",\"acme:2\"]", "default /wallets/balances [\"3\"]"), Set.copyOf(requests));
+    }
+
+    @Test
+    void fails_when_no_operator_is_configured() {
+        var unconfigured = new WebClientOperatorWalletFacade(Map.of(), "default");
+
+        StepVerifier.create(unconfigured.getBalance(WalletId.of("42"))).verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void sends_transactions_to_the_operator_of_their_wallet() {
+        StepVerifier.create(facade.transact(bet("tx-1", "acme:42", 10)))
+                .expectNextMatches(balance -> balance.amount().intValue() == 90)
+                .verifyComplete();
+
+        assertEquals("acme /wallets/acme%3A42/transactions {\"transactionId\":\"tx-1\",\"type\":\"BET\",\"amount\":10,"
+                + "\"currency\":\"EUR\",\"sessionId\":\"session-1\",\"gameId\":null}", requests.poll());
+    }
+
+    @Test
+    void fails_a_transaction_the_operator_refuses_with_its_reason() {
+        StepVerifier.create(facade.transact(bet("tx-1", "42", 1000)))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(OperatorRejectedException.class, e);
+                    assertEquals("Refused by the operator (402): insufficient funds", e.getMessage());
+                })
+                .verify();
+    }
+
+    private static WalletTransaction bet(String id, String wallet, int amount) {
+        return new WalletTransaction(id, WalletId.of(wallet), TransactionType.BET, BigDecimal.valueOf(amount), "EUR", "session-1", null);
+    }
+
+    private DisposableServer stubOperator(String name) {
+        return HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/wallets/{wallet}/balance", (request, response) -> {
+                            requests.add(name + " " + request.uri());
+                            return response.header("Content-Type", "application/json").sendString(Mono.just("{}"));
+                        })
+                        .post("/wallets/balances", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(request.receive().aggregate().asString().map(body -> {
+                                    requests.add(name + " " + request.uri() + " " + body);
+                                    // echo every requested wallet id back with an empty balance
+                                    return body.replaceAll("\\[|]", "").replaceAll("(\"[^\"]+\")", "$1:{}")
+                                            .transform(ids -> "{" + ids + "}");
+                                })))
+                        .post("/wallets/{wallet}/transactions", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> {
+                                    requests.add(name + " " + request.uri() + " " + body);
+                                    // refuses stakes above 100
+                                    if (new BigDecimal(body.replaceAll(".*\"amount\":([0-9.]+).*", "$1")).compareTo(BigDecimal.valueOf(100)) > 0) {
+                                        return response.status(402).sendString(Mono.just("insufficient funds")).then();
+                                    }
+                                    return response.header("Content-Type", "application/json")
+                                            .sendString(Mono.just("{\"amount\":90,\"currency\":\"EUR\"}")).then();
+                                })))
+                .bindNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.TooManyWalletsException;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalanceFanOutTest {
+
+    @Test
+    void splits_distinct_wallets_into_chunks() {
+        var fanOut = new BalanceFanOut(10, 2, 1);
+
+        var chunks = fanOut.chunks(wallets(1, 2, 2, 3, 4, 5));
+
+        assertEquals(List.of(wallets(1, 2), wallets(3, 4), wallets(5)), chunks);
+    }
+
+    @Test
+    void rejects_too_many_wallets_before_looking_any_up() {
+        var fanOut = new BalanceFanOut(2, 2, 1);
+        var lookups = new AtomicInteger();
+
+        assertThrows(TooManyWalletsException.class, () -> fanOut.fanOut(wallets(1, 2, 3), chunk -> {
+            lookups.incrementAndGet();
+            return Mono.just(chunk);
+        }));
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void bounds_lookups_in_flight() {
+        var fanOut = new BalanceFanOut(100, 1, 3);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+
+        var answered = fanOut.fanOut(wallets(IntStream.rangeClosed(1, 20).toArray()), chunk -> Mono.delay(Duration.ofMillis(5))
+                        .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .doOnTerminate(inFlight::decrementAndGet)
+                        .thenReturn(chunk))
+                .count().block();
+
+        assertEquals(20, answered);
+        assertEquals(3, maxInFlight.get());
+    }
+
+    private static List<WalletId> wallets(int... ids) {
+        return IntStream.of(ids).mapToObj(WalletId::of).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BalanceSubscriptionsTest {
+
+    private static final WalletId WALLET = WalletId.of(42);
+
+    private final AtomicReference<BigDecimal> balance = new AtomicReference<>(BigDecimal.TEN);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Sinks.Many<WalletId> changes = Sinks.many().multicast().directBestEffort();
+    private final BalanceSubscriptions subscriptions = new BalanceSubscriptions(wallet -> {
+        lookups.incrementAndGet();
+        return Mono.just(new OperatorGetBalance(wallet, balance.get(), "EUR"));
+    }, changes::asFlux, Duration.ofHours(1), 50, 8);
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.dispose();
+    }
+
+    @Test
+    void pushes_current_balance_then_changes() {
+        subscriptions.start();
+
+        StepVerifier.create(subscriptions.subscribe(WALLET))
+                .expectNext(response(BigDecimal.TEN))
+                .then(() -> {
+                    balance.set(BigDecimal.ONE);
+                    changes.tryEmitNext(WALLET);
+                })
+                .expectNext(response(BigDecimal.ONE))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void does_not_push_unchanged_balance() {
+        subscriptions.start();
+
+        StepVerifier.create(subscriptions.subscribe(WALLET))
+                .expectNext(response(BigDecimal.TEN))
+                .then(() -> {
+                    balance.set(new BigDecimal("10.00"));
+                    changes.tryEmitNext(WALLET);
+                })
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void slow_subscriber_gets_latest_balance_only() {
+        subscriptions.start();
+
+        StepVerifier.create(subscriptions.subscribe(WALLET), 1)
+                .expectNext(response(BigDecimal.TEN))
+                .then(() -> {
+                    balance.set(BigDecimal.ONE);
+                    changes.tryEmitNext(WALLET);
+                    balance.set(BigDecimal.ZERO);
+                    changes.tryEmitNext(WALLET);
+                })
+                .thenRequest(1)
+                .expectNext(response(BigDecimal.ZERO))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribers_of_a_wallet_share_its_topic() {
+        var first = new ArrayList<GetBalanceResponse>();
+        var second = new ArrayList<GetBalanceResponse>();
+
+        var firstSubscription = subscriptions.subscribe(WALLET).subscribe(first::add);
+        var secondSubscription = subscriptions.subscribe(WALLET).subscribe(second::add);
+
+        assertEquals(List.of(response(BigDecimal.TEN)), first);
+        assertEquals(List.of(response(BigDecimal.TEN)), second);
+        assertEquals(1, lookups.get());
+        assertEquals(1, subscriptions.subscribedWallets());
+
+        firstSubscription.dispose();
+        assertEquals(1, subscriptions.subscribedWallets());
+        secondSubscription.dispose();
+        assertEquals(0, subscriptions.subscribedWallets());
+    }
+
+    @Test
+    void refreshes_subscribed_wallets_periodically() {
+        var refreshing = new BalanceSubscriptions(wallet -> Mono.just(new OperatorGetBalance(wallet, balance.get(), "EUR")),
+                changes::asFlux, Duration.ofMillis(20), 50, 8);
+        refreshing.start();
+        try {
+            StepVerifier.create(refreshing.subscribe(WALLET))
+                    .expectNext(response(BigDecimal.TEN))
+                    .then(() -> balance.set(BigDecimal.ONE))
+                    .expectNext(response(BigDecimal.ONE))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+        } finally {
+            refreshing.dispose();
+        }
+    }
+
+    private static GetBalanceResponse response(BigDecimal amount) {
+        return new GetBalanceResponse(WALLET, amount, "EUR");
+    }
+}
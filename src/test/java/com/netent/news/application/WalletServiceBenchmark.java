@@ -0,0 +1,114 @@
+package com.netent.news.application;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netent.news.BenchmarkLogging;
+import com.netent.news.StubOperator;
+import com.netent.news.adapter.out.CachingOperatorWalletFacade;
+import com.netent.news.adapter.out.MappedFileTransactionJournal;
+import com.netent.news.adapter.out.OperatorWalletFacadeImpl;
+import com.netent.news.adapter.out.WebClientOperatorWalletFacade;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.in.TransactionResponse;
+import com.netent.news.application.port.out.BalanceInvalidator;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.application.port.out.RequestScope;
+import com.netent.news.config.logging.client.WebClientFactory;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link WalletServiceImpl#getBalance(WalletId)} through the blocking bridge and the WebClient adapter to a stub
+ * operator on the loopback interface, with and without the balance cache, and {@link WalletServiceImpl#transact}
+ * the same way, with its journal in a temporary directory. Client logging is configured as in production, only
+ * written below WARN.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletServiceBenchmark {
+
+    @Param({"operator", "cache"})
+    public String path;
+
+    private StubOperator operator;
+    private MappedFileTransactionJournal journal;
+    private WalletServiceImpl walletService;
+    private WalletId[] wallets;
+    private int next;
+    private long transactionId;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkLogging.warningsOnly();
+        operator = StubOperator.start(Duration.ZERO);
+
+        var webClient = new WebClientFactory(WebClient.builder()).fromBaseUrl(operator.baseUrl());
+        ReactiveOperatorWalletFacade facade = new WebClientOperatorWalletFacade(Map.of("default", webClient), "default");
+        if ("cache".equals(path)) {
+            facade = new CachingOperatorWalletFacade(facade, Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMinutes(1))
+                    .maximumSize(10_000)
+                    .buildAsync());
+        }
+        journal = new MappedFileTransactionJournal(Files.createTempDirectory("journal"), 1 << 20, 2, Duration.ofMillis(10));
+        var transactions = new WalletTransactions(journal, facade instanceof BalanceInvalidator cache ? cache : BalanceInvalidator.NONE,
+                new WalletStripes(64, List.of("default"), wallet -> "default"));
+        walletService = new WalletServiceImpl(new OperatorWalletFacadeImpl(facade, RequestScope.NONE), new BalanceFanOut(1000, 50, 8),
+                transactions, RequestScope.NONE, Schedulers.boundedElastic());
+        wallets = IntStream.range(0, 1024).mapToObj(i -> WalletId.of(String.valueOf(i))).toArray(WalletId[]::new);
+        if ("cache".equals(path)) {
+            // measure hits only
+            for (WalletId wallet : wallets) {
+                walletService.getBalance(wallet);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        operator.close();
+    }
+
+    @Benchmark
+    public GetBalanceResponse getBalance() {
+        return walletService.getBalance(wallets[next++ & (wallets.length - 1)]);
+    }
+
+    /**
+     * A new transaction every time, journaled before and after its operator call.
+     */
+    @Benchmark
+    public TransactionResponse transact() {
+        var wallet = wallets[next++ & (wallets.length - 1)];
+        return walletService.transact(new WalletTransaction("tx-" + transactionId++, wallet, TransactionType.BET,
+                BigDecimal.ONE, "EUR", null, null));
+    }
+}
@@ -0,0 +1,166 @@
+package com.netent.news.application;
+
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletStripesTest {
+
+    private static final WalletId WALLET = WalletId.of(42);
+
+    private final WalletStripes stripes = new WalletStripes(16, List.of("default", "acme"),
+            wallet -> wallet.value().startsWith("acme:") ? "acme" : "default");
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    @Test
+    void runs_the_operations_of_a_wallet_one_after_the_other_in_submission_order() {
+        var first = new CompletableFuture<String>();
+        var second = new CompletableFuture<String>();
+
+        var results = List.of(
+                stripes.submit(WALLET, () -> start("first", first)),
+                stripes.submit(WALLET, () -> start("second", second)),
+                stripes.submit(WALLET, () -> start("third", CompletableFuture.completedFuture("third"))));
+
+        assertEquals(List.of("first"), started);
+        assertEquals(3, stripes.depth("default"));
+        assertEquals(3, stripes.maxDepth("default"));
+        first.complete("first");
+        assertEquals(List.of("first", "second"), started);
+        second.complete("second");
+
+        assertEquals(List.of("first", "second", "third"), started);
+        assertEquals(List.of("first", "second", "third"), results.stream().map(CompletableFuture::join).toList());
+        assertEquals(0, stripes.depth("default"));
+    }
+
+    @Test
+    void runs_wallets_of_other_stripes_in_parallel() {
+        var other = WalletId.of(7);
+        assertNotEquals(stripes.stripeOf(WALLET), stripes.stripeOf(other));
+
+        stripes.submit(WALLET, () -> start("first", new CompletableFuture<>()));
+        stripes.submit(other, () -> start("other", new CompletableFuture<>()));
+
+        assertEquals(List.of("first", "other"), started);
+    }
+
+    @Test
+    void runs_wallets_of_other_operators_in_parallel_on_stripes_of_their_own() {
+        var other = IntStream.range(0, 1000)
+                .mapToObj(i -> WalletId.of("acme:" + i))
+                .filter(wallet -> stripes.stripeOf(wallet) == stripes.stripeOf(WALLET))
+                .findFirst().orElseThrow();
+
+        stripes.submit(WALLET, () -> start("stuck", new CompletableFuture<>()));
+        stripes.submit(WALLET, () -> start("waiting", new CompletableFuture<>()));
+        stripes.submit(other, () -> start("other operator", new CompletableFuture<>()));
+
+        assertEquals(List.of("stuck", "other operator"), started);
+        assertEquals(2, stripes.depth("default"));
+        assertEquals(1, stripes.depth("acme"));
+    }
+
+    @Test
+    void an_operation_that_throws_fails_alone() {
+        var failed = stripes.submit(WALLET, () -> {
+            throw new IllegalStateException("journal closed");
+        });
+        var next = stripes.submit(WALLET, () -> start("next", CompletableFuture.completedFuture("next")));
+
+        assertThrows(Exception.class, failed::join);
+        assertEquals("next", next.join());
+    }
+
+    @Test
+    void keeps_the_time_operations_waited_per_operator() {
+        var first = new CompletableFuture<String>();
+        stripes.submit(WALLET, () -> first);
+        stripes.submit(WALLET, () -> CompletableFuture.completedFuture("second"));
+
+        assertEquals(1, stripes.started("default"));
+        first.complete("first");
+
+        assertEquals(2, stripes.started("default"));
+        assertTrue(stripes.waitedNanos("default") > 0);
+        assertEquals(0, stripes.started("acme"));
+    }
+
+    @Test
+    void keeps_the_depth_and_wait_of_every_stripe() {
+        var stripe = stripes.stripeOf(WALLET);
+        var first = new CompletableFuture<String>();
+        stripes.submit(WALLET, () -> first);
+        stripes.submit(WALLET, () -> CompletableFuture.completedFuture("second"));
+
+        assertEquals(2, stripes.depth("default", stripe));
+        assertEquals(0, stripes.depth("default", (stripe + 1) % stripes.stripes()));
+        first.complete("first");
+
+        assertEquals(0, stripes.depth("default", stripe));
+        assertEquals(2, stripes.started("default", stripe));
+        assertTrue(stripes.waitedNanos("default", stripe) > 0);
+    }
+
+    @Test
+    void never_runs_two_operations_of_a_stripe_at_once() throws InterruptedException {
+        var running = new AtomicInteger();
+        var overlaps = new AtomicInteger();
+        var completed = new AtomicInteger();
+        var threads = 8;
+        var perThread = 10_000;
+        var done = new CountDownLatch(threads);
+        var executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    stripes.submit(WALLET, () -> {
+                        if (running.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        running.decrementAndGet();
+                        completed.incrementAndGet();
+                        return CompletableFuture.completedFuture(null);
+                    });
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(threads * perThread, completed.get());
+        assertEquals(0, overlaps.get());
+        assertEquals(0, stripes.depth("default"));
+    }
+
+    @Test
+    void needs_a_power_of_two_stripes() {
+        assertThrows(IllegalArgumentException.class, () -> new WalletStripes(12, List.of("default"), wallet -> "default"));
+    }
+
+    @Test
+    void refuses_wallets_of_an_operator_without_stripes() {
+        var stripes = new WalletStripes(16, List.of("default"), wallet -> "acme");
+
+        assertThrows(IllegalStateException.class, () -> stripes.submit(WALLET, () -> CompletableFuture.completedFuture("lost")));
+    }
+
+    private CompletableFuture<String> start(String name, CompletableFuture<String> operation) {
+        started.add(name);
+        return operation;
+    }
+}
@@ -0,0 +1,213 @@
+package com.netent.news.application;
+
+import com.netent.news.application.port.in.TransactionConflictException;
+import com.netent.news.application.port.in.TransactionResponse;
+import com.netent.news.application.port.out.BalanceInvalidator;
+import com.netent.news.application.port.out.JournaledTransaction;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.TransactionJournal;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class WalletTransactionsTest {
+
+    private static final WalletId WALLET = WalletId.of(42);
+
+    private final InMemoryJournal journal = new InMemoryJournal();
+    private final List<WalletId> invalidated = new CopyOnWriteArrayList<>();
+    private final WalletStripes stripes = new WalletStripes(64, List.of("default"), wallet -> "default");
+    private final WalletTransactions transactions = new WalletTransactions(journal, new BalanceInvalidator() {
+        @Override
+        public void invalidate(WalletId wallet) {
+            invalidated.add(wallet);
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+    }, stripes);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void answers_a_retry_from_the_journal() {
+        var transaction = bet("tx-1", WALLET, 10);
+
+        var first = transactions.transact(transaction, this::applied).block();
+        var retry = transactions.transact(bet("tx-1", WALLET, 10), this::applied).block();
+
+        assertEquals(new TransactionResponse("tx-1", WALLET, BigDecimal.valueOf(90), "EUR"), first);
+        assertEquals(first, retry);
+        assertEquals(1, calls.get());
+        assertEquals(List.of(WALLET), invalidated);
+        assertEquals(JournaledTransaction.Status.COMPLETED, journal.find("tx-1").orElseThrow().status());
+    }
+
+    @Test
+    void retry_of_a_transaction_in_flight_waits_for_it() {
+        var answer = Sinks.<OperatorGetBalance>one();
+        var transaction = bet("tx-1", WALLET, 10);
+
+        var first = StepVerifier.create(transactions.transact(transaction, tx -> {
+            calls.incrementAndGet();
+            return answer.asMono();
+        })).expectNextCount(1).expectComplete().verifyLater();
+        var retry = StepVerifier.create(transactions.transact(transaction, this::applied))
+                .expectNextCount(1).expectComplete().verifyLater();
+        answer.tryEmitValue(balance(WALLET, 90));
+
+        first.verify(Duration.ofSeconds(1));
+        retry.verify(Duration.ofSeconds(1));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void retry_sent_while_the_transaction_is_being_sent_joins_it() {
+        var transaction = bet("tx-1", WALLET, 10);
+        var retries = new ArrayList<StepVerifier>();
+
+        var first = transactions.transact(transaction, tx -> {
+            retries.add(StepVerifier.create(transactions.transact(transaction, this::applied))
+                    .expectNext(new TransactionResponse("tx-1", WALLET, BigDecimal.valueOf(90), "EUR"))
+                    .expectComplete().verifyLater());
+            return applied(tx);
+        }).block();
+
+        assertEquals(new TransactionResponse("tx-1", WALLET, BigDecimal.valueOf(90), "EUR"), first);
+        retries.forEach(retry -> retry.verify(Duration.ofSeconds(1)));
+        assertEquals(1, retries.size());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sends_the_transactions_of_a_wallet_one_after_the_other() {
+        var answers = new ConcurrentHashMap<String, Sinks.One<OperatorGetBalance>>();
+        var sent = new CopyOnWriteArrayList<String>();
+        var other = WalletId.of(7);
+        assertNotEquals(stripes.stripeOf(WALLET), stripes.stripeOf(other));
+
+        var verifiers = new ArrayList<StepVerifier>();
+        for (var transaction : List.of(bet("tx-1", WALLET, 10), bet("tx-2", WALLET, 10), bet("tx-3", other, 10))) {
+            verifiers.add(StepVerifier.create(transactions.transact(transaction, tx -> {
+                sent.add(tx.id());
+                return answers.computeIfAbsent(tx.id(), id -> Sinks.one()).asMono();
+            })).expectNextCount(1).expectComplete().verifyLater());
+        }
+
+        // tx-2 waits for tx-1, tx-3 of another wallet does not
+        assertEquals(List.of("tx-1", "tx-3"), sent);
+        answers.get("tx-1").tryEmitValue(balance(WALLET, 90));
+        assertEquals(List.of("tx-1", "tx-3", "tx-2"), sent);
+        answers.get("tx-2").tryEmitValue(balance(WALLET, 80));
+        answers.get("tx-3").tryEmitValue(balance(other, 90));
+
+        verifiers.forEach(verifier -> verifier.verify(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void a_failed_transaction_does_not_hold_back_the_next_one_of_its_wallet() {
+        StepVerifier.create(transactions.transact(bet("tx-1", WALLET, 10), tx -> Mono.error(new IOException("connection reset"))))
+                .verifyError(IOException.class);
+
+        StepVerifier.create(transactions.transact(bet("tx-2", WALLET, 10), this::applied))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void answers_a_retry_of_a_rejected_transaction_with_the_rejection() {
+        var transaction = bet("tx-1", WALLET, 1000);
+
+        StepVerifier.create(transactions.transact(transaction, tx -> {
+            calls.incrementAndGet();
+            return Mono.error(new OperatorRejectedException("insufficient funds"));
+        })).verifyErrorMessage("insufficient funds");
+        StepVerifier.create(transactions.transact(transaction, this::applied)).verifyErrorMessage("insufficient funds");
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of(), invalidated);
+    }
+
+    @Test
+    void sends_a_transaction_of_unknown_outcome_again_on_recovery() {
+        StepVerifier.create(transactions.transact(bet("tx-1", WALLET, 10), tx -> Mono.error(new IOException("read timeout"))))
+                .verifyError(IOException.class);
+        assertEquals(JournaledTransaction.Status.PENDING, journal.find("tx-1").orElseThrow().status());
+
+        StepVerifier.create(transactions.recover(this::applied)).expectNext(1L).verifyComplete();
+
+        assertEquals(JournaledTransaction.Status.COMPLETED, journal.find("tx-1").orElseThrow().status());
+        assertEquals(List.of(), journal.pending());
+    }
+
+    @Test
+    void refuses_a_transaction_id_reused_for_a_different_transaction() {
+        transactions.transact(bet("tx-1", WALLET, 10), this::applied).block();
+
+        StepVerifier.create(transactions.transact(bet("tx-1", WALLET, 20), this::applied))
+                .verifyError(TransactionConflictException.class);
+        // the same amount, written differently, is a retry
+        StepVerifier.create(transactions.transact(new WalletTransaction("tx-1", WALLET, TransactionType.BET,
+                        new BigDecimal("10.00"), "EUR", null, null), this::applied))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    private Mono<OperatorGetBalance> applied(WalletTransaction transaction) {
+        calls.incrementAndGet();
+        return Mono.just(balance(transaction.wallet(), 100 - transaction.amount().intValue()));
+    }
+
+    private static WalletTransaction bet(String id, WalletId wallet, int amount) {
+        return new WalletTransaction(id, wallet, TransactionType.BET, BigDecimal.valueOf(amount), "EUR", null, null);
+    }
+
+    private static OperatorGetBalance balance(WalletId wallet, int amount) {
+        return new OperatorGetBalance(wallet, BigDecimal.valueOf(amount), "EUR");
+    }
+
+    private static final class InMemoryJournal implements TransactionJournal {
+        private final Map<String, JournaledTransaction> entries = new ConcurrentHashMap<>();
+        private final List<String> order = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Optional<JournaledTransaction> find(String transactionId) {
+            return Optional.ofNullable(entries.get(transactionId));
+        }
+
+        @Override
+        public void append(JournaledTransaction entry) {
+            if (entries.put(entry.transaction().id(), entry) == null) {
+                order.add(entry.transaction().id());
+            }
+        }
+
+        @Override
+        public List<JournaledTransaction> pending() {
+            return order.stream()
+                    .map(entries::get)
+                    .filter(entry -> entry.status() == JournaledTransaction.Status.PENDING)
+                    .toList();
+        }
+    }
+}
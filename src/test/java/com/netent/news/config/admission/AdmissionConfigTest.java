@@ -0,0 +1,35 @@
+package com.netent.news.config.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionConfigTest {
+
+    private final AdmissionProperties properties = new AdmissionProperties();
+    private final ServerProperties server = new ServerProperties();
+
+    @Test
+    void serves_no_more_requests_at_a_time_than_tomcat_has_platform_threads() {
+        properties.setCapacity(512);
+        server.getTomcat().getThreads().setMax(200);
+
+        assertEquals(200, AdmissionConfig.capacity(properties, server));
+    }
+
+    @Test
+    void keeps_a_capacity_within_tomcat_threads() {
+        properties.setCapacity(150);
+        server.getTomcat().getThreads().setMax(200);
+
+        assertEquals(150, AdmissionConfig.capacity(properties, server));
+    }
+
+    @Test
+    void keeps_the_capacity_when_not_serving_on_platform_threads() {
+        properties.setCapacity(512);
+
+        assertEquals(512, AdmissionConfig.capacity(properties, null));
+    }
+}
@@ -0,0 +1,121 @@
+package com.netent.news.config.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.netent.news.config.admission.AdmissionControl.Result.ADMITTED;
+import static com.netent.news.config.admission.AdmissionControl.Result.LIMITED;
+import static com.netent.news.config.admission.AdmissionControl.Result.SHED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(123_456_789);
+    private final AdmissionProperties properties = new AdmissionProperties();
+
+    @Test
+    void limits_each_caller_to_its_rate_after_a_burst() {
+        properties.setRate(10);
+        properties.setBurst(3);
+        var control = control();
+
+        for (int i = 0; i < 3; i++) {
+            control.admit("casino-1/provider", Priority.READ).close();
+        }
+        var limited = control.admit("casino-1/provider", Priority.READ);
+        var other = control.admit("casino-2/provider", Priority.READ);
+
+        assertEquals(LIMITED, limited.result());
+        assertEquals(429, limited.status().value());
+        assertEquals(1, limited.retryAfterSeconds());
+        assertEquals(ADMITTED, other.result());
+        assertEquals(1, control.count(Priority.READ, LIMITED));
+        assertEquals(4, control.count(Priority.READ, ADMITTED));
+    }
+
+    @Test
+    void refills_a_bucket_at_the_rate() {
+        properties.setRate(10);
+        properties.setBurst(1);
+        var control = control();
+
+        assertEquals(ADMITTED, control.admit("casino/provider", Priority.TRANSACTION).result());
+        clock.addAndGet(50 * MILLIS);
+        assertEquals(LIMITED, control.admit("casino/provider", Priority.TRANSACTION).result());
+        clock.addAndGet(50 * MILLIS);
+        assertEquals(ADMITTED, control.admit("casino/provider", Priority.TRANSACTION).result());
+    }
+
+    @Test
+    void callers_beyond_the_maximum_share_a_bucket() {
+        properties.setRate(10);
+        properties.setBurst(1);
+        properties.setMaxCallers(1);
+        var control = control();
+
+        assertEquals(ADMITTED, control.admit("casino-1/provider", Priority.READ).result());
+        assertEquals(ADMITTED, control.admit("casino-2/provider", Priority.READ).result());
+        assertEquals(LIMITED, control.admit("casino-3/provider", Priority.READ).result());
+    }
+
+    @Test
+    void sheds_reads_before_transactions_as_the_queue_grows() {
+        properties.setRate(0);
+        properties.setCapacity(2);
+        properties.getMaxQueueTime().put(Priority.TRANSACTION, Duration.ofMillis(200));
+        properties.getMaxQueueTime().put(Priority.READ, Duration.ofMillis(50));
+        var control = control();
+        // requests are served in 100ms
+        var served = control.admit("casino/provider", Priority.READ);
+        clock.addAndGet(100 * MILLIS);
+        served.close();
+
+        control.admit("casino/provider", Priority.TRANSACTION);
+        assertEquals(0, control.queueTimeNanos());
+        control.admit("casino/provider", Priority.TRANSACTION);
+        assertEquals(50 * MILLIS, control.queueTimeNanos());
+        assertEquals(ADMITTED, control.admit("casino/provider", Priority.READ).result());
+
+        var shed = control.admit("casino/provider", Priority.READ);
+        assertEquals(SHED, shed.result());
+        assertEquals(503, shed.status().value());
+        assertEquals(ADMITTED, control.admit("casino/provider", Priority.TRANSACTION).result());
+        assertEquals(4, control.inFlight());
+    }
+
+    @Test
+    void subscriptions_are_shed_first_and_not_held_in_flight() {
+        properties.setRate(0);
+        properties.setCapacity(1);
+        var control = control();
+
+        var subscription = control.admit("casino/provider", Priority.SUBSCRIPTION);
+        assertEquals(ADMITTED, subscription.result());
+        assertEquals(0, control.inFlight());
+
+        var read = control.admit("casino/provider", Priority.READ);
+        clock.addAndGet(10 * MILLIS);
+        read.close();
+        control.admit("casino/provider", Priority.READ);
+        assertEquals(SHED, control.admit("casino/provider", Priority.SUBSCRIPTION).result());
+        assertEquals(ADMITTED, control.admit("casino/provider", Priority.READ).result());
+    }
+
+    @Test
+    void classifies_requests_by_what_they_do() {
+        assertEquals(Priority.READ, Priority.of("GET", "/wallets/42/balance"));
+        assertEquals(Priority.READ, Priority.of("POST", "/wallets/balances"));
+        assertEquals(Priority.SUBSCRIPTION, Priority.of("GET", "/wallets/42/balance/updates"));
+        assertEquals(Priority.TRANSACTION, Priority.of("POST", "/wallets/42/transactions"));
+        assertEquals(Priority.TRANSACTION, Priority.of("POST", "/wallets/balanceX/transactions"));
+        assertEquals(Priority.TRANSACTION, Priority.of("POST", "/gameproviderapi/bet"));
+    }
+
+    private AdmissionControl control() {
+        return new AdmissionControl(properties, clock::get);
+    }
+}
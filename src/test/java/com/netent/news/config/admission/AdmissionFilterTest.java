@@ -0,0 +1,91 @@
+package com.netent.news.config.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionFilterTest {
+
+    private final List<String> served = new ArrayList<>();
+    private final AdmissionControl admissionControl;
+    private final AdmissionFilter filter;
+
+    AdmissionFilterTest() {
+        var properties = new AdmissionProperties();
+        properties.setRate(1);
+        properties.setBurst(1);
+        admissionControl = new AdmissionControl(properties);
+        filter = new AdmissionFilter(admissionControl);
+    }
+
+    @Test
+    void answers_a_caller_over_its_rate_with_429_without_serving_it() throws Exception {
+        var first = filter(request("casinoId=casino-1&providerName=provider"));
+        var second = filter(request("providerName=provider&casinoId=casino-1"));
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertEquals(List.of("/wallets/42/transactions"), served);
+    }
+
+    @Test
+    void names_the_caller_by_header_or_query_parameter() throws Exception {
+        var header = request(null);
+        header.addHeader("casinoId", "casino-1");
+        header.addHeader("providerName", "provider");
+
+        assertEquals(200, filter(header).getStatus());
+        assertEquals(429, filter(request("casinoId=casino-1&providerName=provider")).getStatus());
+        assertEquals(200, filter(request("casinoId=casino-2&providerName=provider")).getStatus());
+    }
+
+    @Test
+    void holds_the_admission_of_a_streamed_response_until_it_completes() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/wallets/balances");
+        request.setAsyncSupported(true);
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (servedRequest, servedResponse) -> {
+            servedRequest.startAsync(servedRequest, servedResponse);
+            servedResponse.getWriter().println("{\"wallet\":\"42\"}");
+        });
+        assertEquals(1, admissionControl.inFlight());
+        var async = (MockAsyncContext) request.getAsyncContext();
+        async.getResponse().getWriter().println("{\"wallet\":\"43\"}");
+        assertEquals(1, admissionControl.inFlight());
+        for (var listener : async.getListeners()) {
+            listener.onTimeout(new AsyncEvent(async, request, response));
+        }
+        async.complete();
+
+        assertEquals(0, admissionControl.inFlight());
+    }
+
+    @Test
+    void releases_the_admission_of_a_response_served_on_the_calling_thread() throws Exception {
+        filter(request("casinoId=casino-1&providerName=provider"));
+
+        assertEquals(0, admissionControl.inFlight());
+    }
+
+    private MockHttpServletRequest request(String query) {
+        var request = new MockHttpServletRequest("POST", "/wallets/42/transactions");
+        request.setQueryString(query);
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (servedRequest, servedResponse) ->
+                served.add(((MockHttpServletRequest) servedRequest).getRequestURI()));
+        return response;
+    }
+}
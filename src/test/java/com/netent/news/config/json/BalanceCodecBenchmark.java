@@ -0,0 +1,82 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a balance, and of a bulk answer of {@code wallets} balances, as JSON and as CBOR. Payload
+ * sizes are printed at setup: a single balance is 59 bytes of JSON and 50 of CBOR, fifty are 3751 and 3152.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceCodecBenchmark {
+
+    private static final GetBalanceResponse RESPONSE =
+            new GetBalanceResponse(WalletId.of("acme:1234567"), new BigDecimal("1250.75"), "EUR");
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "50"})
+    public int wallets;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        var mapper = (format.equals("cbor") ? new ObjectMapper(new CBORFactory()) : new ObjectMapper())
+                .registerModule(new BalanceJsonModule());
+        if (wallets == 1) {
+            value = RESPONSE;
+            reader = mapper.readerFor(OperatorGetBalance.class);
+        } else {
+            var balances = new LinkedHashMap<String, GetBalanceResponse>();
+            for (int i = 0; i < wallets; i++) {
+                balances.put("acme:" + (1234567 + i), RESPONSE);
+            }
+            value = balances;
+            reader = mapper.readerFor(mapper.getTypeFactory().constructMapType(Map.class, String.class, OperatorGetBalance.class));
+        }
+        writer = mapper.writer();
+        payload = writer.writeValueAsBytes(value);
+        System.out.println(format + " payload of " + wallets + " balance(s): " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,126 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializerBase;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding a balance response and decoding an operator balance: with the reflective record mapping of a
+ * plain mapper or with {@link BalanceJsonModule}; and of encoding into a pooled Netty buffer with the default
+ * encoder, which copies through a byte array, or with {@link DirectJackson2JsonEncoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceJsonBenchmark {
+
+    private static final GetBalanceResponse RESPONSE =
+            new GetBalanceResponse(WalletId.of(1234567), new BigDecimal("1250.75"), "EUR");
+    private static final byte[] OPERATOR_BALANCE =
+            "{\"wallet\":\"1234567\",\"amount\":1250.75,\"currency\":\"EUR\"}".getBytes(StandardCharsets.UTF_8);
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(GetBalanceResponse.class);
+
+    @Param({"reflective", "module"})
+    public String mapping;
+
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper().registerModule(walletIdAsString());
+        if (mapping.equals("module")) {
+            mapper.registerModule(new BalanceJsonModule());
+        }
+        writer = mapper.writerFor(GetBalanceResponse.class);
+        reader = mapper.readerFor(OperatorGetBalance.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Encoder {
+
+        @Param({"default", "direct"})
+        public String encoder;
+
+        private Jackson2JsonEncoder jsonEncoder;
+        private final NettyDataBufferFactory buffers = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+        @Setup
+        public void setUp(BalanceJsonBenchmark benchmark) {
+            jsonEncoder = encoder.equals("direct")
+                    ? new DirectJackson2JsonEncoder(benchmark.mapper)
+                    : new Jackson2JsonEncoder(benchmark.mapper);
+        }
+    }
+
+    /**
+     * What the reflective mapping needs to read and write a wallet id at all.
+     */
+    private static SimpleModule walletIdAsString() {
+        return new SimpleModule()
+                .addSerializer(WalletId.class, new ToStringSerializerBase(WalletId.class) {
+                    @Override
+                    public String valueToString(Object value) {
+                        return ((WalletId) value).value();
+                    }
+                })
+                .addDeserializer(WalletId.class, new FromStringDeserializer<>(WalletId.class) {
+                    @Override
+                    protected WalletId _deserialize(String value, DeserializationContext context) {
+                        return WalletId.of(value);
+                    }
+                });
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return writer.writeValueAsBytes(RESPONSE);
+    }
+
+    @Benchmark
+    public OperatorGetBalance read() throws Exception {
+        return reader.readValue(OPERATOR_BALANCE);
+    }
+
+    @Benchmark
+    public int encodeIntoPooledBuffer(Encoder encoder) {
+        DataBuffer buffer = encoder.jsonEncoder.encodeValue(RESPONSE, encoder.buffers, RESPONSE_TYPE, MediaType.APPLICATION_JSON, Map.of());
+        var length = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return length;
+    }
+}
@@ -0,0 +1,43 @@
+package com.netent.news.config.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netent.news.application.port.in.GetBalanceResponse;
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.domain.WalletId;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BalanceJsonModuleTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new BalanceJsonModule());
+
+    @Test
+    void writes_balances_as_flat_objects() throws Exception {
+        var response = new GetBalanceResponse(WalletId.of("acme:42"), new BigDecimal("12.50"), "EUR");
+
+        assertEquals("{\"wallet\":\"acme:42\",\"amount\":12.50,\"currency\":\"EUR\"}", mapper.writeValueAsString(response));
+    }
+
+    @Test
+    void reads_operator_balances_skipping_unknown_fields() throws Exception {
+        var json = "{\"wallet\":42,\"bonus\":{\"amount\":5},\"amount\":\"12.50\",\"currency\":\"EUR\",\"tags\":[1,2]}";
+
+        assertEquals(new OperatorGetBalance(WalletId.of(42), new BigDecimal("12.50"), "EUR"),
+                mapper.readValue(json, OperatorGetBalance.class));
+    }
+
+    @Test
+    void reads_bulk_answers_and_missing_fields_as_null() throws Exception {
+        var json = "{\"1\":{\"amount\":1.5},\"2\":{\"wallet\":null,\"currency\":\"SEK\"}}";
+
+        Map<String, OperatorGetBalance> balances = mapper.readValue(json,
+                mapper.getTypeFactory().constructMapType(Map.class, String.class, OperatorGetBalance.class));
+
+        assertEquals(new OperatorGetBalance(null, new BigDecimal("1.5"), null), balances.get("1"));
+        assertEquals(new OperatorGetBalance(null, null, "SEK"), balances.get("2"));
+    }
+}
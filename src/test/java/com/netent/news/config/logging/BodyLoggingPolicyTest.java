@@ -0,0 +1,74 @@
+package com.netent.news.config.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyLoggingPolicyTest {
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final byte[] BODY = "{\"amount\":100}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void decodes_short_body_completely() {
+        var policy = new BodyLoggingPolicy(1.0, 1024);
+
+        assertEquals("{\"amount\":100}", policy.decode(BODY, BODY.length, BODY.length, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void truncates_long_body_and_notes_its_size() {
+        var policy = new BodyLoggingPolicy(1.0, 5);
+
+        assertEquals("{\"amo...[14 bytes]", policy.decode(BODY, BODY.length, BODY.length, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void notes_size_of_body_captured_only_partially() {
+        var policy = new BodyLoggingPolicy(1.0, 1024);
+
+        assertEquals("{\"amo...[14 bytes]", policy.decode(BODY, 5, BODY.length, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void transcodes_cbor_body_to_json() throws Exception {
+        var policy = new BodyLoggingPolicy(1.0, 1024);
+        var cbor = CBOR.writeValueAsBytes(Map.of("amount", 100));
+
+        assertEquals("{\"amount\":100}", policy.decode(cbor, cbor.length, cbor.length, MediaType.APPLICATION_CBOR, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void transcodes_truncated_cbor_body_as_far_as_it_goes() throws Exception {
+        var policy = new BodyLoggingPolicy(1.0, 10);
+        var cbor = CBOR.writeValueAsBytes(Map.of("wallet", "acme:42"));
+
+        assertEquals("{\"wallet\"}...[" + cbor.length + " bytes]", policy.decode(cbor, cbor.length, cbor.length, MediaType.APPLICATION_CBOR, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void logs_other_binary_bodies_as_base64_and_text_ones_as_text() {
+        var policy = new BodyLoggingPolicy(1.0, 1024);
+        var binary = new byte[]{0, 1, 2, (byte) 255};
+
+        assertEquals("base64:AAEC/w==", policy.decode(binary, binary.length, binary.length, MediaType.APPLICATION_OCTET_STREAM, StandardCharsets.UTF_8));
+        assertEquals("{\"amount\":100}", policy.decode(BODY, BODY.length, BODY.length, MediaType.APPLICATION_PROBLEM_JSON, StandardCharsets.UTF_8));
+        assertEquals("{\"amount\":100}", policy.decode(BODY, BODY.length, BODY.length, null, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void samples_all_or_nothing_at_the_bounds() {
+        assertTrue(new BodyLoggingPolicy(1.0, 0).sample());
+        assertFalse(new BodyLoggingPolicy(0.0, 0).sample());
+        assertThrows(IllegalArgumentException.class, () -> new BodyLoggingPolicy(1.5, 0));
+    }
+}
@@ -0,0 +1,158 @@
+package com.netent.news.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferAppenderTest {
+
+    private static final Pattern DROPPED = Pattern.compile("WARN (\\d+) events dropped");
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger(RingBufferAppenderTest.class);
+    private final RingBufferAppender appender = new RingBufferAppender();
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    void writes_every_event_once_stopped() {
+        var output = new ByteArrayOutputStream();
+        start(output, 16, true);
+
+        for (int i = 0; i < 10; i++) {
+            logger.info("event {}", i);
+        }
+        appender.stop();
+
+        var lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(10, lines.size());
+        assertEquals("INFO event 0", lines.get(0));
+        assertEquals("INFO event 9", lines.get(9));
+    }
+
+    @Test
+    void writes_a_batch_with_one_call() throws Exception {
+        var writes = new AtomicInteger();
+        var blocked = new CountDownLatch(1);
+        var output = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                if (writes.incrementAndGet() == 1) {
+                    // hold the writer so that the next events pile up in the ring buffer
+                    await(blocked);
+                }
+                super.write(bytes, offset, length);
+            }
+        };
+        start(output, 64, true);
+
+        logger.info("first");
+        for (int i = 0; i < 20; i++) {
+            logger.info("pending {}", i);
+        }
+        blocked.countDown();
+        appender.stop();
+
+        assertEquals(21, output.toString(StandardCharsets.UTF_8).lines().count());
+        assertTrue(writes.get() <= 3, writes.get() + " writes");
+    }
+
+    @Test
+    void drops_and_reports_events_once_full_when_never_blocking() {
+        var blocked = new CountDownLatch(1);
+        var output = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                await(blocked);
+                super.write(bytes, offset, length);
+            }
+        };
+        // one event per write, so that the writer blocks right after the first
+        appender.setBatchSize(1);
+        start(output, 4, true);
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("event {}", i);
+        }
+        var dropped = appender.getDroppedCount();
+        blocked.countDown();
+        appender.stop();
+
+        assertTrue(dropped > 0);
+        var reported = DROPPED.matcher(output.toString(StandardCharsets.UTF_8)).results()
+                .mapToLong(result -> Long.parseLong(result.group(1)))
+                .sum();
+        assertEquals(dropped, reported);
+    }
+
+    @Test
+    void waits_for_room_when_blocking() {
+        var output = new ByteArrayOutputStream();
+        start(output, 2, false);
+
+        for (int i = 0; i < 1000; i++) {
+            logger.info("event {}", i);
+        }
+        appender.stop();
+
+        assertEquals(0, appender.getDroppedCount());
+        assertEquals(1000, output.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private void start(OutputStream output, int queueSize, boolean neverBlock) {
+        var encoder = new EncoderBase<ILoggingEvent>() {
+            @Override
+            public byte[] headerBytes() {
+                return null;
+            }
+
+            @Override
+            public byte[] encode(ILoggingEvent event) {
+                return (event.getLevel() + " " + event.getFormattedMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public byte[] footerBytes() {
+                return null;
+            }
+        };
+        encoder.setContext(context);
+        encoder.start();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setEncoder(encoder);
+        appender.setOutputStream(output);
+        appender.setQueueSize(queueSize);
+        appender.setNeverBlock(neverBlock);
+        appender.setMaxFlushTime(10_000);
+        appender.start();
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
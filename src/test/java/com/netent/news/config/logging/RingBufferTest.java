@@ -0,0 +1,82 @@
+package com.netent.news.config.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void rounds_capacity_up_to_a_power_of_two() {
+        assertEquals(1, new RingBuffer<>(1).capacity());
+        assertEquals(8, new RingBuffer<>(5).capacity());
+        assertEquals(8, new RingBuffer<>(8).capacity());
+    }
+
+    @Test
+    void drains_in_offer_order_and_rejects_when_full() {
+        var buffer = new RingBuffer<Integer>(4);
+
+        IntStream.range(0, 4).forEach(i -> assertTrue(buffer.offer(i)));
+        assertFalse(buffer.offer(4));
+
+        var drained = new ArrayList<Integer>();
+        assertEquals(3, buffer.drain(drained::add, 3));
+        assertTrue(buffer.offer(4));
+        assertEquals(2, buffer.drain(drained::add, 10));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void loses_nothing_offered_concurrently() throws Exception {
+        var buffer = new RingBuffer<Integer>(1024);
+        var producers = 4;
+        var perProducer = 100_000;
+        var start = new CountDownLatch(1);
+        var threads = IntStream.range(0, producers).mapToObj(p -> new Thread(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (int i = 0; i < perProducer; i++) {
+                while (!buffer.offer(p * perProducer + i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        })).toList();
+        threads.forEach(Thread::start);
+        start.countDown();
+
+        var seen = new boolean[producers * perProducer];
+        var last = new int[producers];
+        Arrays.fill(last, -1);
+        var count = 0;
+        while (count < seen.length) {
+            count += buffer.drain(value -> {
+                seen[value] = true;
+                // every producer's elements arrive in the order it offered them
+                assertTrue(value % perProducer > last[value / perProducer]);
+                last[value / perProducer] = value % perProducer;
+            }, 256);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        for (var value : seen) {
+            assertTrue(value);
+        }
+        assertTrue(buffer.isEmpty());
+    }
+}
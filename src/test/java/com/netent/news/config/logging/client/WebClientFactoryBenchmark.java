@@ -0,0 +1,121 @@
+package com.netent.news.config.logging.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netent.news.BenchmarkLogging;
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the body logging codecs over the plain Jackson codecs, on pooled Netty buffers as used by the Reactor
+ * Netty connector, and of the header formatting done for every client request log. Logged bodies go to a field rather
+ * than a logger, so only the copying and decoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebClientFactoryBenchmark {
+
+    @Param({"64", "16384"})
+    public int bodySize;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final ResolvableType mapType = ResolvableType.forClass(Map.class);
+
+    private Jackson2JsonEncoder plainEncoder;
+    private Jackson2JsonEncoder loggingEncoder;
+    private Jackson2JsonDecoder plainDecoder;
+    private Jackson2JsonDecoder loggingDecoder;
+    private Map<String, String> value;
+    private byte[] encoded;
+    private HttpHeaders headers;
+    private volatile String logged;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.warningsOnly();
+        var policy = new BodyLoggingPolicy(1.0, 2048);
+        plainEncoder = new Jackson2JsonEncoder();
+        loggingEncoder = new WebClientFactory.LoggingEncoder(new ObjectMapper(), policy, () -> true, body -> logged = body);
+        plainDecoder = new Jackson2JsonDecoder();
+        loggingDecoder = new WebClientFactory.LoggingDecoder(new ObjectMapper(), policy, () -> true, body -> logged = body);
+
+        value = Map.of("wallet", "acme:42", "currency", "EUR", "padding", "x".repeat(bodySize));
+        var buffer = plainEncoder.encodeValue(value, bufferFactory, mapType, MediaType.APPLICATION_JSON, Map.of());
+        encoded = buffer.toString(StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setBearerAuth("secret");
+        headers.add("X-Casino-Id", "acme");
+    }
+
+    @Benchmark
+    public int encodePlain() {
+        return encode(plainEncoder);
+    }
+
+    @Benchmark
+    public int encodeLogging() {
+        return encode(loggingEncoder);
+    }
+
+    @Benchmark
+    public Object decodePlain() {
+        return decode(plainDecoder);
+    }
+
+    @Benchmark
+    public Object decodeLogging() {
+        return decode(loggingDecoder);
+    }
+
+    @Benchmark
+    public String getHeaders() {
+        return WebClientFactory.getHeaders(headers);
+    }
+
+    private int encode(Jackson2JsonEncoder encoder) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, mapType, MediaType.APPLICATION_JSON, Map.of());
+        var size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private Object decode(Jackson2JsonDecoder decoder) {
+        // two chunks, as a body usually arrives
+        var half = encoded.length / 2;
+        var first = bufferFactory.allocateBuffer(half).write(encoded, 0, half);
+        var second = bufferFactory.allocateBuffer(encoded.length - half).write(encoded, half, encoded.length - half);
+        return decoder.decodeToMono(Flux.just(first, second), mapType, MediaType.APPLICATION_JSON, Map.of()).block();
+    }
+}
@@ -0,0 +1,161 @@
+package com.netent.news.config.logging.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.netent.news.StubOperator;
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import com.netent.news.config.tracing.Span;
+import com.netent.news.config.tracing.TraceContext;
+import com.netent.news.config.tracing.TraceHeaders;
+import com.netent.news.config.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WebClientFactoryTest {
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final List<String> logged = new ArrayList<>();
+
+    @Test
+    void encoder_logs_bounded_prefix_and_leaves_buffer_readable() {
+        var encoder = new WebClientFactory.LoggingEncoder(new ObjectMapper(), new BodyLoggingPolicy(1.0, 8), () -> true, logged::add);
+
+        var data = encoder.encodeValue(Map.of("wallet", "acme:42"), bufferFactory,
+                ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON, Map.of());
+
+        assertEquals(List.of("{\"wallet...[20 bytes]"), logged);
+        assertEquals("{\"wallet\":\"acme:42\"}", data.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decoder_logs_bounded_prefix_across_buffers_and_still_decodes_whole_body() {
+        var decoder = new WebClientFactory.LoggingDecoder(new ObjectMapper(), new BodyLoggingPolicy(1.0, 12), () -> true, logged::add);
+
+        var decoded = decoder.decodeToMono(Flux.just(buffer("{\"wallet\":"), buffer("\"acme:42\"}")),
+                ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+        assertEquals(Map.of("wallet", "acme:42"), decoded);
+        assertEquals(List.of("{\"wallet\":\"a...[20 bytes]"), logged);
+    }
+
+    @Test
+    void decoder_logs_small_body_completely() {
+        var decoder = new WebClientFactory.LoggingDecoder(new ObjectMapper(), new BodyLoggingPolicy(1.0, 1024), () -> true, logged::add);
+
+        decoder.decodeToMono(Flux.just(buffer("{}")), ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+        assertEquals(List.of("{}"), logged);
+    }
+
+    @Test
+    void codecs_follow_the_log_level_from_one_exchange_to_the_next() {
+        var enabled = new AtomicBoolean(false);
+        var encoder = new WebClientFactory.LoggingEncoder(new ObjectMapper(), new BodyLoggingPolicy(1.0, 1024), enabled::get, logged::add);
+        var decoder = new WebClientFactory.LoggingDecoder(new ObjectMapper(), new BodyLoggingPolicy(1.0, 1024), enabled::get, logged::add);
+
+        encoder.encodeValue(List.of(), bufferFactory, ResolvableType.forClass(List.class), MediaType.APPLICATION_JSON, Map.of());
+        decoder.decodeToMono(Flux.just(buffer("{}")), ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON, Map.of()).block();
+        enabled.set(true);
+        encoder.encodeValue(List.of(), bufferFactory, ResolvableType.forClass(List.class), MediaType.APPLICATION_JSON, Map.of());
+        decoder.decodeToMono(Flux.just(buffer("{}")), ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON, Map.of()).block();
+
+        assertEquals(List.of("[]", "{}"), logged);
+    }
+
+    @Test
+    void cbor_encoder_logs_body_as_json() {
+        var encoder = new WebClientFactory.LoggingCborEncoder(CBOR, new BodyLoggingPolicy(1.0, 1024), () -> true, logged::add);
+
+        var data = encoder.encodeValue(List.of("acme:1", "acme:2"), bufferFactory,
+                ResolvableType.forClass(List.class), MediaType.APPLICATION_CBOR, Map.of());
+
+        assertEquals(List.of("[\"acme:1\",\"acme:2\"]"), logged);
+        assertEquals(15, data.readableByteCount());
+    }
+
+    @Test
+    void cbor_client_asks_operator_for_cbor() {
+        try (var operator = StubOperator.start(Duration.ZERO)) {
+            var client = new WebClientFactory(WebClient.builder(), null).fromBaseUrl(operator.baseUrl(), MediaType.APPLICATION_CBOR);
+
+            var response = client.get().uri("/wallets/{wallet}/balance", "42").retrieve().toEntity(Map.class).block();
+
+            assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+            assertEquals(Map.of("wallet", "42", "amount", 100.0, "currency", "EUR"), response.getBody());
+        }
+    }
+
+    @Test
+    void cbor_client_sends_request_bodies_as_cbor() {
+        try (var operator = StubOperator.start(Duration.ZERO)) {
+            var client = new WebClientFactory(WebClient.builder(), BodyLoggingPolicy.LOG_ALL).fromBaseUrl(operator.baseUrl(), MediaType.APPLICATION_CBOR);
+
+            var balances = client.post().uri("/wallets/balances").bodyValue(List.of("1", "2")).retrieve().bodyToMono(Map.class).block();
+
+            assertEquals(Set.of("1", "2"), balances.keySet());
+        }
+    }
+
+    @Test
+    void json_client_gets_json() {
+        try (var operator = StubOperator.start(Duration.ZERO)) {
+            var client = new WebClientFactory(WebClient.builder(), null).fromBaseUrl(operator.baseUrl());
+
+            var response = client.get().uri("/wallets/{wallet}/balance", "42").retrieve().toEntity(String.class).block();
+
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        }
+    }
+
+    @Test
+    void calls_made_for_a_traced_request_continue_its_trace() {
+        var sent = new ArrayList<ClientRequest>();
+        var exported = new ArrayList<Span>();
+        var builder = WebClient.builder().exchangeFunction(request -> {
+            sent.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+        var client = new WebClientFactory(builder, null, new ObjectMapper(), CBOR, new Tracer(1, exported::add))
+                .fromBaseUrl("http://operator");
+        var trace = TraceContext.newTrace(true);
+
+        client.get().uri("/wallets/42/balance").retrieve().toBodilessEntity()
+                .contextWrite(context -> context.put(TraceContext.class, trace))
+                .block();
+        client.get().uri("/wallets/42/balance").retrieve().toBodilessEntity().block();
+
+        var caller = TraceHeaders.extract(sent.get(0).headers()::getFirst);
+        assertEquals(trace.traceId(), caller.traceId());
+        assertEquals(trace.spanId(), sent.get(0).headers().getFirst(TraceHeaders.B3_PARENT_SPAN_ID));
+        assertEquals(List.of(caller.spanId()), exported.stream().map(Span::id).toList());
+        assertEquals(Span.Kind.CLIENT, exported.get(0).kind());
+        assertEquals("200", exported.get(0).tags().get("http.status_code"));
+        assertNull(sent.get(1).headers().getFirst(TraceHeaders.TRACEPARENT));
+    }
+
+    private DataBuffer buffer(String content) {
+        return bufferFactory.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.netent.news.config.logging.server;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.netent.news.config.logging.BodyLoggingPolicy;
+import com.netent.news.config.logging.RingBufferAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link LoggingFilter} for each logging mode, with events encoded as JSON by the logstash encoder
+ * into a discarding stream, either on the request thread or handed off to another appender. Mode off against the
+ * others gives the latency logging adds to a request. Run with the GC profiler
+ * ({@code mvn test -P benchmark -Djmh.benchmarks=LoggingFilter}) to compare allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingFilterBenchmark {
+
+    /**
+     * off: INFO disabled, full: every body logged, truncated: bodies cut at 256 bytes, sampled: 1 in 10 requests.
+     */
+    @Param({"off", "full", "truncated", "sampled"})
+    public String mode;
+
+    /**
+     * sync: encoded and written on the request thread, async: logback's AsyncAppender, ring: {@link RingBufferAppender}.
+     */
+    @Param({"sync", "async", "ring"})
+    public String appender;
+
+    private final byte[] body = ("{\"wallet\":\"42\",\"amount\":\"100.00\",\"currency\":\"EUR\",\"padding\":\""
+            + "x".repeat(4096) + "\"}").getBytes(StandardCharsets.UTF_8);
+
+    private LoggingFilter filter;
+
+    @Setup
+    public void setUp() {
+        var context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        var encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        var output = new OutputStreamAppender<ILoggingEvent>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+
+        var root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if ("ring".equals(appender)) {
+            var ring = new RingBufferAppender();
+            ring.setContext(context);
+            ring.setName("ring");
+            ring.setEncoder(encoder);
+            ring.setOutputStream(OutputStream.nullOutputStream());
+            ring.start();
+            root.addAppender(ring);
+        } else if ("async".equals(appender)) {
+            var async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            root.addAppender(async);
+        } else {
+            root.addAppender(output);
+        }
+        root.setLevel("off".equals(mode) ? Level.WARN : Level.INFO);
+
+        filter = new LoggingFilter(switch (mode) {
+            case "truncated" -> new BodyLoggingPolicy(1.0, 256);
+            case "sampled" -> new BodyLoggingPolicy(0.1, Integer.MAX_VALUE);
+            default -> BodyLoggingPolicy.LOG_ALL;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws Exception {
+        var request = new MockHttpServletRequest("POST", "/gameproviderapi/wallets/42/balance");
+        request.setContentType("application/json");
+        request.setContent(body);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            req.getInputStream().readAllBytes();
+            res.getOutputStream().write(body);
+        });
+        return response;
+    }
+}
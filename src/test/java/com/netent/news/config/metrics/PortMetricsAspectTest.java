@@ -0,0 +1,147 @@
+package com.netent.news.config.metrics;
+
+import com.netent.news.application.port.out.OperatorGetBalance;
+import com.netent.news.application.port.out.OperatorRejectedException;
+import com.netent.news.application.port.out.OperatorWalletFacade;
+import com.netent.news.application.port.out.ReactiveOperatorWalletFacade;
+import com.netent.news.domain.TransactionType;
+import com.netent.news.domain.WalletId;
+import com.netent.news.domain.WalletTransaction;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortMetricsAspectTest {
+
+    private static final int MAX_SERIES = 100;
+
+    private final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    private Predicate<Class<?>> outboundEdge = type -> false;
+
+    @Test
+    void times_a_mono_from_subscription_to_completion_per_operator() {
+        var upstream = Sinks.<OperatorGetBalance>one();
+        ReactiveOperatorWalletFacade facade = advised(wallet -> upstream.asMono());
+
+        var call = facade.getBalance(WalletId.of("acme:1"));
+        assertEquals(0, inFlight("acme"));
+
+        var verifier = StepVerifier.create(call).expectNextCount(1).expectComplete().verifyLater();
+        assertEquals(1, inFlight("acme"));
+
+        upstream.tryEmitValue(new OperatorGetBalance(WalletId.of(42), BigDecimal.TEN, "EUR"));
+        verifier.verify();
+        assertEquals(0, inFlight("acme"));
+        assertEquals(1, registry.get(PortMetricsAspect.CALLS)
+                .tags("method", "getBalance", "operator", "acme", "outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void counts_a_mono_cancelled_after_its_value_as_one_success() {
+        ReactiveOperatorWalletFacade facade = advised(wallet -> Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR")));
+
+        for (int i = 0; i < 3; i++) {
+            // the first of two answers, as a hedged lookup takes it
+            Flux.merge(facade.getBalance(WalletId.of("acme:1")), Mono.never()).next().block();
+        }
+
+        assertEquals(0, inFlight("acme"));
+        assertEquals(3, registry.get(PortMetricsAspect.CALLS)
+                .tags("method", "getBalance", "operator", "acme", "outcome", "success")
+                .timer().count());
+        assertTrue(registry.find(PortMetricsAspect.CALLS).tags("outcome", "cancelled").timers().isEmpty());
+    }
+
+    @Test
+    void counts_errors_of_blocking_calls() {
+        OperatorWalletFacade facade = advised(new OperatorWalletFacade() {
+            @Override
+            public OperatorGetBalance getBalance(WalletId wallet) {
+                throw new IllegalStateException("operator down");
+            }
+
+            @Override
+            public Map<WalletId, OperatorGetBalance> getBalances(Collection<WalletId> wallets) {
+                return Map.of();
+            }
+
+            @Override
+            public OperatorGetBalance transact(WalletTransaction transaction) {
+                throw new OperatorRejectedException("insufficient funds");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> facade.getBalance(WalletId.of("1")));
+        facade.getBalances(List.of());
+        assertThrows(OperatorRejectedException.class, () -> facade.transact(new WalletTransaction("tx-1",
+                WalletId.of("acme:1"), TransactionType.BET, BigDecimal.ONE, "EUR", null, null)));
+
+        assertEquals(1, registry.get(PortMetricsAspect.CALLS)
+                .tags("method", "getBalance", "operator", "default", "outcome", "error")
+                .timer().count());
+        assertEquals(1, registry.get(PortMetricsAspect.ERRORS)
+                .tags("operator", "default", "exception", "IllegalStateException")
+                .counter().count());
+        assertEquals(1, registry.get(PortMetricsAspect.CALLS)
+                .tags("method", "getBalances", "operator", PortMetricsAspect.NO_OPERATOR, "outcome", "success")
+                .timer().count());
+        assertEquals(1, registry.get(PortMetricsAspect.CALLS)
+                .tags("method", "transact", "operator", "acme", "outcome", "error")
+                .timer().count());
+    }
+
+    @Test
+    void exports_histograms_at_the_edges_only_and_timers_of_outcomes_that_happened() {
+        outboundEdge = OperatorClient.class::isAssignableFrom;
+        ReactiveOperatorWalletFacade operator = advised(new OperatorClient());
+        ReactiveOperatorWalletFacade decorator = advised(operator::getBalance);
+
+        for (int i = 0; i < 100; i++) {
+            decorator.getBalance(WalletId.of("acme:" + i)).block();
+        }
+
+        var series = registry.scrape().lines().filter(line -> line.startsWith("wallet_port_")).toList();
+        assertTrue(series.stream().noneMatch(line -> line.contains("outcome=\"error\"") || line.contains("outcome=\"cancelled\"")));
+        var buckets = series.stream().filter(line -> line.contains("_bucket")).toList();
+        assertFalse(buckets.isEmpty());
+        assertTrue(buckets.stream().allMatch(line -> line.contains("class=\"OperatorClient\"")));
+        // the edge's buckets, count, sum and max, the decorator's count, sum and max, and an in flight gauge each
+        assertTrue(series.size() <= MAX_SERIES, () -> series.size() + " series: " + series);
+    }
+
+    private double inFlight(String operator) {
+        return registry.get(PortMetricsAspect.IN_FLIGHT).tags("operator", operator).gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T advised(T target) {
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(new PortMetricsAspect(registry,
+                wallet -> wallet.value().contains(":") ? wallet.value().split(":")[0] : "default", outboundEdge));
+        return (T) factory.getProxy();
+    }
+
+    private static class OperatorClient implements ReactiveOperatorWalletFacade {
+        @Override
+        public Mono<OperatorGetBalance> getBalance(WalletId wallet) {
+            return Mono.just(new OperatorGetBalance(wallet, BigDecimal.TEN, "EUR"));
+        }
+    }
+}
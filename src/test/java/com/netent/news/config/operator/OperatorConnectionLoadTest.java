@@ -0,0 +1,93 @@
+package com.netent.news.config.operator;
+
+import com.netent.news.BenchmarkLogging;
+import com.netent.news.StubOperator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends the same burst of concurrent balance lookups over HTTP/1.1 and over h2c, through the operator client
+ * {@link OperatorWalletConfig} builds, to a stub operator with a fixed latency. Over HTTP/1.1 every request in flight
+ * holds a connection of its own; over HTTP/2 up to {@code max-concurrent-streams} share one.
+ * <p>
+ * Run with {@code mvn test -P load-test}; tune with {@code -Dload.requests}, {@code -Dload.concurrency} and
+ * {@code -Dload.operatorLatencyMs}.
+ */
+@Tag("load")
+class OperatorConnectionLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final int OPERATOR_LATENCY_MS = Integer.getInteger("load.operatorLatencyMs", 20);
+
+    @BeforeAll
+    static void quietLogging() {
+        BenchmarkLogging.warningsOnly();
+    }
+
+    @Test
+    void http2_carries_the_same_load_on_far_fewer_connections() {
+        var http11 = run("http/1.1", List.of(HttpProtocol.HTTP11));
+        var h2c = run("h2c", List.of(HttpProtocol.H2C));
+
+        System.out.println(http11);
+        System.out.println(h2c);
+        assertEquals(0, http11.errors());
+        assertEquals(0, h2c.errors());
+        assertTrue(h2c.connections() * 10 <= http11.connections(), "h2c " + h2c + " vs http/1.1 " + http11);
+        assertTrue(h2c.throughputPerConnection() > http11.throughputPerConnection(), "h2c " + h2c + " vs http/1.1 " + http11);
+    }
+
+    private Report run(String scenario, List<HttpProtocol> protocols) {
+        try (var operator = StubOperator.start(Duration.ofMillis(OPERATOR_LATENCY_MS))) {
+            var properties = new OperatorWalletProperties.Operator();
+            properties.setBaseUrl(operator.baseUrl());
+            properties.setProtocols(protocols);
+            properties.getPool().setMetrics(false);
+            // connection use is measured, not failing fast on a machine saturated by the run
+            properties.setReadTimeout(Duration.ofSeconds(30));
+            properties.getPool().setPendingAcquireTimeout(Duration.ofSeconds(30));
+            var config = new OperatorWalletConfig();
+            try {
+                var client = config.httpClient("load", properties).baseUrl(operator.baseUrl());
+                var errors = new AtomicLong();
+                var start = System.nanoTime();
+                Flux.range(0, REQUESTS)
+                        .flatMap(n -> client.get().uri("/wallets/" + n + "/balance")
+                                .responseSingle((response, body) -> body.asString().map(ignored -> response.status().code()))
+                                .onErrorReturn(-1), CONCURRENCY)
+                        .filter(status -> status != 200)
+                        .doOnNext(status -> errors.incrementAndGet())
+                        .blockLast(Duration.ofMinutes(5));
+                var seconds = (System.nanoTime() - start) / 1e9;
+                return new Report(scenario, REQUESTS, errors.get(), REQUESTS / seconds, operator.connections());
+            } finally {
+                config.disposeConnectionProviders();
+            }
+        }
+    }
+
+    private record Report(String scenario, long requests, long errors, double throughput, int connections) {
+
+        double throughputPerConnection() {
+            return throughput / connections;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %8.0f req/s  %5d connections  %8.1f req/s per connection  %d/%d errors",
+                    scenario, throughput, connections, throughputPerConnection(), errors, requests);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.netent.news.config.operator;
+
+import com.netent.news.adapter.out.BalanceChangeFeed;
+import com.netent.news.adapter.out.InMemorySharedBalanceCache;
+import com.netent.news.application.port.out.SharedBalanceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OperatorWalletConfigTest {
+
+    private final OperatorWalletConfig config = new OperatorWalletConfig();
+    private final OperatorWalletProperties properties = new OperatorWalletProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fails_to_enable_the_shared_cache_without_a_shared_cache_to_use() {
+        properties.getCache().getShared().setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> cachingOperatorWalletFacade(new StaticListableBeanFactory()));
+    }
+
+    @Test
+    void fails_to_share_balances_for_longer_than_each_replica_caches_them() {
+        properties.getCache().setTtl(Duration.ofSeconds(1));
+        properties.getCache().getShared().setTtl(Duration.ofSeconds(2));
+        properties.getCache().getShared().setEnabled(true);
+        var beans = new StaticListableBeanFactory(Map.of("shared", new InMemorySharedBalanceCache(Duration.ofSeconds(2), 100)));
+
+        assertThrows(IllegalArgumentException.class, () -> cachingOperatorWalletFacade(beans));
+    }
+
+    private void cachingOperatorWalletFacade(StaticListableBeanFactory beans) {
+        config.cachingOperatorWalletFacade(null, new BalanceChangeFeed(), beans.getBeanProvider(SharedBalanceCache.class),
+                properties, meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.netent.news.config.startup;
+
+import com.netent.news.application.port.in.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("fast-start")
+class FastStartTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void creates_the_wallet_path_eagerly() {
+        var beanFactory = context.getBeanFactory();
+        for (var name : context.getBeanNamesForType(WalletService.class)) {
+            assertTrue(beanFactory.containsSingleton(name), name + " was left lazy");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.netent.news.config.threads;
+
+import com.netent.news.StubOperator;
+import com.netent.news.load.LoadGenerator;
+import com.netent.news.load.LoadReport;
+import com.netent.news.load.RunningApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the blocking servlet path on platform and on virtual threads against a stub operator with a fixed
+ * latency. Tomcat is given few platform threads so that the thread pool, not the CPU, is what saturates first.
+ * <p>
+ * Run with {@code mvn test -P load-test}; tune with {@code -Dload.requests}, {@code -Dload.concurrency},
+ * {@code -Dload.operatorLatencyMs} and {@code -Dload.tomcatThreads}.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 500);
+    private static final int OPERATOR_LATENCY_MS = Integer.getInteger("load.operatorLatencyMs", 200);
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcatThreads", 50);
+
+    private static StubOperator operator;
+
+    @BeforeAll
+    static void startOperator() {
+        operator = StubOperator.start(Duration.ofMillis(OPERATOR_LATENCY_MS));
+    }
+
+    @AfterAll
+    static void stopOperator() {
+        operator.close();
+    }
+
+    @Test
+    void virtual_threads_outperform_platform_threads_on_operator_latency() throws Exception {
+        var platform = run("platform", false);
+        var virtual = run("virtual", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.throughput() > platform.throughput(), "virtual " + virtual + " vs platform " + platform);
+    }
+
+    private LoadReport run(String scenario, boolean virtualThreads) throws Exception {
+        try (var application = RunningApplication.start(operator.baseUrl(), List.of(
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--operator.wallet.operators.default.pool.max-connections=" + CONCURRENCY,
+                "--operator.wallet.operators.default.pool.pending-acquire-max-count=" + REQUESTS))) {
+            // a distinct wallet per request, so that every request reaches the operator
+            return LoadGenerator.balances(application.baseUrl(), Long.MAX_VALUE)
+                    .closedLoop(scenario, CONCURRENCY, REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.netent.news.config.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceContextTest {
+
+    @Test
+    void reads_the_callers_span_from_traceparent() {
+        var caller = TraceContext.fromTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", caller.traceId());
+        assertEquals("00f067aa0ba902b7", caller.spanId());
+        assertTrue(caller.sampled());
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", caller.traceparent());
+        assertFalse(TraceContext.fromTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00").sampled());
+    }
+
+    @Test
+    void ignores_malformed_traceparent() {
+        for (var header : new String[]{null, "", "garbage",
+                "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01",
+                "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-x1",
+                "00_4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"}) {
+            assertNull(TraceContext.fromTraceparent(header), header);
+        }
+    }
+
+    @Test
+    void child_spans_stay_in_the_trace() {
+        var trace = TraceContext.newTrace(true);
+        var child = trace.child();
+
+        assertEquals(32, trace.traceId().length());
+        assertEquals(16, trace.spanId().length());
+        assertNull(trace.parentSpanId());
+        assertEquals(trace.traceId(), child.traceId());
+        assertEquals(trace.spanId(), child.parentSpanId());
+        assertNotEquals(trace.spanId(), child.spanId());
+        assertTrue(child.sampled());
+        assertEquals(trace.spanId(), TraceContext.fromTraceparent(trace.traceparent()).spanId());
+    }
+
+    @Test
+    void binding_restores_the_outer_context() {
+        var outer = TraceContext.newTrace(false);
+        var inner = outer.child();
+
+        try (var ignored = outer.bind()) {
+            try (var ignoredToo = inner.bind()) {
+                assertSame(inner, TraceContext.current());
+            }
+            assertSame(outer, TraceContext.current());
+        }
+        assertNull(TraceContext.current());
+    }
+}
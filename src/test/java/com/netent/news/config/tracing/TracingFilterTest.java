@@ -0,0 +1,79 @@
+package com.netent.news.config.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.netent.news.config.logging.LoggingConstants.SPAN_ID;
+import static com.netent.news.config.logging.LoggingConstants.TRACE_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingFilterTest {
+
+    private final List<Span> exported = new ArrayList<>();
+    private final AtomicReference<TraceContext> served = new AtomicReference<>();
+
+    @Test
+    void continues_the_callers_trace() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/wallets/42/balance");
+        request.addHeader(TraceHeaders.TRACEPARENT, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        filter(new Tracer(0, exported::add), request);
+
+        var trace = served.get();
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", trace.traceId());
+        assertEquals("00f067aa0ba902b7", trace.parentSpanId());
+        var span = exported.get(0);
+        assertEquals(Span.Kind.SERVER, span.kind());
+        assertEquals(trace.spanId(), span.id());
+        assertEquals("00f067aa0ba902b7", span.parentId());
+        assertEquals("/wallets/42/balance", span.tags().get("http.path"));
+        assertEquals("200", span.tags().get("http.status_code"));
+    }
+
+    @Test
+    void continues_b3_traces() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/wallets/42/balance");
+        request.addHeader(TraceHeaders.B3_TRACE_ID, "A3CE929D0E0E4736");
+        request.addHeader(TraceHeaders.B3_SPAN_ID, "00f067aa0ba902b7");
+        request.addHeader(TraceHeaders.B3_SAMPLED, "0");
+
+        filter(new Tracer(1, exported::add), request);
+
+        assertEquals("0000000000000000a3ce929d0e0e4736", served.get().traceId());
+        assertFalse(served.get().sampled());
+        assertTrue(exported.isEmpty());
+    }
+
+    @Test
+    void starts_a_trace_for_untraced_callers_and_logs_its_ids() throws Exception {
+        var mdc = new AtomicReference<String>();
+
+        new TracingFilter(new Tracer(1, exported::add)).doFilter(new MockHttpServletRequest("GET", "/wallets/42/balance"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    served.set(TraceContext.current());
+                    mdc.set(MDC.get(TRACE_ID) + "/" + MDC.get(SPAN_ID));
+                });
+
+        var trace = served.get();
+        assertNull(trace.parentSpanId());
+        assertTrue(trace.sampled());
+        assertEquals(trace.traceId() + "/" + trace.spanId(), mdc.get());
+        assertEquals(1, exported.size());
+        assertNull(TraceContext.current());
+        assertNull(MDC.get(TRACE_ID));
+    }
+
+    private void filter(Tracer tracer, MockHttpServletRequest request) throws Exception {
+        new TracingFilter(tracer).doFilter(request, new MockHttpServletResponse(),
+                (servedRequest, response) -> served.set(TraceContext.current()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.netent.news.config.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ZipkinSpanExporterTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final List<JsonNode> posted = new CopyOnWriteArrayList<>();
+    // stands in for a Zipkin collector, on its own event loops like StubOperator
+    private final LoopResources loops = LoopResources.create("stub-collector");
+    private final DisposableServer collector = HttpServer.create()
+            .runOn(loops)
+            .port(0)
+            .route(routes -> routes.post("/api/v2/spans", (request, response) -> request.receive().aggregate().asByteArray()
+                    .flatMap(body -> {
+                        posted.add(read(body));
+                        return response.status(202).send();
+                    })))
+            .bindNow();
+
+    @AfterEach
+    void stopCollector() {
+        collector.disposeNow();
+        loops.dispose();
+    }
+
+    @Test
+    void posts_spans_in_zipkin_v2_json_batches() {
+        var exporter = exporter(collector.port(), 10, 2);
+        exporter.export(span("a", null));
+        exporter.export(span("b", "a"));
+        exporter.export(span("c", "a"));
+
+        exporter.flush().block(Duration.ofSeconds(5));
+
+        assertEquals(2, posted.size());
+        var first = posted.get(0).get(0);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", first.get("traceId").asText());
+        assertEquals("000000000000000a", first.get("id").asText());
+        assertFalse(first.has("parentId"));
+        assertEquals("SERVER", first.get("kind").asText());
+        assertEquals(1_000_000, first.get("timestamp").asLong());
+        assertEquals(250, first.get("duration").asLong());
+        assertEquals("ports", first.get("localEndpoint").get("serviceName").asText());
+        assertEquals("/wallets/42/balance", first.get("tags").get("http.path").asText());
+        assertEquals("000000000000000a", posted.get(0).get(1).get("parentId").asText());
+        assertEquals(1, posted.get(1).size());
+        assertEquals(3, exporter.exported());
+    }
+
+    @Test
+    void drops_spans_rather_than_queueing_without_bound() {
+        var exporter = exporter(collector.port(), 2, 10);
+        for (var id : new String[]{"a", "b", "c"}) {
+            exporter.export(span(id, null));
+        }
+
+        exporter.flush().block(Duration.ofSeconds(5));
+
+        assertEquals(2, posted.get(0).size());
+        assertEquals(1, exporter.dropped());
+    }
+
+    @Test
+    void drops_spans_the_collector_fails_to_take() {
+        var exporter = exporter(collector.port(), 10, 10);
+        stopCollector();
+        exporter.export(span("a", null));
+
+        exporter.flush().block(Duration.ofSeconds(5));
+
+        assertEquals(0, exporter.exported());
+        assertEquals(1, exporter.dropped());
+    }
+
+    private static ZipkinSpanExporter exporter(int port, int queueSize, int batchSize) {
+        var client = WebClient.create("http://localhost:" + port + "/api/v2/spans");
+        return new ZipkinSpanExporter(client, JSON, "ports", queueSize, batchSize, Duration.ofSeconds(1));
+    }
+
+    private static Span span(String id, String parentId) {
+        return new Span("4bf92f3577b34da6a3ce929d0e0e4736", "000000000000000" + id,
+                parentId == null ? null : "000000000000000" + parentId,
+                "GET", Span.Kind.SERVER, 1_000_000, 250, Map.of("http.path", "/wallets/42/balance"));
+    }
+
+    private static JsonNode read(byte[] body) {
+        try {
+            return JSON.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
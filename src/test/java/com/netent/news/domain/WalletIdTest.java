@@ -0,0 +1,39 @@
+package com.netent.news.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletIdTest {
+
+    @Test
+    void packs_canonical_wallet_numbers() {
+        var wallet = WalletId.of("1234567");
+
+        assertTrue(wallet.isNumeric());
+        assertEquals("1234567", wallet.value());
+        assertEquals(WalletId.of(1234567), wallet);
+        assertEquals(WalletId.of(1234567).hashCode(), wallet.hashCode());
+    }
+
+    @Test
+    void keeps_any_other_id_as_it_is() {
+        for (var value : new String[]{"acme:42", "007", "-1", "", "1234567890123456789", "12a"}) {
+            var wallet = WalletId.of(value);
+
+            assertFalse(wallet.isNumeric(), value);
+            assertEquals(value, wallet.value());
+        }
+        assertNotEquals(WalletId.of("7"), WalletId.of("007"));
+    }
+
+    @Test
+    void equal_exactly_when_values_are() {
+        assertEquals(WalletId.of("1234567890123456789"), WalletId.of(1234567890123456789L));
+        assertEquals(WalletId.of("0"), WalletId.of(0));
+        assertNotEquals(WalletId.of("1"), WalletId.of("acme:1"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.netent.news.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Drives HTTP load at an application and records the latency of every request in an HdrHistogram.
+ * <p>
+ * {@link #openLoop} sends at a fixed rate regardless of how fast responses come back and measures each request
+ * from the moment it was due, not from when it was actually sent, so a stalled server shows up in the tail
+ * instead of silently lowering the offered load. {@link #closedLoop} keeps a fixed number of requests in flight
+ * and measures the throughput that concurrency sustains.
+ */
+public final class LoadGenerator {
+
+    private static final long TIMEOUT_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final LongFunction<URI> requests;
+
+    /**
+     * @param requests the URI of the n-th request
+     */
+    public LoadGenerator(LongFunction<URI> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Balance lookups spread over {@code wallets} distinct wallets.
+     */
+    public static LoadGenerator balances(String baseUrl, long wallets) {
+        return new LoadGenerator(n -> URI.create(baseUrl + "/wallets/" + (n % wallets) + "/balance"));
+    }
+
+    /**
+     * Sends {@code rps} requests a second for {@code warmup} plus {@code duration}, recording only the latter.
+     */
+    public LoadReport openLoop(String scenario, int rps, Duration warmup, Duration duration) {
+        var interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        var start = System.nanoTime();
+        var measureFrom = start + warmup.toNanos();
+        var end = measureFrom + duration.toNanos();
+
+        var run = new Run();
+        var sent = new ArrayList<CompletableFuture<?>>();
+        for (long n = 0; ; n++) {
+            var due = start + n * interval;
+            if (due >= end) {
+                break;
+            }
+            var wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            var measured = due >= measureFrom;
+            if (measured && !run.begun()) {
+                run.begin();
+            }
+            sent.add(send(n, due, measured ? run : null));
+        }
+        await(sent);
+        return run.report(scenario);
+    }
+
+    /**
+     * Sends {@code count} requests keeping at most {@code concurrency} of them in flight.
+     */
+    public LoadReport closedLoop(String scenario, int concurrency, int count) throws InterruptedException {
+        var inFlight = new Semaphore(concurrency);
+        var run = new Run();
+        var sent = new ArrayList<CompletableFuture<?>>(count);
+        run.begin();
+        for (int n = 0; n < count; n++) {
+            inFlight.acquire();
+            sent.add(send(n, System.nanoTime(), run).whenComplete((ignored, failure) -> inFlight.release()));
+        }
+        await(sent);
+        return run.report(scenario);
+    }
+
+    private CompletableFuture<?> send(long n, long due, Run run) {
+        var request = HttpRequest.newBuilder(requests.apply(n)).timeout(Duration.ofMinutes(1)).build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (run != null) {
+                        run.record(System.nanoTime() - due, failure == null && response.statusCode() == 200);
+                    }
+                });
+    }
+
+    private static void await(List<CompletableFuture<?>> sent) {
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+    }
+
+    /**
+     * Measurement window: latencies, errors, elapsed time and bytes allocated by the JVM.
+     */
+    private static final class Run {
+
+        private final Histogram latencies = new ConcurrentHistogram(TIMEOUT_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private long startNanos;
+        private long allocatedAtStart;
+
+        boolean begun() {
+            return startNanos != 0;
+        }
+
+        void begin() {
+            startNanos = System.nanoTime();
+            allocatedAtStart = threads.getTotalThreadAllocatedBytes();
+        }
+
+        void record(long nanos, boolean ok) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), TIMEOUT_MICROS));
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        LoadReport report(String scenario) {
+            var seconds = (System.nanoTime() - startNanos) / 1e9;
+            var allocated = threads.getTotalThreadAllocatedBytes() - allocatedAtStart;
+            var count = latencies.getTotalCount();
+            return new LoadReport(scenario, count, errors.get(), count / seconds,
+                    latencies.getValueAtPercentile(50),
+                    latencies.getValueAtPercentile(99),
+                    latencies.getValueAtPercentile(99.9),
+                    latencies.getMaxValue(),
+                    allocated / seconds / (1024 * 1024));
+        }
+    }
+}
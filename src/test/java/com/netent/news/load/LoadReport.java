@@ -0,0 +1,38 @@
+package com.netent.news.load;
+
+import java.util.Locale;
+
+/**
+ * Outcome of one load run. Latencies are in microseconds; the allocation rate covers the whole JVM, so it includes
+ * the load generator and the stub operator next to the application.
+ */
+public record LoadReport(String scenario,
+                         long requests,
+                         long errors,
+                         double throughput,
+                         long p50Micros,
+                         long p99Micros,
+                         long p999Micros,
+                         long maxMicros,
+                         double allocationMBPerSecond) {
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"scenario\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,\"p50Micros\":%d,"
+                        + "\"p99Micros\":%d,\"p999Micros\":%d,\"maxMicros\":%d,\"allocationMBPerSecond\":%.1f}",
+                scenario, requests, errors, throughput, p50Micros, p99Micros, p999Micros, maxMicros,
+                allocationMBPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%-16s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms  %d/%d errors  %6.1f MB/s allocated",
+                scenario, throughput, p50Micros / 1e3, p99Micros / 1e3, p999Micros / 1e3, maxMicros / 1e3,
+                errors, requests, allocationMBPerSecond);
+    }
+}
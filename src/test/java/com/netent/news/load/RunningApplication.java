@@ -0,0 +1,52 @@
+package com.netent.news.load;
+
+import com.netent.news.PortsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link PortsApplication} started on a random port for a load run. Arguments are passed on the command line, as
+ * {@link SpringApplicationBuilder#properties} would lose to {@code application.properties}.
+ */
+public final class RunningApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private RunningApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param operatorBaseUrl base URL of the default operator
+     * @param args            further {@code --key=value} overrides, e.g. the web stack under test
+     */
+    public static RunningApplication start(String operatorBaseUrl, List<String> args) {
+        var all = new ArrayList<String>();
+        all.add("--server.port=0");
+        all.add("--logging.level.com.netent.news.config.logging=" + System.getProperty("load.logging", "WARN"));
+        all.add("--operator.wallet.operators.default.base-url=" + operatorBaseUrl);
+        if (args.stream().noneMatch(arg -> arg.startsWith("--http.server.admission."))) {
+            // the load is the point of a run, not something to turn away
+            all.add("--http.server.admission.enabled=false");
+        }
+        all.addAll(args);
+        var extra = System.getProperty("load.appArgs", "").trim();
+        if (!extra.isEmpty()) {
+            all.addAll(List.of(extra.split("\\s+")));
+        }
+        return new RunningApplication(new SpringApplicationBuilder(PortsApplication.class).run(all.toArray(String[]::new)));
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.netent.news.load;
+
+import com.netent.news.StubOperator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offers a fixed rate of balance lookups to each web stack in turn, against a stub operator with a configurable
+ * latency distribution and error rate, and reports throughput, p50/p99/p99.9 latency and allocation rate. Each
+ * report is printed and written to {@code target/load/<scenario>.json} for comparison across runs.
+ * <p>
+ * Run with {@code mvn test -P load-test}; tune with
+ * <ul>
+ *     <li>{@code -Dload.rps} offered requests per second (default 500)</li>
+ *     <li>{@code -Dload.warmup}, {@code -Dload.duration} e.g. {@code 10s}, {@code 30s}</li>
+ *     <li>{@code -Dload.latency} {@code fixed:20ms}, {@code uniform:5ms:50ms} or {@code lognormal:20ms:200ms}</li>
+ *     <li>{@code -Dload.errorRate} share of operator calls answered with 503 (default 0)</li>
+ *     <li>{@code -Dload.wallets} distinct wallets, i.e. how often the balance cache hits (default 1000000)</li>
+ *     <li>{@code -Dload.logging} level of the HTTP logging packages (default WARN), {@code -Dload.appArgs} further
+ *     application arguments separated by spaces</li>
+ * </ul>
+ */
+@Tag("load")
+class WalletLoadTest {
+
+    private static final int RPS = Integer.getInteger("load.rps", 500);
+    private static final Duration WARMUP = duration("load.warmup", "5s");
+    private static final Duration DURATION = duration("load.duration", "15s");
+    private static final String LATENCY = System.getProperty("load.latency", "lognormal:20ms:200ms");
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.errorRate", "0"));
+    private static final long WALLETS = Long.getLong("load.wallets", 1_000_000);
+
+    private static StubOperator operator;
+
+    @BeforeAll
+    static void startOperator() {
+        operator = StubOperator.start(StubOperator.Latency.parse(LATENCY), ERROR_RATE);
+    }
+
+    @AfterAll
+    static void stopOperator() {
+        operator.close();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "servlet,          servlet,  false",
+            "servlet-virtual,  servlet,  true",
+            "reactive,         reactive, false",
+    })
+    void balance_lookups(String scenario, String webApplicationType, boolean virtualThreads) throws IOException {
+        LoadReport report;
+        try (var application = RunningApplication.start(operator.baseUrl(), List.of(
+                "--spring.main.web-application-type=" + webApplicationType,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--operator.wallet.operators.default.pool.pending-acquire-max-count=" + RPS * 10))) {
+            report = LoadGenerator.balances(application.baseUrl(), WALLETS).openLoop(scenario, RPS, WARMUP, DURATION);
+        }
+
+        System.out.println(report);
+        var out = Path.of("target", "load", scenario + ".json");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, report.toJson());
+
+        assertTrue(report.requests() > 0, report::toString);
+        assertTrue(report.errorRate() <= ERROR_RATE + 0.01, report::toString);
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}